@@ -0,0 +1,110 @@
+package tinymonkeys.modele;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks des chemins critiques du modele sur une ile peuplee : requetes
+ * sur les cases, tirage d'un deplacement, liste des cases terre et tick
+ * complet de la bande de singes.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BenchmarkIle {
+
+	/**
+	 * Indice courant dans les coordonnees pre-tirees et dans la bande.
+	 */
+	private int indice;
+
+	/**
+	 * Passe a l'indice suivant.
+	 *
+	 * @param borne le nombre d'indices possibles.
+	 * @return l'indice courant.
+	 */
+	private int suivant(int borne) {
+		this.indice = (this.indice + 1) % borne;
+		return this.indice;
+	}
+
+	/**
+	 * Occupation d'une case aleatoire.
+	 *
+	 * @param etat l'ile peuplee.
+	 * @return true si la case est libre.
+	 */
+	@Benchmark
+	public boolean isLibre(IlePeuplee etat) {
+		final int i = this.suivant(IlePeuplee.NB_COORDONNEES);
+		return etat.ile.isLibre(etat.xs[i], etat.ys[i]);
+	}
+
+	/**
+	 * Validation d'un deplacement vers une case aleatoire.
+	 *
+	 * @param etat l'ile peuplee.
+	 * @return true si le deplacement est possible.
+	 */
+	@Benchmark
+	public boolean isDeplacementPossible(IlePeuplee etat) {
+		final int i = this.suivant(IlePeuplee.NB_COORDONNEES);
+		return etat.ile.isDeplacementPossible(etat.xs[i], etat.ys[i]);
+	}
+
+	/**
+	 * Tirage de la prochaine position d'un singe, sans deplacement.
+	 *
+	 * @param etat l'ile peuplee.
+	 * @return la case tiree, ou null si le singe est bloque.
+	 */
+	@Benchmark
+	public CaseVide getNextRandomPos(IlePeuplee etat) {
+		final BandeDeSingesErratiques bande = etat.ile.getSingesErratiques();
+		return bande.getSinge(this.suivant(bande.getNbSinges())).getNextRandomPos();
+	}
+
+	/**
+	 * Liste de toutes les cases terre de l'ile.
+	 *
+	 * @param etat l'ile peuplee.
+	 * @return la liste des cases terre.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public List<CaseVide> genererListCasesTerre(IlePeuplee etat) {
+		return etat.ile.genererListCasesTerre();
+	}
+
+	/**
+	 * Tick complet : chaque singe de la bande se deplace une fois.
+	 *
+	 * @param etat l'ile peuplee.
+	 * @param trou consommateur des resultats.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void tick(IlePeuplee etat, Blackhole trou) {
+		etat.ile.getSingesErratiques().deplacerSinges();
+		trou.consume(etat.ile.getPirate());
+	}
+}
@@ -0,0 +1,94 @@
+package tinymonkeys.modele;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark du peuplement d'une ile vide par la bande de singes erratiques.
+ *
+ * Chaque invocation peuple une ile neuve. Plutot qu'un Setup par invocation,
+ * dont le cout d'horodatage fausse des mesures de quelques microsecondes,
+ * chaque iteration mesure d'un seul tenant un lot de ILES_PAR_LOT
+ * invocations sur autant d'iles construites avant l'iteration.
+ *
+ * Comme pour IlePeuplee, les combinaisons ou le nombre de singes depasse la
+ * capacite de l'ile sont refusees.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = BenchmarkPeuplement.ILES_PAR_LOT)
+@Measurement(iterations = 20, batchSize = BenchmarkPeuplement.ILES_PAR_LOT)
+@Fork(2)
+@State(Scope.Thread)
+public class BenchmarkPeuplement {
+
+	/**
+	 * Nombre d'invocations, et donc d'iles, par iteration.
+	 */
+	static final int ILES_PAR_LOT = 16;
+
+	/**
+	 * Cote de la carte en nombre de cases.
+	 */
+	@Param({ "30", "200", "1000" })
+	public int cote;
+
+	/**
+	 * Nombre de singes erratiques a ajouter.
+	 */
+	@Param({ "50", "1000", "20000" })
+	public int nbSinges;
+
+	/**
+	 * Les iles a peupler pendant l'iteration.
+	 */
+	private Ile[] iles;
+
+	/**
+	 * Indice de la prochaine ile a peupler.
+	 */
+	private int suivante;
+
+	/**
+	 * Construit les iles vides d'une iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void preparer() {
+		IlePeuplee.verifierCapacite(this.cote, this.nbSinges);
+		this.iles = new Ile[ILES_PAR_LOT];
+		for (int i = 0; i < ILES_PAR_LOT; ++i) {
+			this.iles[i] = IlePeuplee.ileVide(this.cote);
+		}
+		this.suivante = 0;
+	}
+
+	/**
+	 * Ajout des singes erratiques a des positions libres aleatoires, sur
+	 * l'ile vide suivante du lot.
+	 *
+	 * @return l'ile peuplee.
+	 */
+	@Benchmark
+	public Ile ajoutSingesErratiques() {
+		final Ile ile = this.iles[this.suivante];
+		this.suivante = (this.suivante + 1) % ILES_PAR_LOT;
+		ile.ajoutSingesErratiques(this.nbSinges);
+		return ile;
+	}
+}
@@ -0,0 +1,143 @@
+package tinymonkeys.modele;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Etat partage des benchmarks : une ile carree bordee de mer, peuplee de
+ * singes erratiques, avec son tresor et son pirate.
+ *
+ * Le nombre de singes ne peut depasser le nombre de cases terre moins deux,
+ * laissees libres par la bande pour le pirate : les combinaisons qui
+ * depassent la capacite de l'ile sont refusees au Setup plutot que de
+ * mesurer silencieusement une ile plafonnee. JMH les signale en echec et
+ * poursuit avec les combinaisons suivantes.
+ *
+ * La propriete systeme tinymonkeys.etat designe un fichier d'etat (voir
+ * FichierEtat), par exemple ecrit par SimulationSansAffichage : l'ile est
+ * alors restauree depuis cet etat, deja peuple et brasse, au lieu d'etre
+ * peuplee ; les parametres cote et nbSinges sont ignores.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+@State(Scope.Benchmark)
+public class IlePeuplee {
+
+	/**
+	 * Nombre de coordonnees aleatoires pre-tirees.
+	 */
+	static final int NB_COORDONNEES = 1024;
+
+	/**
+	 * Graine de l'ile et du tirage des coordonnees, pour des mesures
+	 * comparables.
+	 */
+	private static final long GRAINE = 42L;
+
+	/**
+	 * Propriete systeme designant le fichier de l'etat initial de l'ile.
+	 */
+	private static final String PROPRIETE_ETAT = "tinymonkeys.etat";
+
+	/**
+	 * Cote de la carte en nombre de cases.
+	 */
+	@Param({ "30", "200", "1000" })
+	public int cote;
+
+	/**
+	 * Nombre de singes erratiques.
+	 */
+	@Param({ "50", "1000", "20000" })
+	public int nbSinges;
+
+	/**
+	 * Stockage compact des positions des singes.
+	 */
+	@Param({ "false", "true" })
+	public boolean stockageCompact;
+
+	/**
+	 * L'ile simulee.
+	 */
+	Ile ile;
+
+	/**
+	 * Abscisses pre-tirees, carte et bordure comprises.
+	 */
+	int[] xs;
+
+	/**
+	 * Ordonnees pre-tirees, carte et bordure comprises.
+	 */
+	int[] ys;
+
+	/**
+	 * Construit l'ile et tire les coordonnees.
+	 *
+	 * @throws IOException si l'etat initial ne peut pas etre lu.
+	 */
+	@Setup
+	public void preparer() throws IOException {
+		final String etat = System.getProperty(PROPRIETE_ETAT);
+		if (etat == null) {
+			IlePeuplee.verifierCapacite(this.cote, this.nbSinges);
+			this.ile = IlePeuplee.ileVide(this.cote);
+			this.ile.creationTresor();
+			this.ile.getSingesErratiques().setStockageCompact(this.stockageCompact);
+			this.ile.ajoutSingesErratiques(this.nbSinges);
+			this.ile.ajoutPirate(null);
+		} else {
+			this.ile = new Ile(GRAINE);
+			this.ile.getSingesErratiques().setStockageCompact(this.stockageCompact);
+			this.ile.restaurerEtat(FichierEtat.charger(Paths.get(etat)));
+		}
+
+		final Random aleatoire = new Random(GRAINE);
+		final int largeur = this.ile.getCarte().getLargeur();
+		final int hauteur = this.ile.getCarte().getHauteur();
+		this.xs = new int[NB_COORDONNEES];
+		this.ys = new int[NB_COORDONNEES];
+		for (int i = 0; i < NB_COORDONNEES; ++i) {
+			this.xs[i] = aleatoire.nextInt(largeur);
+			this.ys[i] = aleatoire.nextInt(hauteur);
+		}
+	}
+
+	/**
+	 * Refuse un nombre de singes superieur a la capacite d'une ile carree.
+	 *
+	 * @param cote le cote de la carte en nombre de cases.
+	 * @param nbSinges le nombre de singes demande.
+	 * @throws IllegalArgumentException si l'ile ne peut pas accueillir tous
+	 *             les singes.
+	 */
+	static void verifierCapacite(int cote, int nbSinges) {
+		final long capacite = (long) Math.max(0, cote - 2) * Math.max(0, cote - 2) - 2;
+		if (nbSinges > capacite) {
+			throw new IllegalArgumentException("Combinaison impossible : " + nbSinges
+					+ " singes pour " + Math.max(0, capacite) + " places sur une ile de cote "
+					+ cote);
+		}
+	}
+
+	/**
+	 * Construit une ile carree sans personnage.
+	 *
+	 * @param cote le cote de la carte en nombre de cases.
+	 * @return l'ile.
+	 */
+	static Ile ileVide(int cote) {
+		final Ile ile = new Ile(GRAINE);
+		ile.creationCarte(Carte.rectangulaire(cote, cote));
+		return ile;
+	}
+}
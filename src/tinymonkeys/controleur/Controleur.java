@@ -1,9 +1,21 @@
 package tinymonkeys.controleur;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import javax.swing.JFrame;
 
+import tinymonkeys.modele.Carte;
 import tinymonkeys.modele.Ile;
+import tinymonkeys.modele.JournalEvenements;
+import tinymonkeys.modele.Metriques;
+import tinymonkeys.modele.Simulation;
+import tinymonkeys.vue.BoucleRendu;
 import tinymonkeys.vue.Fenetre;
+import tinymonkeys.vue.PasserelleEdt;
 
 /**
  * Controleur du modele MVC de TinyMonkeys.
@@ -34,6 +46,54 @@ public class Controleur {
 	 */
 	private static final int NOMBRE_SINGES_ERRATIQUES = 50;
 
+	/**
+	 * Propriete systeme fixant la graine de la partie, pour la rejouer.
+	 */
+	private static final String PROPRIETE_GRAINE = "tinymonkeys.graine";
+
+	/**
+	 * Propriete systeme indiquant le fichier ou enregistrer le journal des
+	 * evenements de la partie.
+	 */
+	private static final String PROPRIETE_JOURNAL = "tinymonkeys.journal";
+
+	/**
+	 * Propriete systeme fixant la politique de coalescence des entrees du
+	 * joueur (TOUTES ou DERNIERE).
+	 */
+	private static final String PROPRIETE_COALESCENCE = "tinymonkeys.coalescence";
+
+	/**
+	 * Propriete systeme fixant le nombre d'images par seconde de l'affichage.
+	 */
+	private static final String PROPRIETE_IMAGES = "tinymonkeys.images";
+
+	/**
+	 * Propriete systeme fixant le nombre de ticks par seconde de la
+	 * simulation, independamment de l'affichage.
+	 */
+	private static final String PROPRIETE_TICKS = "tinymonkeys.ticks";
+
+	/**
+	 * Propriete systeme activant le rendu de tous les personnages sur un seul
+	 * canevas, au lieu d'un composant par personnage.
+	 */
+	private static final String PROPRIETE_CANEVAS = "tinymonkeys.canevas";
+
+	/**
+	 * Propriete systeme activant l'interpolation des positions entre deux
+	 * ticks, en mode canevas.
+	 */
+	private static final String PROPRIETE_INTERPOLATION = "tinymonkeys.interpolation";
+
+	/**
+	 * Propriete systeme fixant la periode, en secondes, du rapport textuel
+	 * des metriques ; sans elle, les metriques ne sont exposees que par JMX.
+	 */
+	private static final String PROPRIETE_METRIQUES = "tinymonkeys.metriques";
+
+	private static final Logger log = Logger.getGlobal();
+
 	/**
 	 * Fenetre de l'interface graphique.
 	 */
@@ -45,46 +105,124 @@ public class Controleur {
 	private Ile monkeyIsland;
 
 	/**
-	 * Constructeur du controleur.
+	 * Simulation de l'ile, seule a modifier le modele une fois lancee.
+	 */
+	private Simulation simulation;
+
+	/**
+	 * Boucle de rendu de la fenetre, cadencee independamment de la simulation.
+	 */
+	private BoucleRendu boucleRendu;
+
+	/**
+	 * Constructeur du controleur, en mode canevas si la propriete systeme
+	 * tinymonkeys.canevas vaut true.
 	 */
 	public Controleur() {
-		this.fenetre = new Fenetre("TinyMonkeys", this);
+		this(Boolean.getBoolean(PROPRIETE_CANEVAS));
+	}
+
+	/**
+	 * Constructeur du controleur.
+	 * 
+	 * @param renduCanevas true pour dessiner tous les personnages sur un seul
+	 *            canevas, false pour utiliser un composant par personnage.
+	 */
+	public Controleur(boolean renduCanevas) {
+		this.fenetre = new Fenetre("TinyMonkeys", this, renduCanevas);
 
 		// Sortie de l'application quand la fenetre est fermee via la croix.
 		this.fenetre.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		this.fenetre.setVisible(true);
 
-		this.monkeyIsland = new Ile();
-		this.monkeyIsland.enregistreEcIle(this.fenetre);
-		this.monkeyIsland.getSingesErratiques().enregistreEcBandeSinges(
-				this.fenetre);
+		final Long graine = Long.getLong(PROPRIETE_GRAINE);
+		if (graine == null) {
+			this.monkeyIsland = new Ile();
+		} else {
+			this.monkeyIsland = new Ile(graine.longValue());
+		}
+		log.info("Graine de la partie : "
+				+ this.monkeyIsland.getSourceAleatoire().getGraine());
+		final String journal = System.getProperty(PROPRIETE_JOURNAL);
+		if (journal != null) {
+			this.enregistrerJournal(journal);
+		}
+		// Les evenements du modele parviennent a la fenetre sur l'EDT, une
+		// fois par image de la boucle de rendu.
+		final PasserelleEdt passerelle = new PasserelleEdt(this.fenetre, this.fenetre,
+				this.fenetre, false);
+		this.boucleRendu = new BoucleRendu(this.fenetre, passerelle,
+				Integer.getInteger(PROPRIETE_IMAGES, BoucleRendu.IMAGES_PAR_SECONDE_DEFAUT));
+		this.boucleRendu.setInterpolation(Boolean.getBoolean(PROPRIETE_INTERPOLATION));
+		this.boucleRendu.demarrer();
+		this.monkeyIsland.enregistreEcIle(passerelle);
+		this.monkeyIsland.getSingesErratiques().enregistreEcBandeSinges(passerelle);
 
 		this.monkeyIsland.creationCarte(Controleur.exempleCarte());
 		this.monkeyIsland.creationTresor();
 		
 		this.monkeyIsland.ajoutSingesErratiques(NOMBRE_SINGES_ERRATIQUES);
 
-		this.monkeyIsland.getPirate().enregistreEcPirate(this.fenetre);
+		this.monkeyIsland.getPirate().enregistreEcPirate(passerelle);
 		this.monkeyIsland.ajoutPirate(IMAGE_PIRATE);
 
+		this.simulation = new Simulation(this.monkeyIsland);
+		final String coalescence = System.getProperty(PROPRIETE_COALESCENCE);
+		if (coalescence != null) {
+			this.simulation.setCoalescence(Simulation.Coalescence.valueOf(coalescence));
+		}
+		Metriques.getInstance().enregistrerMBean();
+		final Integer periodeMetriques = Integer.getInteger(PROPRIETE_METRIQUES);
+		if (periodeMetriques != null) {
+			Metriques.getInstance().demarrerRapports(periodeMetriques.intValue(),
+					TimeUnit.SECONDS);
+		}
+		final Integer ticks = Integer.getInteger(PROPRIETE_TICKS);
+		if (ticks != null) {
+			this.simulation.getOrdonnanceur().setFrequence(ticks.intValue());
+		}
+	}
+
+	/**
+	 * Enregistre les evenements de la partie dans un journal, ferme a l'arret
+	 * de l'application.
+	 * 
+	 * @param fichier le fichier du journal.
+	 */
+	private void enregistrerJournal(String fichier) {
+		try {
+			final JournalEvenements journal = new JournalEvenements(Paths.get(fichier));
+			journal.suivre(this.monkeyIsland);
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					journal.close();
+				} catch (final IOException e) {
+					log.log(Level.WARNING, "Fermeture du journal impossible", e);
+				}
+			}));
+		} catch (final IOException e) {
+			log.log(Level.WARNING, "Journal non enregistre : " + fichier, e);
+		}
 	}
 
 	/**
 	 * Lance l'ensemble des personnages ayant leur vie propre.
 	 */
 	public void lanceEvolutionsPersonnages() {
-		this.monkeyIsland.getSingesErratiques().start();
+		this.simulation.demarrer();
 	}
 
 	/**
 	 * Methode permettant de faire la demande de deplacement du pirate. Cette
-	 * methode fait suite a un appui sur une fleche directionnelle du clavier.
+	 * methode fait suite a un appui sur une fleche directionnelle du clavier ;
+	 * le deplacement est execute par le thread de simulation au tick suivant.
 	 * 
 	 * @param dx la direction en abscisse.
 	 * @param dy la direction en ordonnee.
 	 */
 	public void demandeDeplacementPirate(int dx, int dy) {
-		this.monkeyIsland.demandeDeplacementPirate(dx, dy);
+		Metriques.getInstance().noterEntree();
+		this.simulation.demandeDeplacementPirate(dx, dy);
 	}
 
 	/**
@@ -93,28 +231,8 @@ public class Controleur {
 	 * 
 	 * @return la carte de l'ile.
 	 */
-	private static int[][] exempleCarte() {
-		final int[][] carte = new int[LARGEUR_GRILLE][HAUTEUR_GRILLE];
-		int i = -1;
-		int j = -1;
-		
-		while(++i < LARGEUR_GRILLE) {
-			carte[i][0] = 0;
-			carte[i][HAUTEUR_GRILLE - 1] = 0;
-		}
-		while (++j < HAUTEUR_GRILLE) {
-			carte[0][j] = 0;
-			carte[LARGEUR_GRILLE - 1][j] = 0;
-		}
-		
-		int k = 0;
-		while (++k < LARGEUR_GRILLE - 1) {
-			int l = 0;
-			while (++l < HAUTEUR_GRILLE - 1) {
-				carte[k][l] = 1;
-			}
-		}
-		return carte;
+	private static Carte exempleCarte() {
+		return Carte.rectangulaire(LARGEUR_GRILLE, HAUTEUR_GRILLE);
 	}
 
 }
@@ -0,0 +1,54 @@
+package tinymonkeys.controleur;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import tinymonkeys.modele.LecteurJournal;
+import tinymonkeys.vue.Fenetre;
+import tinymonkeys.vue.PasserelleEdt;
+
+/**
+ * Rejeu d'une partie enregistree par JournalEvenements.
+ *
+ * Les evenements du journal sont transmis a une fenetre, sur l'EDT, sans
+ * modele ni controleur : le clavier y est inactif.
+ *
+ * Utilisation : Rejeu fichier [vitesse [canevas]], ou vitesse est le facteur
+ * de vitesse du rejeu (1 par defaut, 0 pour rejouer sans attente) et canevas
+ * vaut true pour dessiner les personnages sur un seul canevas.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class Rejeu {
+
+	/**
+	 * Constructeur prive : classe utilitaire.
+	 */
+	private Rejeu() {
+	}
+
+	/**
+	 * Rejoue un journal dans une fenetre.
+	 *
+	 * @param args le fichier du journal, puis facultativement le facteur de
+	 *            vitesse et le mode de rendu.
+	 * @throws IOException si le journal ne peut pas etre lu.
+	 * @throws InterruptedException si le rejeu est interrompu.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length == 0) {
+			throw new IllegalArgumentException("Utilisation : Rejeu fichier [vitesse [canevas]]");
+		}
+		final LecteurJournal lecteur = new LecteurJournal(Paths.get(args[0]));
+		final double facteur = args.length > 1 ? Double.parseDouble(args[1]) : 1;
+		final double vitesse = (facteur == 0) ? Double.POSITIVE_INFINITY : facteur;
+		final boolean renduCanevas = args.length > 2 && Boolean.parseBoolean(args[2]);
+
+		final Fenetre fenetre = new Fenetre("TinyMonkeys - rejeu", null, renduCanevas);
+		fenetre.setVisible(true);
+		final PasserelleEdt passerelle = new PasserelleEdt(fenetre);
+		lecteur.rejouer(passerelle, passerelle, passerelle, vitesse);
+	}
+}
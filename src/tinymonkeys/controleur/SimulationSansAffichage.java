@@ -0,0 +1,295 @@
+package tinymonkeys.controleur;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+
+import tinymonkeys.modele.BandeDeSingesErratiques;
+import tinymonkeys.modele.BandeDeSingesErratiquesEcouteur;
+import tinymonkeys.modele.Carte;
+import tinymonkeys.modele.FichierCarte;
+import tinymonkeys.modele.FichierEtat;
+import tinymonkeys.modele.Ile;
+import tinymonkeys.modele.LotPositions;
+import tinymonkeys.modele.Metriques;
+import tinymonkeys.modele.SourceAleatoire;
+
+/**
+ * Moteur de simulation sans interface graphique.
+ *
+ * Construit une ile, sa bande de singes erratiques, son tresor et son
+ * pirate sans aucune vue, puis enchaine les ticks aussi vite que possible.
+ * Aucune classe Swing ni AWT n'est chargee : la simulation peut tourner sur
+ * une machine sans affichage. Le point d'entree impose java.awt.headless, et
+ * TestSimulationSansAffichage verifie qu'aucune classe graphique n'est
+ * chargee.
+ *
+ * Utilisation : SimulationSansAffichage [largeur hauteur singes ticks
+ * [threads graine]] pour une ile rectangulaire, ou SimulationSansAffichage
+ * fichier singes ticks [threads graine] pour une carte au format de
+ * FichierCarte, projetee en memoire. Avec un nombre de threads strictement
+ * positif, les deplacements sont calcules en mode parallele. Pour une graine
+ * donnee, deux executions produisent exactement les memes deplacements.
+ * La propriete systeme tinymonkeys.stockageCompact active le stockage
+ * compact des singes ; la propriete tinymonkeys.sauvegarde designe un fichier
+ * ou ecrire l'etat final de l'ile, au format de FichierEtat.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class SimulationSansAffichage {
+
+	/**
+	 * Largeur de la carte par defaut en nombre de cases.
+	 */
+	private static final int LARGEUR_DEFAUT = 200;
+
+	/**
+	 * Hauteur de la carte par defaut en nombre de cases.
+	 */
+	private static final int HAUTEUR_DEFAUT = 200;
+
+	/**
+	 * Nombre de singes erratiques par defaut.
+	 */
+	private static final int SINGES_DEFAUT = 5000;
+
+	/**
+	 * Nombre de ticks simules par defaut.
+	 */
+	private static final int TICKS_DEFAUT = 10000;
+
+	/**
+	 * Nombre de nanosecondes dans une seconde.
+	 */
+	private static final double NANOS_PAR_SECONDE = 1e9;
+
+	/**
+	 * Propriete systeme designant le fichier de l'etat final de l'ile.
+	 */
+	private static final String PROPRIETE_SAUVEGARDE = "tinymonkeys.sauvegarde";
+
+	/**
+	 * Propriete systeme de Java imposant le mode sans affichage d'AWT.
+	 */
+	private static final String PROPRIETE_HEADLESS = "java.awt.headless";
+
+	private static final Logger log = Logger.getGlobal();
+
+	/**
+	 * Le modele simule.
+	 */
+	private final Ile monkeyIsland;
+
+	/**
+	 * Nombre de deplacements de singes depuis la creation de la simulation.
+	 */
+	private long nbDeplacements;
+
+	/**
+	 * Constructeur d'une simulation sur une ile rectangulaire bordee de mer.
+	 *
+	 * @param largeur la largeur de la carte en nombre de cases.
+	 * @param hauteur la hauteur de la carte en nombre de cases.
+	 * @param nbSinges le nombre de singes erratiques.
+	 */
+	public SimulationSansAffichage(int largeur, int hauteur, int nbSinges) {
+		this(Carte.rectangulaire(largeur, hauteur), nbSinges);
+	}
+
+	/**
+	 * Constructeur d'une simulation sur la carte indiquee.
+	 *
+	 * @param carte la carte de l'ile.
+	 * @param nbSinges le nombre de singes erratiques.
+	 */
+	public SimulationSansAffichage(Carte carte, int nbSinges) {
+		this(carte, nbSinges, false);
+	}
+
+	/**
+	 * Constructeur d'une simulation sur la carte indiquee, en choisissant le
+	 * stockage des singes.
+	 *
+	 * @param carte la carte de l'ile.
+	 * @param nbSinges le nombre de singes erratiques.
+	 * @param stockageCompact true pour ranger les positions des singes dans
+	 *            des tableaux paralleles plutot qu'un objet par singe.
+	 */
+	public SimulationSansAffichage(Carte carte, int nbSinges, boolean stockageCompact) {
+		this(carte, nbSinges, stockageCompact, new SourceAleatoire().getGraine());
+	}
+
+	/**
+	 * Constructeur d'une simulation reproductible sur la carte indiquee.
+	 *
+	 * @param carte la carte de l'ile.
+	 * @param nbSinges le nombre de singes erratiques.
+	 * @param stockageCompact true pour ranger les positions des singes dans
+	 *            des tableaux paralleles plutot qu'un objet par singe.
+	 * @param graine la graine de l'aleatoire de la simulation.
+	 */
+	public SimulationSansAffichage(Carte carte, int nbSinges, boolean stockageCompact,
+			long graine) {
+		this.monkeyIsland = new Ile(graine);
+		this.monkeyIsland.creationCarte(carte);
+		this.monkeyIsland.getSingesErratiques().setStockageCompact(stockageCompact);
+		this.monkeyIsland.creationTresor();
+		this.monkeyIsland.ajoutSingesErratiques(nbSinges);
+		this.monkeyIsland.ajoutPirate(null);
+
+		// Seul le nombre de deplacements est releve.
+		this.monkeyIsland.getSingesErratiques().enregistreEcBandeSinges(
+				new BandeDeSingesErratiquesEcouteur() {
+
+					@Override
+					public void creationSingeErratique(int id, int x, int y) {
+						// Aucun affichage.
+					}
+
+					@Override
+					public void deplacementSingeErratique(int id, int x, int y) {
+						++SimulationSansAffichage.this.nbDeplacements;
+					}
+
+					@Override
+					public void deplacementsSingesErratiques(LotPositions deplacements) {
+						SimulationSansAffichage.this.nbDeplacements += deplacements.getTaille();
+					}
+				});
+	}
+
+	/**
+	 * Active le mode de deplacement parallele de la bande de singes.
+	 *
+	 * @param pool le pool de threads a utiliser, ou null pour le mode
+	 *            sequentiel.
+	 * @param graine la graine des generateurs aleatoires.
+	 */
+	public void setModeParallele(ForkJoinPool pool, long graine) {
+		this.monkeyIsland.getSingesErratiques().setModeParallele(pool, graine);
+	}
+
+	/**
+	 * Active le mode de deplacement parallele de la bande de singes, avec une
+	 * graine tiree dans la source d'aleatoire de l'ile.
+	 *
+	 * @param pool le pool de threads a utiliser, ou null pour le mode
+	 *            sequentiel.
+	 */
+	public void setModeParallele(ForkJoinPool pool) {
+		this.monkeyIsland.getSingesErratiques().setModeParallele(pool);
+	}
+
+	/**
+	 * Execute le nombre de ticks indique, sans temporisation.
+	 *
+	 * @param nbTicks le nombre de ticks a executer.
+	 * @return la duree de l'execution en nanosecondes.
+	 */
+	public long executer(int nbTicks) {
+		final BandeDeSingesErratiques bande = this.monkeyIsland.getSingesErratiques();
+		final long debut = System.nanoTime();
+		for (int t = 0; t < nbTicks; ++t) {
+			bande.deplacerSinges();
+		}
+		return System.nanoTime() - debut;
+	}
+
+	/**
+	 * Accesseur en lecture du modele simule.
+	 *
+	 * @return l'ile.
+	 */
+	public Ile getIle() {
+		return this.monkeyIsland;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de deplacements de singes effectues.
+	 *
+	 * @return le nombre de deplacements.
+	 */
+	public long getNbDeplacements() {
+		return this.nbDeplacements;
+	}
+
+	/**
+	 * Lance une simulation sans affichage et en rapporte le debit.
+	 *
+	 * @param args largeur et hauteur, ou fichier de carte, puis nombre de
+	 *            singes, nombre de ticks, et facultativement nombre de threads
+	 *            et graine.
+	 * @throws IOException si le fichier de carte ne peut pas etre charge.
+	 */
+	public static void main(String[] args) throws IOException {
+		// Toute tentative d'affichage echoue au lieu d'ouvrir une fenetre.
+		if (!Boolean.getBoolean(PROPRIETE_HEADLESS)) {
+			System.setProperty(PROPRIETE_HEADLESS, Boolean.TRUE.toString());
+		}
+		final Carte carte;
+		final int decalage;
+		if (args.length > 0 && Files.isRegularFile(Paths.get(args[0]))) {
+			final Path fichier = Paths.get(args[0]);
+			carte = FichierCarte.charger(fichier);
+			decalage = 1;
+		} else {
+			carte = Carte.rectangulaire(argument(args, 0, LARGEUR_DEFAUT),
+					argument(args, 1, HAUTEUR_DEFAUT));
+			decalage = 2;
+		}
+		final int largeur = carte.getLargeur();
+		final int hauteur = carte.getHauteur();
+		final int nbSinges = argument(args, decalage, SINGES_DEFAUT);
+		final int nbTicks = argument(args, decalage + 1, TICKS_DEFAUT);
+		final int nbThreads = argument(args, decalage + 2, 0);
+		final long graine = args.length > decalage + 3 ? Long.parseLong(args[decalage + 3])
+				: new SourceAleatoire().getGraine();
+
+		final SimulationSansAffichage simulation = new SimulationSansAffichage(carte, nbSinges,
+				Boolean.getBoolean("tinymonkeys.stockageCompact"), graine);
+		ForkJoinPool pool = null;
+		if (nbThreads > 0) {
+			pool = new ForkJoinPool(nbThreads);
+			simulation.setModeParallele(pool);
+		}
+
+		final long duree = simulation.executer(nbTicks);
+		final double secondes = duree / NANOS_PAR_SECONDE;
+		log.info(String.format(Locale.ROOT,
+				"%dx%d, %d singes, %d ticks en %.3f s : %.1f ticks/s, %.0f deplacements/s"
+						+ " (graine %d)",
+				largeur, hauteur,
+				simulation.getIle().getSingesErratiques().getNbSinges(),
+				nbTicks, secondes, nbTicks / secondes,
+				simulation.getNbDeplacements() / secondes, graine));
+		log.info(Metriques.getInstance().getRapport());
+
+		final String sauvegarde = System.getProperty(PROPRIETE_SAUVEGARDE);
+		if (sauvegarde != null) {
+			FichierEtat.ecrire(simulation.getIle().capturerEtat(), Paths.get(sauvegarde));
+			log.info("Etat final ecrit dans " + sauvegarde);
+		}
+
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Lit un argument entier de la ligne de commande.
+	 *
+	 * @param args les arguments.
+	 * @param indice l'indice de l'argument.
+	 * @param defaut la valeur par defaut si l'argument est absent.
+	 * @return la valeur de l'argument.
+	 */
+	private static int argument(String[] args, int indice, int defaut) {
+		return args.length > indice ? Integer.parseInt(args[indice]) : defaut;
+	}
+}
@@ -1,12 +1,13 @@
 package tinymonkeys.modele;
 
 import java.util.Arrays;
-import java.util.List;
+import java.util.Collection;
 import java.util.Random;
 import java.util.Vector;
-import java.util.logging.Logger;
-
-import javax.swing.event.EventListenerList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Classe d'une bande de singes erratiques.
@@ -15,19 +16,23 @@ import javax.swing.event.EventListenerList;
  * @author Camille Constant
  *
  */
-public class BandeDeSingesErratiques extends Thread {
+public class BandeDeSingesErratiques {
 
 	/**
 	 * Temporisation entre chaque déplacement de singe.
 	 */
-	private static final int TEMPO_DEPLACEMENT = 250;
+	static final int TEMPO_DEPLACEMENT = 250;
 
 	/**
 	 * Vecteur contenant l'ensemble des singes erratiques.
 	 */
 	private Vector<SingeErratique> erratiques;
-	
-	private static final Logger log = Logger.getGlobal();
+
+	/**
+	 * Stockage compact des positions des singes, ou null si les singes sont
+	 * stockes dans le vecteur.
+	 */
+	private PositionsSinges positions;
 
 	/**
 	 * L'ile.
@@ -37,7 +42,47 @@ public class BandeDeSingesErratiques extends Thread {
 	/**
 	 * Liste des écouteurs sur la bande de singes erratiques.
 	 */
-	final private EventListenerList bandeSingesEcouteurs;
+	final private ListeEcouteurs<BandeDeSingesErratiquesEcouteur> bandeSingesEcouteurs;
+
+	/**
+	 * Ordonnanceur cadencant les deplacements de la bande.
+	 */
+	final private Ordonnanceur ordonnanceur;
+
+	/**
+	 * Calcul parallele des deplacements, ou null en mode sequentiel.
+	 */
+	private DeplacementParallele deplacementParallele;
+
+	/**
+	 * Abscisses des singes au debut du tick (mode parallele).
+	 */
+	private int[] xsTick = new int[0];
+
+	/**
+	 * Ordonnees des singes au debut du tick (mode parallele).
+	 */
+	private int[] ysTick = new int[0];
+
+	/**
+	 * Directions choisies par les singes pendant le tick (mode parallele).
+	 */
+	private int[] directionsTick = new int[0];
+
+	/**
+	 * Deplacements du tick courant, reutilises d'un tick a l'autre.
+	 */
+	final private LotPositions deplacementsTick;
+
+	/**
+	 * Generateur des positions des nouveaux singes.
+	 */
+	final private Random aleatoirePeuplement;
+
+	/**
+	 * Generateur des deplacements sequentiels des singes.
+	 */
+	final private Random aleatoireDeplacements;
 
 	/**
 	 * Constructeur d'une bande de singes erratiques vide.
@@ -45,48 +90,221 @@ public class BandeDeSingesErratiques extends Thread {
 	 * @param ile l'ile contenant l'ensemble des elements de celle-ci.
 	 */
 	public BandeDeSingesErratiques(Ile ile) {
-		super();
-		this.erratiques = new Vector<SingeErratique>();
+		this.erratiques = new VecteurSinges();
 		this.monkeyIsland = ile;
-		this.bandeSingesEcouteurs = new EventListenerList();
+		this.bandeSingesEcouteurs = new ListeEcouteurs<BandeDeSingesErratiquesEcouteur>(
+				BandeDeSingesErratiquesEcouteur.class);
+		this.deplacementsTick = new LotPositions();
+		this.aleatoirePeuplement = ile.getSourceAleatoire().diviser();
+		this.aleatoireDeplacements = ile.getSourceAleatoire().diviser();
+		this.ordonnanceur = new Ordonnanceur(this::deplacerSinges,
+				TEMPO_DEPLACEMENT, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Reconstruit la grille d'occupation de l'ile a partir des positions
+	 * courantes des singes de la bande.
+	 * 
+	 * @param occupation la grille d'occupation, deja dimensionnee.
+	 */
+	void occuperCases(GrilleOccupation occupation) {
+		synchronized (this.erratiques) {
+			if (this.positions == null) {
+				for (final SingeErratique singe : this.erratiques) {
+					occupation.occuper(singe.getX(), singe.getY());
+				}
+			} else {
+				for (int i = 0; i < this.positions.getTaille(); ++i) {
+					occupation.occuper(this.positions.getX(i), this.positions.getY(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retourne l'indice de la case de chaque singe, dans l'ordre des
+	 * identifiants.
+	 * 
+	 * @param occupation la grille d'occupation, donnant l'indice des cases.
+	 * @return les indices des cases des singes.
+	 */
+	int[] capturerCases(GrilleOccupation occupation) {
+		synchronized (this.erratiques) {
+			final int nbSinges = this.getNbSinges();
+			final int[] cases = new int[nbSinges];
+			if (this.positions == null) {
+				for (int i = 0; i < nbSinges; ++i) {
+					final SingeErratique singe = this.erratiques.get(i);
+					cases[i] = occupation.indice(singe.getX(), singe.getY());
+				}
+			} else {
+				for (int i = 0; i < nbSinges; ++i) {
+					cases[i] = occupation.indice(this.positions.getX(i), this.positions.getY(i));
+				}
+			}
+			return cases;
+		}
+	}
+
+	/**
+	 * Remplace en bloc les singes de la bande par ceux de l'etat indique, sans
+	 * notifier les ecouteurs, et les place dans la grille d'occupation. Le
+	 * mode de stockage de la bande est conserve.
+	 * 
+	 * @param etat l'etat de l'ile a restaurer.
+	 * @param occupation la grille d'occupation, vide et dimensionnee selon la
+	 *            carte de l'etat.
+	 */
+	void restaurer(EtatIle etat, GrilleOccupation occupation) {
+		final int nbSinges = etat.getNbSinges();
+		synchronized (this.erratiques) {
+			if (this.positions == null) {
+				final SingeErratique[] singes = new SingeErratique[nbSinges];
+				for (int i = 0; i < nbSinges; ++i) {
+					singes[i] = new SingeErratique(etat.getXSinge(i), etat.getYSinge(i),
+							this.monkeyIsland);
+				}
+				// La grille etant vide, le retrait des anciens singes ne libere
+				// rien ; l'ajout des nouveaux occupe leurs cases.
+				this.erratiques.removeAllElements();
+				this.erratiques.addAll(Arrays.asList(singes));
+			} else {
+				this.positions = new PositionsSinges();
+				for (int i = 0; i < nbSinges; ++i) {
+					final int x = etat.getXSinge(i);
+					final int y = etat.getYSinge(i);
+					this.positions.ajouter(x, y);
+					occupation.occuper(x, y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Active ou desactive le stockage compact des singes. En stockage compact,
+	 * les positions des singes sont rangees dans des tableaux d'entiers
+	 * paralleles, parcourus sans verrou a chaque tick ; aucun objet n'est
+	 * conserve par singe. Le stockage ne peut etre change que tant que la
+	 * bande est vide.
+	 * 
+	 * @param compact true pour le stockage compact, false pour le vecteur de
+	 *            singes.
+	 * @throws IllegalStateException si la bande contient deja des singes.
+	 */
+	public void setStockageCompact(boolean compact) {
+		synchronized (this.erratiques) {
+			if (this.getNbSinges() > 0) {
+				throw new IllegalStateException(
+						"Le stockage d'une bande non vide ne peut pas etre change");
+			}
+			if (compact) {
+				this.positions = new PositionsSinges();
+			} else {
+				this.positions = null;
+			}
+		}
+	}
+
+	/**
+	 * Indique si les singes sont stockes sous forme compacte.
+	 * 
+	 * @return true en stockage compact.
+	 */
+	public boolean isStockageCompact() {
+		return this.positions != null;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de singes de la bande.
+	 * 
+	 * @return le nombre de singes erratiques.
+	 */
+	public int getNbSinges() {
+		if (this.positions == null) {
+			return this.erratiques.size();
+		} else {
+			return this.positions.getTaille();
+		}
+	}
+
+	/**
+	 * Accesseur en lecture d'un singe de la bande. En stockage compact, le
+	 * singe retourne est une vue creee a la demande sur sa position.
+	 * 
+	 * @param id l'identifiant du singe.
+	 * @return le singe erratique.
+	 */
+	public SingeErratique getSinge(int id) {
+		if (this.positions == null) {
+			return this.erratiques.get(id);
+		} else {
+			return new SingeErratiqueStocke(this.positions, id, this.monkeyIsland);
+		}
 	}
 
 	/**
 	 * Accesseur en lecture a l'ensemble des singes erratiques.
 	 * 
+	 * En stockage compact, le vecteur retourne est une copie contenant une vue
+	 * par singe : les deplacements de ces vues sont repercutes sur la bande,
+	 * mais pas les modifications du vecteur lui-meme.
+	 * 
 	 * @return le vecteur de singes erratiques.
 	 */
 	public Vector<SingeErratique> getSingesErratiques() {
-		return this.erratiques;
+		if (this.positions == null) {
+			return this.erratiques;
+		} else {
+			final int nbSinges = this.positions.getTaille();
+			final Vector<SingeErratique> vues = new Vector<SingeErratique>(nbSinges);
+			for (int i = 0; i < nbSinges; ++i) {
+				vues.add(new SingeErratiqueStocke(this.positions, i, this.monkeyIsland));
+			}
+			return vues;
+		}
 	}
 
 	/**
 	 * Ajout du nombre indique de singes erratiques a des positions libres
-	 * aleatoires.
+	 * aleatoires, toutes distinctes.
+	 * 
+	 * Les cases sont tirees dans l'index des cases terre libres de l'ile :
+	 * chaque tirage est en temps constant et la case tiree, occupee par le
+	 * nouveau singe, sort aussitot de l'index (tirage sans remise). Les
+	 * ecouteurs recoivent une seule notification pour l'ensemble des singes
+	 * crees.
 	 * 
 	 * @param n le nombre de singes a ajouter.
 	 */
 	public void ajoutSingesErratiques(int n) {
-		
-		// On récupère toutes les cases terre
-		final List<CaseVide> casesTerre = this.monkeyIsland.genererListCasesTerre();
-		
-		// Si n est supérieur au nombre de case disponibles, on prend cette valeur (- 2 pour laisser une case au pirate)
-		int nombreSinges = n;
-		if (n >= casesTerre.size()) {
-			nombreSinges = casesTerre.size() - 2;
-		}
-		
-		final Random random = new Random();
-		
-		for (int i=0; i<nombreSinges; i++) {
-			// On prend une case terre de manière aléatoire
-			final CaseVide nextCase = casesTerre.remove(random.nextInt(casesTerre.size() + 1));
-			this.erratiques.add(new SingeErratique(nextCase.x, nextCase.y, this.monkeyIsland));
-			
-			final int id = i;
-			Arrays.asList(this.bandeSingesEcouteurs.getListeners(BandeDeSingesErratiquesEcouteur.class))
-			 	.forEach(listener -> listener.creationSingeErratique(id, nextCase.x, nextCase.y));
+		final GrilleOccupation occupation = this.monkeyIsland.getOccupation();
+		final LotPositions creations = new LotPositions();
+
+		synchronized (this.erratiques) {
+			// Si n est supérieur au nombre de cases libres, on prend cette valeur (- 2 pour laisser une case au pirate)
+			int nombreSinges = n;
+			if (n >= occupation.getNbTerresLibres()) {
+				nombreSinges = Math.max(0, occupation.getNbTerresLibres() - 2);
+			}
+
+			for (int i = 0; i < nombreSinges; i++) {
+				final int indice = occupation.tirerTerreLibre(this.aleatoirePeuplement);
+				final int x = occupation.abscisse(indice);
+				final int y = occupation.ordonnee(indice);
+				if (this.positions == null) {
+					creations.ajouter(this.erratiques.size(), x, y);
+					this.erratiques.add(new SingeErratique(x, y, this.monkeyIsland));
+				} else {
+					creations.ajouter(this.positions.ajouter(x, y), x, y);
+					occupation.occuper(x, y);
+				}
+			}
+		}
+
+		if (creations.getTaille() > 0) {
+			for (final BandeDeSingesErratiquesEcouteur ecouteur : this.bandeSingesEcouteurs.getEcouteurs()) {
+				ecouteur.creationsSingesErratiques(creations);
+			}
 		}
 	}
 
@@ -97,31 +315,384 @@ public class BandeDeSingesErratiques extends Thread {
 	 * @param ecouteur ecouteur de la bande de singes.
 	 */
 	public void enregistreEcBandeSinges(BandeDeSingesErratiquesEcouteur ecouteur) {
-		this.bandeSingesEcouteurs.add(BandeDeSingesErratiquesEcouteur.class,
-				ecouteur);
-	}
-
-	@Override
-	public void run() {
-		while (true) {
-			// Déplace les singes, les uns après les autres, de manière temporisée
-			int size = this.erratiques.size();
-			for (int i = 0; i < size; i++) {
-				final SingeErratique singe = this.erratiques.get(i);
-				singe.deplacerSinge();
-				final int id = i;
-				Arrays.asList(
-						this.bandeSingesEcouteurs
-								.getListeners(BandeDeSingesErratiquesEcouteur.class))
-						.forEach(
-								listener -> listener.deplacementSingeErratique(
-										id, singe.getX(), singe.getY()));
-			}
-			try {
-				Thread.sleep(TEMPO_DEPLACEMENT);
-			} catch (InterruptedException e) {
-				log.info("Thread interrompu:" + e.getCause().getMessage());
+		this.bandeSingesEcouteurs.ajouter(ecouteur);
+	}
+
+	/**
+	 * Retire de la liste des ecouteurs de bande de singes l'ecouteur passe en
+	 * parametre.
+	 * 
+	 * @param ecouteur ecouteur de la bande de singes.
+	 */
+	public void retireEcBandeSinges(BandeDeSingesErratiquesEcouteur ecouteur) {
+		this.bandeSingesEcouteurs.retirer(ecouteur);
+	}
+
+	/**
+	 * Active le mode de deplacement parallele : les deplacements de chaque
+	 * tick sont calcules par le pool indique, de maniere reproductible pour
+	 * une graine donnee. Dans ce mode, un singe ne peut pas se deplacer sur
+	 * une case liberee pendant le meme tick.
+	 * 
+	 * @param pool le pool de threads a utiliser, ou null pour revenir au mode
+	 *            sequentiel.
+	 * @param graine la graine des generateurs aleatoires.
+	 */
+	public void setModeParallele(ForkJoinPool pool, long graine) {
+		if (pool == null) {
+			this.deplacementParallele = null;
+		} else {
+			this.deplacementParallele = new DeplacementParallele(this.monkeyIsland,
+					pool, graine);
+		}
+	}
+
+	/**
+	 * Active le mode de deplacement parallele, avec une graine tiree dans la
+	 * source d'aleatoire de l'ile.
+	 * 
+	 * @param pool le pool de threads a utiliser, ou null pour revenir au mode
+	 *            sequentiel.
+	 */
+	public void setModeParallele(ForkJoinPool pool) {
+		this.setModeParallele(pool, this.monkeyIsland.getSourceAleatoire().nouvelleGraine());
+	}
+
+	/**
+	 * Indique si les deplacements sont calcules en parallele.
+	 * 
+	 * @return true en mode parallele.
+	 */
+	public boolean isModeParallele() {
+		return this.deplacementParallele != null;
+	}
+
+	/**
+	 * Deplace chaque singe de la bande une fois (un tick de simulation).
+	 */
+	public void deplacerSinges() {
+		final long debut = System.nanoTime();
+		this.deplacementsTick.vider();
+		if (this.deplacementParallele == null && this.positions != null) {
+			this.deplacerSingesCompact(this.positions);
+		} else if (this.deplacementParallele == null) {
+			this.deplacerSingesSequentiel();
+		} else {
+			this.deplacerSingesParallele(this.deplacementParallele);
+		}
+
+		final long debutDiffusion = System.nanoTime();
+		final Metriques metriques = Metriques.getInstance();
+		metriques.enregistrerDeplacements(debutDiffusion - debut, this.getNbSinges(),
+				this.deplacementsTick.getTaille());
+
+		// Notification unique de l'ensemble des déplacements du tick
+		if (this.deplacementsTick.getTaille() > 0) {
+			for (final BandeDeSingesErratiquesEcouteur ecouteur : this.bandeSingesEcouteurs.getEcouteurs()) {
+				ecouteur.deplacementsSingesErratiques(this.deplacementsTick);
 			}
+			metriques.enregistrerDiffusionDeplacements(System.nanoTime() - debutDiffusion);
+		}
+	}
+
+	/**
+	 * Deplace les singes les uns apres les autres.
+	 */
+	private void deplacerSingesSequentiel() {
+		final int size = this.erratiques.size();
+		for (int i = 0; i < size; i++) {
+			final SingeErratique singe = this.erratiques.get(i);
+			final int x = singe.getX();
+			final int y = singe.getY();
+			singe.deplacerSinge(this.aleatoireDeplacements);
+			if (!singe.coordonneesEgales(x, y)) {
+				this.deplacementsTick.ajouter(i, singe.getX(), singe.getY());
+			}
+		}
+	}
+
+	/**
+	 * Deplace les singes du stockage compact les uns apres les autres. Les
+	 * positions sont lues et ecrites directement dans les tableaux du
+	 * stockage, sans verrou ni objet intermediaire.
+	 * 
+	 * @param stockage le stockage des positions des singes.
+	 */
+	private void deplacerSingesCompact(PositionsSinges stockage) {
+		final Ile ile = this.monkeyIsland;
+		final GrilleOccupation occupation = ile.getOccupation();
+		final Pirate pirate = ile.getPirate();
+		final Random random = this.aleatoireDeplacements;
+		final int[] xs = stockage.getXs();
+		final int[] ys = stockage.getYs();
+		final int nbSinges = stockage.getTaille();
+		for (int i = 0; i < nbSinges; ++i) {
+			final int direction = SingeErratique.tirageDirection(ile, xs[i], ys[i], random);
+			if (direction != SingeErratique.AUCUNE_DIRECTION) {
+				final int x = xs[i] + SingeErratique.DX[direction];
+				final int y = ys[i] + SingeErratique.DY[direction];
+				occupation.deplacer(xs[i], ys[i], x, y);
+				xs[i] = x;
+				ys[i] = y;
+				pirate.tuerPirate(x, y);
+				this.deplacementsTick.ajouter(i, x, y);
+			}
+		}
+	}
+
+	/**
+	 * Calcule en parallele les deplacements des singes, puis les applique
+	 * dans l'ordre des identifiants. En stockage compact, les propositions
+	 * sont calculees directement sur les tableaux du stockage.
+	 * 
+	 * @param parallele le calcul parallele des deplacements.
+	 */
+	private void deplacerSingesParallele(DeplacementParallele parallele) {
+		SingeErratique[] singes = null;
+		final int[] xs;
+		final int[] ys;
+		final int nbSinges;
+		if (this.positions == null) {
+			synchronized (this.erratiques) {
+				singes = this.erratiques.toArray(new SingeErratique[this.erratiques.size()]);
+			}
+			nbSinges = singes.length;
+			if (this.xsTick.length < nbSinges) {
+				this.xsTick = new int[nbSinges];
+				this.ysTick = new int[nbSinges];
+			}
+			for (int i = 0; i < nbSinges; ++i) {
+				this.xsTick[i] = singes[i].getX();
+				this.ysTick[i] = singes[i].getY();
+			}
+			xs = this.xsTick;
+			ys = this.ysTick;
+		} else {
+			nbSinges = this.positions.getTaille();
+			xs = this.positions.getXs();
+			ys = this.positions.getYs();
+		}
+		if (this.directionsTick.length < nbSinges) {
+			this.directionsTick = new int[nbSinges];
+		}
+
+		parallele.proposer(xs, ys, nbSinges, this.directionsTick);
+
+		final GrilleOccupation occupation = this.monkeyIsland.getOccupation();
+		final Pirate pirate = this.monkeyIsland.getPirate();
+		for (int i = 0; i < nbSinges; ++i) {
+			final int direction = this.directionsTick[i];
+			if (direction != SingeErratique.AUCUNE_DIRECTION) {
+				final int x = xs[i] + SingeErratique.DX[direction];
+				final int y = ys[i] + SingeErratique.DY[direction];
+				if (parallele.obtenir(i, x, y)) {
+					if (singes == null) {
+						occupation.deplacer(xs[i], ys[i], x, y);
+						xs[i] = x;
+						ys[i] = y;
+						pirate.tuerPirate(x, y);
+					} else {
+						singes[i].setPosition(x, y);
+						pirate.tuerPirate(singes[i]);
+					}
+					this.deplacementsTick.ajouter(i, x, y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Accesseur en lecture de l'ordonnanceur de la bande, permettant d'en
+	 * regler la frequence et la politique de retard.
+	 * 
+	 * @return l'ordonnanceur des deplacements.
+	 */
+	public Ordonnanceur getOrdonnanceur() {
+		return this.ordonnanceur;
+	}
+
+	/**
+	 * Lance les deplacements periodiques de la bande.
+	 */
+	public void demarrer() {
+		this.ordonnanceur.demarrer();
+	}
+
+	/**
+	 * Suspend les deplacements de la bande.
+	 */
+	public void pause() {
+		this.ordonnanceur.pause();
+	}
+
+	/**
+	 * Reprend les deplacements de la bande apres une pause.
+	 */
+	public void reprise() {
+		this.ordonnanceur.reprise();
+	}
+
+	/**
+	 * Arrete definitivement les deplacements de la bande.
+	 */
+	public void arret() {
+		this.ordonnanceur.arreter();
+	}
+
+	/**
+	 * Vecteur de singes tenant a jour la grille d'occupation de l'ile : un
+	 * singe ajoute occupe sa case et suit ses deplacements, un singe retire
+	 * libere sa case.
+	 * 
+	 * @version 1.0
+	 * @author Adrian Fraisse
+	 */
+	private final class VecteurSinges extends Vector<SingeErratique> {
+
+		/**
+		 * UID auto-généré.
+		 */
+		private static final long serialVersionUID = -2436214964316052270L;
+
+		/**
+		 * Rattache le singe a la grille d'occupation de l'ile.
+		 * 
+		 * @param singe le singe rejoignant la bande.
+		 */
+		private void rattacher(SingeErratique singe) {
+			if (singe != null) {
+				final GrilleOccupation occupation = BandeDeSingesErratiques.this.monkeyIsland
+						.getOccupation();
+				occupation.occuper(singe.getX(), singe.getY());
+				singe.setOccupation(occupation);
+			}
+		}
+
+		/**
+		 * Detache le singe de la grille d'occupation de l'ile.
+		 * 
+		 * @param singe le singe quittant la bande.
+		 */
+		private void detacher(SingeErratique singe) {
+			if (singe != null) {
+				singe.setOccupation(null);
+				BandeDeSingesErratiques.this.monkeyIsland.getOccupation()
+						.liberer(singe.getX(), singe.getY());
+			}
+		}
+
+		@Override
+		public synchronized boolean add(SingeErratique singe) {
+			this.rattacher(singe);
+			return super.add(singe);
+		}
+
+		@Override
+		public synchronized void addElement(SingeErratique singe) {
+			this.rattacher(singe);
+			super.addElement(singe);
+		}
+
+		@Override
+		public synchronized void insertElementAt(SingeErratique singe, int index) {
+			super.insertElementAt(singe, index);
+			this.rattacher(singe);
+		}
+
+		@Override
+		public synchronized boolean addAll(Collection<? extends SingeErratique> singes) {
+			this.ensureCapacity(this.size() + singes.size());
+			for (final SingeErratique singe : singes) {
+				this.add(singe);
+			}
+			return !singes.isEmpty();
+		}
+
+		@Override
+		public synchronized boolean addAll(int index, Collection<? extends SingeErratique> singes) {
+			int position = index;
+			for (final SingeErratique singe : singes) {
+				this.insertElementAt(singe, position++);
+			}
+			return !singes.isEmpty();
+		}
+
+		@Override
+		public synchronized SingeErratique set(int index, SingeErratique singe) {
+			final SingeErratique ancien = super.set(index, singe);
+			this.detacher(ancien);
+			this.rattacher(singe);
+			return ancien;
+		}
+
+		@Override
+		public synchronized void setElementAt(SingeErratique singe, int index) {
+			this.set(index, singe);
+		}
+
+		@Override
+		public synchronized void replaceAll(UnaryOperator<SingeErratique> operateur) {
+			for (int i = 0; i < this.size(); ++i) {
+				this.set(i, operateur.apply(this.get(i)));
+			}
+		}
+
+		@Override
+		public synchronized SingeErratique remove(int index) {
+			final SingeErratique ancien = super.remove(index);
+			this.detacher(ancien);
+			return ancien;
+		}
+
+		@Override
+		public synchronized void removeElementAt(int index) {
+			this.detacher(this.get(index));
+			super.removeElementAt(index);
+		}
+
+		@Override
+		public synchronized void removeAllElements() {
+			for (final SingeErratique singe : this) {
+				this.detacher(singe);
+			}
+			super.removeAllElements();
+		}
+
+		/**
+		 * Retire une tranche de singes, atteinte notamment par
+		 * subList(debut, fin).clear().
+		 *
+		 * @param debut l'indice du premier singe retire.
+		 * @param fin l'indice suivant le dernier singe retire.
+		 */
+		@Override
+		protected synchronized void removeRange(int debut, int fin) {
+			for (int i = debut; i < fin; ++i) {
+				this.detacher(this.get(i));
+			}
+			super.removeRange(debut, fin);
+		}
+
+		@Override
+		public synchronized boolean removeIf(Predicate<? super SingeErratique> filtre) {
+			boolean modifie = false;
+			for (int i = this.size() - 1; i >= 0; --i) {
+				if (filtre.test(this.get(i))) {
+					this.remove(i);
+					modifie = true;
+				}
+			}
+			return modifie;
+		}
+
+		@Override
+		public synchronized boolean removeAll(Collection<?> singes) {
+			return this.removeIf(singes::contains);
+		}
+
+		@Override
+		public synchronized boolean retainAll(Collection<?> singes) {
+			return this.removeIf(singe -> !singes.contains(singe));
 		}
 	}
 
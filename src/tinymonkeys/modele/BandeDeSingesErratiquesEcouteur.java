@@ -23,6 +23,22 @@ public interface BandeDeSingesErratiquesEcouteur extends EventListener {
 	 */
 	void creationSingeErratique(int id, int x, int y);
 
+	/**
+	 * Dessine les avatars d'un ensemble de singes erratiques crees en une
+	 * seule fois. Le lot ne doit pas etre conserve.
+	 * 
+	 * Par defaut, chaque creation est transmise a creationSingeErratique.
+	 * 
+	 * @param creations les identifiants et positions des singes crees.
+	 */
+	default void creationsSingesErratiques(LotPositions creations) {
+		final int taille = creations.getTaille();
+		for (int i = 0; i < taille; ++i) {
+			this.creationSingeErratique(creations.getId(i), creations.getX(i),
+					creations.getY(i));
+		}
+	}
+
 	/**
 	 * Deplace l'avatar du singe erratiques a sa nouvelle position.
 	 * 
@@ -32,4 +48,22 @@ public interface BandeDeSingesErratiquesEcouteur extends EventListener {
 	 */
 	void deplacementSingeErratique(int id, int x, int y);
 
+	/**
+	 * Deplace les avatars de tous les singes erratiques ayant change de
+	 * position pendant un tick. Le lot est reutilise d'un tick a l'autre et
+	 * ne doit pas etre conserve.
+	 * 
+	 * Par defaut, chaque deplacement est transmis a
+	 * deplacementSingeErratique.
+	 * 
+	 * @param deplacements les nouvelles positions des singes deplaces.
+	 */
+	default void deplacementsSingesErratiques(LotPositions deplacements) {
+		final int taille = deplacements.getTaille();
+		for (int i = 0; i < taille; ++i) {
+			this.deplacementSingeErratique(deplacements.getId(i),
+					deplacements.getX(i), deplacements.getY(i));
+		}
+	}
+
 }
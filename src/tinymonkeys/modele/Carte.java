@@ -0,0 +1,248 @@
+package tinymonkeys.modele;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Carte de l'ile : le type de terrain de chaque case.
+ *
+ * Les cases sont rangees ligne par ligne dans un tampon d'octets, un octet
+ * par case : l'indice de la case (x, y) vaut y * largeur + x. Un octet laisse
+ * la place a d'autres types de terrain que la mer et la terre. Le tampon
+ * peut etre un tableau du tas ou un fichier projete en memoire (voir
+ * FichierCarte) : la carte n'est alors jamais chargee dans le tas.
+ *
+ * Une carte n'est jamais modifiee apres sa construction : elle est partagee
+ * telle quelle, sans copie, par le modele et les vues.
+ *
+ * Le nombre de cases terre est fourni a la construction quand il est connu
+ * (en-tete de FichierCarte, carte construite case par case) ; sinon il est
+ * compte une seule fois, au premier besoin.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class Carte {
+
+	/**
+	 * Type de terrain d'une case de mer.
+	 */
+	public static final byte MER = 0;
+
+	/**
+	 * Type de terrain d'une case de terre.
+	 */
+	public static final byte TERRE = 1;
+
+	/**
+	 * Valeur indiquant un nombre de cases terre inconnu.
+	 */
+	public static final int TERRES_INCONNUES = -1;
+
+	/**
+	 * Largeur de la carte en nombre de cases.
+	 */
+	private final int largeur;
+
+	/**
+	 * Hauteur de la carte en nombre de cases.
+	 */
+	private final int hauteur;
+
+	/**
+	 * Type de terrain de chaque case, ligne par ligne. Seules les lectures
+	 * absolues sont utilisees : le tampon peut etre lu par plusieurs threads.
+	 */
+	private final ByteBuffer cases;
+
+	/**
+	 * Nombre de cases terre, ou TERRES_INCONNUES tant qu'elles n'ont pas ete
+	 * comptees. Le comptage donne toujours le meme resultat : une course
+	 * entre deux threads est sans consequence.
+	 */
+	private int nbTerres;
+
+	/**
+	 * Constructeur d'une carte a partir du type de terrain de ses cases. Le
+	 * tableau n'est pas copie et ne doit plus etre modifie par l'appelant.
+	 *
+	 * @param largeur la largeur de la carte en nombre de cases.
+	 * @param hauteur la hauteur de la carte en nombre de cases.
+	 * @param cases le type de terrain de chaque case, ligne par ligne.
+	 */
+	public Carte(int largeur, int hauteur, byte[] cases) {
+		this(largeur, hauteur, ByteBuffer.wrap(cases), TERRES_INCONNUES);
+	}
+
+	/**
+	 * Constructeur d'une carte a partir d'un tampon contenant le type de
+	 * terrain de ses cases, de sa position courante a sa limite. Le contenu du
+	 * tampon n'est pas copie et ne doit plus etre modifie.
+	 *
+	 * @param largeur la largeur de la carte en nombre de cases.
+	 * @param hauteur la hauteur de la carte en nombre de cases.
+	 * @param cases le type de terrain de chaque case, ligne par ligne.
+	 */
+	public Carte(int largeur, int hauteur, ByteBuffer cases) {
+		this(largeur, hauteur, cases, TERRES_INCONNUES);
+	}
+
+	/**
+	 * Constructeur d'une carte dont le nombre de cases terre est deja connu.
+	 * Le contenu du tampon n'est pas copie et ne doit plus etre modifie ; le
+	 * nombre de cases terre fourni n'est pas recompte.
+	 *
+	 * @param largeur la largeur de la carte en nombre de cases.
+	 * @param hauteur la hauteur de la carte en nombre de cases.
+	 * @param cases le type de terrain de chaque case, ligne par ligne.
+	 * @param nbTerres le nombre de cases terre, ou TERRES_INCONNUES.
+	 */
+	public Carte(int largeur, int hauteur, ByteBuffer cases, int nbTerres) {
+		if (largeur <= 0 || hauteur <= 0 || (long) largeur * hauteur != cases.remaining()) {
+			throw new IllegalArgumentException("Dimensions de carte invalides : "
+					+ largeur + "x" + hauteur + " pour " + cases.remaining() + " cases");
+		}
+		if (nbTerres < TERRES_INCONNUES || nbTerres > cases.remaining()) {
+			throw new IllegalArgumentException("Nombre de cases terre invalide : " + nbTerres);
+		}
+		this.largeur = largeur;
+		this.hauteur = hauteur;
+		this.cases = cases.slice().asReadOnlyBuffer();
+		this.nbTerres = nbTerres;
+	}
+
+	/**
+	 * Construit une carte a partir d'une matrice terre-mer.
+	 *
+	 * @param matrice la matrice, indexee par abscisse puis ordonnee (0 pour la
+	 *            mer, 1 pour la terre).
+	 * @return la carte.
+	 */
+	public static Carte depuisMatrice(int[][] matrice) {
+		final int largeur = matrice.length;
+		final int hauteur = matrice[0].length;
+		final byte[] cases = new byte[largeur * hauteur];
+		int nbTerres = 0;
+		for (int x = 0; x < largeur; ++x) {
+			for (int y = 0; y < hauteur; ++y) {
+				cases[y * largeur + x] = (byte) matrice[x][y];
+				if (cases[y * largeur + x] == TERRE) {
+					++nbTerres;
+				}
+			}
+		}
+		return new Carte(largeur, hauteur, ByteBuffer.wrap(cases), nbTerres);
+	}
+
+	/**
+	 * Construit une carte rectangulaire de terre bordee de mer.
+	 *
+	 * @param largeur la largeur de la carte en nombre de cases.
+	 * @param hauteur la hauteur de la carte en nombre de cases.
+	 * @return la carte.
+	 */
+	public static Carte rectangulaire(int largeur, int hauteur) {
+		// Cases rangees ligne par ligne, initialement toutes de mer.
+		final byte[] cases = new byte[largeur * hauteur];
+		for (int y = 1; y < hauteur - 1; ++y) {
+			for (int x = 1; x < largeur - 1; ++x) {
+				cases[y * largeur + x] = TERRE;
+			}
+		}
+		final int nbTerres = Math.max(0, largeur - 2) * Math.max(0, hauteur - 2);
+		return new Carte(largeur, hauteur, ByteBuffer.wrap(cases), nbTerres);
+	}
+
+	/**
+	 * Accesseur en lecture de la largeur de la carte.
+	 *
+	 * @return la largeur en nombre de cases.
+	 */
+	public int getLargeur() {
+		return this.largeur;
+	}
+
+	/**
+	 * Accesseur en lecture de la hauteur de la carte.
+	 *
+	 * @return la hauteur en nombre de cases.
+	 */
+	public int getHauteur() {
+		return this.hauteur;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de cases terre, compte au premier appel
+	 * s'il n'a pas ete fourni a la construction.
+	 *
+	 * @return le nombre de cases terre.
+	 */
+	public int getNbTerres() {
+		if (this.nbTerres == TERRES_INCONNUES) {
+			final int nbCases = this.cases.capacity();
+			int compte = 0;
+			for (int indice = 0; indice < nbCases; ++indice) {
+				if (this.cases.get(indice) == TERRE) {
+					++compte;
+				}
+			}
+			this.nbTerres = compte;
+		}
+		return this.nbTerres;
+	}
+
+	/**
+	 * Indique si les coordonnees sont a l'interieur de la carte.
+	 *
+	 * @param x abscisse de la case.
+	 * @param y ordonnee de la case.
+	 * @return true si la case appartient a la carte.
+	 */
+	public boolean contient(int x, int y) {
+		return x >= 0 && y >= 0 && x < this.largeur && y < this.hauteur;
+	}
+
+	/**
+	 * Accesseur en lecture du type de terrain d'une case.
+	 *
+	 * @param x abscisse de la case, dans la carte.
+	 * @param y ordonnee de la case, dans la carte.
+	 * @return le type de terrain de la case.
+	 */
+	public byte getTerrain(int x, int y) {
+		return this.cases.get(y * this.largeur + x);
+	}
+
+	/**
+	 * Accesseur en lecture du type de terrain d'une case a partir de son
+	 * indice.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return le type de terrain de la case.
+	 */
+	public byte getTerrain(int indice) {
+		return this.cases.get(indice);
+	}
+
+	/**
+	 * Retourne une vue en lecture seule des cases de la carte, positionnee
+	 * sur la premiere case.
+	 *
+	 * @return le tampon des cases, ligne par ligne.
+	 */
+	ByteBuffer getCases() {
+		return this.cases.duplicate();
+	}
+
+	/**
+	 * Indique si une case est de type terre. Une case hors de la carte n'est
+	 * pas de la terre.
+	 *
+	 * @param x abscisse de la case.
+	 * @param y ordonnee de la case.
+	 * @return true si la case est une case terre.
+	 */
+	public boolean isTerre(int x, int y) {
+		return this.contient(x, y) && this.getTerrain(x, y) == TERRE;
+	}
+}
@@ -1,6 +1,7 @@
 package tinymonkeys.modele;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 
@@ -30,7 +31,21 @@ public class CaseVide extends AbstractElement {
 	 * @return une CaseVide
 	 */
 	public static CaseVide genererCaseAleatoire(int largeurCarte, int longueurCarte) {
-		final Random random = new Random();
+		return CaseVide.genererCaseAleatoire(largeurCarte, longueurCarte,
+				ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Méthode static retournant une nouvelle instance aléatoire de case vide,
+	 * tirée avec le générateur indiqué.
+	 * 
+	 * @param largeurCarte la largeur de la carte
+	 * @param longueurCarte la longeur de la carte
+	 * @param random le générateur aléatoire à utiliser
+	 * @return une CaseVide
+	 */
+	public static CaseVide genererCaseAleatoire(int largeurCarte, int longueurCarte,
+			Random random) {
 		return new CaseVide(random.nextInt(largeurCarte), random.nextInt(longueurCarte));
 	}
 }
@@ -0,0 +1,282 @@
+package tinymonkeys.modele;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Calcul parallele des deplacements d'une bande de singes, en deux phases.
+ *
+ * Phase de proposition (parallele) : chaque singe tire une direction parmi
+ * les cases terre libres au debut du tick, puis reserve la case visee par
+ * CAS. En cas de conflit, la reservation revient au singe de plus petit
+ * identifiant, quel que soit l'ordre d'execution des threads.
+ *
+ * Phase de resolution (sequentielle, par l'appelant) : seul le singe ayant
+ * obtenu la reservation d'une case s'y deplace ; les autres restent sur
+ * place. Les cases visees etant libres au debut du tick et chacune n'ayant
+ * qu'un gagnant, deux singes ne peuvent jamais se retrouver sur la meme case.
+ *
+ * Les singes sont decoupes en lots de taille fixe, chacun disposant d'un
+ * generateur aleatoire derive de la graine, du numero de tick et du numero
+ * de lot : le resultat ne depend donc ni du nombre de threads ni de l'ordre
+ * d'execution.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+final class DeplacementParallele {
+
+	/**
+	 * Nombre de singes traites par une meme tache.
+	 */
+	private static final int TAILLE_LOT = 1024;
+
+	/**
+	 * Constante multiplicative du melangeur SplitMix64 (nombre d'or).
+	 */
+	private static final long GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Valeur d'une reservation libre.
+	 */
+	private static final int AUCUNE_RESERVATION = 0;
+
+	/**
+	 * L'ile sur laquelle se deplacent les singes.
+	 */
+	private final Ile ile;
+
+	/**
+	 * Le pool de threads executant la phase de proposition.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Graine des generateurs aleatoires.
+	 */
+	private long graine;
+
+	/**
+	 * Numero du tick courant.
+	 */
+	private long numeroTick;
+
+	/**
+	 * Reservation de chaque case : identifiant + 1 du singe la reservant, ou
+	 * AUCUNE_RESERVATION.
+	 */
+	private AtomicIntegerArray reservations;
+
+	/**
+	 * Constructeur du calcul parallele.
+	 *
+	 * @param ile l'ile sur laquelle se deplacent les singes.
+	 * @param pool le pool de threads a utiliser.
+	 * @param graine la graine des generateurs aleatoires.
+	 */
+	DeplacementParallele(Ile ile, ForkJoinPool pool, long graine) {
+		this.ile = ile;
+		this.pool = pool;
+		this.setGraine(graine);
+		this.reservations = new AtomicIntegerArray(0);
+	}
+
+	/**
+	 * Modifie la graine et remet a zero le numero de tick.
+	 *
+	 * @param graine la nouvelle graine.
+	 */
+	void setGraine(long graine) {
+		this.graine = graine;
+		this.numeroTick = 0;
+	}
+
+	/**
+	 * Phase de proposition : calcule la direction de chaque singe et reserve
+	 * les cases visees.
+	 *
+	 * @param xs les abscisses des singes.
+	 * @param ys les ordonnees des singes.
+	 * @param nbSinges le nombre de singes.
+	 * @param directions tableau recevant la direction de chaque singe
+	 *            (indice dans SingeErratique.DX et DY), ou
+	 *            SingeErratique.AUCUNE_DIRECTION.
+	 */
+	void proposer(int[] xs, int[] ys, int nbSinges, int[] directions) {
+		final GrilleOccupation occupation = this.ile.getOccupation();
+		final int nbCases = occupation.getLargeur() * occupation.getHauteur();
+		if (this.reservations.length() != nbCases) {
+			this.reservations = new AtomicIntegerArray(nbCases);
+		}
+
+		final int nbLots = (nbSinges + TAILLE_LOT - 1) / TAILLE_LOT;
+		if (nbLots > 0) {
+			this.pool.invoke(new Proposition(xs, ys, nbSinges, directions, 0, nbLots));
+		}
+		++this.numeroTick;
+	}
+
+	/**
+	 * Phase de resolution : indique si le singe a obtenu la case qu'il vise,
+	 * et libere alors la reservation. Doit etre appelee une fois pour chaque
+	 * singe ayant une direction, apres proposer.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @param x l'abscisse de la case visee.
+	 * @param y l'ordonnee de la case visee.
+	 * @return true si le singe peut se deplacer sur la case.
+	 */
+	boolean obtenir(int id, int x, int y) {
+		final int indice = this.ile.getOccupation().indice(x, y);
+		final boolean gagnant = this.reservations.get(indice) == id + 1;
+		if (gagnant) {
+			// Les perdants traités ensuite verront une case non réservée par eux.
+			this.reservations.set(indice, AUCUNE_RESERVATION);
+		}
+		return gagnant;
+	}
+
+	/**
+	 * Reserve la case pour le singe si aucun singe d'identifiant inferieur ne
+	 * l'a deja reservee.
+	 *
+	 * @param indice l'indice de la case.
+	 * @param id l'identifiant du singe.
+	 */
+	private void reserver(int indice, int id) {
+		final int valeur = id + 1;
+		int courante = this.reservations.get(indice);
+		while ((courante == AUCUNE_RESERVATION || valeur < courante)
+				&& !this.reservations.compareAndSet(indice, courante, valeur)) {
+			courante = this.reservations.get(indice);
+		}
+	}
+
+	/**
+	 * Derive la graine du generateur d'un lot.
+	 *
+	 * @param lot le numero du lot.
+	 * @return la graine du lot pour le tick courant.
+	 */
+	private long graineLot(int lot) {
+		return melange(melange(this.graine + this.numeroTick * GAMMA) + lot * GAMMA);
+	}
+
+	/**
+	 * Fonction de melange de SplitMix64.
+	 *
+	 * @param valeur la valeur a melanger.
+	 * @return la valeur melangee.
+	 */
+	private static long melange(long valeur) {
+		long z = valeur;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Tache de proposition sur un intervalle de lots.
+	 *
+	 * @version 1.0
+	 * @author Adrian Fraisse
+	 */
+	private final class Proposition extends RecursiveAction {
+
+		/**
+		 * UID auto-généré.
+		 */
+		private static final long serialVersionUID = 2950571453086532846L;
+
+		/**
+		 * Les abscisses des singes.
+		 */
+		private final int[] xs;
+
+		/**
+		 * Les ordonnees des singes.
+		 */
+		private final int[] ys;
+
+		/**
+		 * Le nombre de singes.
+		 */
+		private final int nbSinges;
+
+		/**
+		 * Les directions calculees.
+		 */
+		private final int[] directions;
+
+		/**
+		 * Premier lot traite.
+		 */
+		private final int premierLot;
+
+		/**
+		 * Lot suivant le dernier lot traite.
+		 */
+		private final int finLots;
+
+		/**
+		 * Constructeur de la tache.
+		 *
+		 * @param xs les abscisses des singes.
+		 * @param ys les ordonnees des singes.
+		 * @param nbSinges le nombre de singes.
+		 * @param directions les directions calculees.
+		 * @param premierLot premier lot traite.
+		 * @param finLots lot suivant le dernier lot traite.
+		 */
+		Proposition(int[] xs, int[] ys, int nbSinges, int[] directions,
+				int premierLot, int finLots) {
+			this.xs = xs;
+			this.ys = ys;
+			this.nbSinges = nbSinges;
+			this.directions = directions;
+			this.premierLot = premierLot;
+			this.finLots = finLots;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.finLots - this.premierLot == 1) {
+				this.proposerLot(this.premierLot);
+			} else {
+				final int milieu = (this.premierLot + this.finLots) >>> 1;
+				invokeAll(
+						new Proposition(this.xs, this.ys, this.nbSinges,
+								this.directions, this.premierLot, milieu),
+						new Proposition(this.xs, this.ys, this.nbSinges,
+								this.directions, milieu, this.finLots));
+			}
+		}
+
+		/**
+		 * Calcule les propositions des singes d'un lot.
+		 *
+		 * @param lot le numero du lot.
+		 */
+		private void proposerLot(int lot) {
+			final Ile monkeyIsland = DeplacementParallele.this.ile;
+			final GrilleOccupation occupation = monkeyIsland.getOccupation();
+			final Random aleatoire = SourceAleatoire.generateur(
+					DeplacementParallele.this.graineLot(lot));
+			final int fin = Math.min(this.nbSinges, (lot + 1) * TAILLE_LOT);
+
+			for (int i = lot * TAILLE_LOT; i < fin; ++i) {
+				final int direction = SingeErratique.tirageDirection(monkeyIsland,
+						this.xs[i], this.ys[i], aleatoire);
+				this.directions[i] = direction;
+				if (direction != SingeErratique.AUCUNE_DIRECTION) {
+					DeplacementParallele.this.reserver(occupation.indice(
+							this.xs[i] + SingeErratique.DX[direction],
+							this.ys[i] + SingeErratique.DY[direction]), i);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package tinymonkeys.modele;
+
+/**
+ * Etat complet d'une ile a un instant donne : sa carte, la position de chacun
+ * de ses singes erratiques, son pirate et son tresor.
+ *
+ * Un etat n'est jamais modifie apres sa construction. La carte, elle-meme
+ * immuable, est partagee sans copie ; les singes sont ranges dans l'ordre de
+ * leurs identifiants, par l'indice de leur case (y * largeur + x). Un etat est
+ * obtenu par Ile.capturerEtat ou FichierEtat.charger, et applique par
+ * Ile.restaurerEtat.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class EtatIle {
+
+	/**
+	 * La carte de l'ile.
+	 */
+	private final Carte carte;
+
+	/**
+	 * L'indice de la case de chaque singe, dans l'ordre des identifiants.
+	 */
+	private final int[] singes;
+
+	/**
+	 * Abscisse du pirate.
+	 */
+	private final int xPirate;
+
+	/**
+	 * Ordonnee du pirate.
+	 */
+	private final int yPirate;
+
+	/**
+	 * Indique si le pirate est vivant.
+	 */
+	private final boolean pirateVivant;
+
+	/**
+	 * Le lien vers l'image du pirate, ou null.
+	 */
+	private final String avatarPirate;
+
+	/**
+	 * Indique si l'ile a un tresor.
+	 */
+	private final boolean tresor;
+
+	/**
+	 * Abscisse du tresor.
+	 */
+	private final int xTresor;
+
+	/**
+	 * Ordonnee du tresor.
+	 */
+	private final int yTresor;
+
+	/**
+	 * Constructeur d'un etat. Le tableau des singes n'est pas copie et ne doit
+	 * plus etre modifie par l'appelant.
+	 *
+	 * @param carte la carte de l'ile.
+	 * @param singes l'indice de la case de chaque singe.
+	 * @param xPirate l'abscisse du pirate.
+	 * @param yPirate l'ordonnee du pirate.
+	 * @param pirateVivant true si le pirate est vivant.
+	 * @param avatarPirate le lien vers l'image du pirate, ou null.
+	 * @param tresor true si l'ile a un tresor.
+	 * @param xTresor l'abscisse du tresor.
+	 * @param yTresor l'ordonnee du tresor.
+	 */
+	EtatIle(Carte carte, int[] singes, int xPirate, int yPirate, boolean pirateVivant,
+			String avatarPirate, boolean tresor, int xTresor, int yTresor) {
+		this.carte = carte;
+		this.singes = singes;
+		this.xPirate = xPirate;
+		this.yPirate = yPirate;
+		this.pirateVivant = pirateVivant;
+		this.avatarPirate = avatarPirate;
+		this.tresor = tresor;
+		this.xTresor = xTresor;
+		this.yTresor = yTresor;
+	}
+
+	/**
+	 * Accesseur en lecture de la carte.
+	 *
+	 * @return la carte de l'ile.
+	 */
+	public Carte getCarte() {
+		return this.carte;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de singes erratiques.
+	 *
+	 * @return le nombre de singes.
+	 */
+	public int getNbSinges() {
+		return this.singes.length;
+	}
+
+	/**
+	 * Accesseur en lecture de l'abscisse d'un singe.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @return l'abscisse du singe.
+	 */
+	public int getXSinge(int id) {
+		return this.singes[id] % this.carte.getLargeur();
+	}
+
+	/**
+	 * Accesseur en lecture de l'ordonnee d'un singe.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @return l'ordonnee du singe.
+	 */
+	public int getYSinge(int id) {
+		return this.singes[id] / this.carte.getLargeur();
+	}
+
+	/**
+	 * Accesseur en lecture de l'indice de la case d'un singe.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @return l'indice de la case du singe.
+	 */
+	int getCaseSinge(int id) {
+		return this.singes[id];
+	}
+
+	/**
+	 * Retourne les positions de tous les singes, dans un lot nouvellement
+	 * cree.
+	 *
+	 * @return le lot des positions des singes.
+	 */
+	public LotPositions getPositionsSinges() {
+		final LotPositions lot = new LotPositions();
+		for (int id = 0; id < this.singes.length; ++id) {
+			lot.ajouter(id, this.getXSinge(id), this.getYSinge(id));
+		}
+		return lot;
+	}
+
+	/**
+	 * Accesseur en lecture de l'abscisse du pirate.
+	 *
+	 * @return l'abscisse du pirate.
+	 */
+	public int getXPirate() {
+		return this.xPirate;
+	}
+
+	/**
+	 * Accesseur en lecture de l'ordonnee du pirate.
+	 *
+	 * @return l'ordonnee du pirate.
+	 */
+	public int getYPirate() {
+		return this.yPirate;
+	}
+
+	/**
+	 * Indique si le pirate est vivant.
+	 *
+	 * @return true si le pirate est vivant.
+	 */
+	public boolean isPirateVivant() {
+		return this.pirateVivant;
+	}
+
+	/**
+	 * Accesseur en lecture de l'image du pirate.
+	 *
+	 * @return le lien vers l'image du pirate, ou null.
+	 */
+	public String getAvatarPirate() {
+		return this.avatarPirate;
+	}
+
+	/**
+	 * Indique si l'ile a un tresor.
+	 *
+	 * @return true si l'ile a un tresor.
+	 */
+	public boolean isTresor() {
+		return this.tresor;
+	}
+
+	/**
+	 * Accesseur en lecture de l'abscisse du tresor.
+	 *
+	 * @return l'abscisse du tresor, sans signification sans tresor.
+	 */
+	public int getXTresor() {
+		return this.xTresor;
+	}
+
+	/**
+	 * Accesseur en lecture de l'ordonnee du tresor.
+	 *
+	 * @return l'ordonnee du tresor, sans signification sans tresor.
+	 */
+	public int getYTresor() {
+		return this.yTresor;
+	}
+}
@@ -0,0 +1,183 @@
+package tinymonkeys.modele;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecture et ecriture des cartes au format binaire de TinyMonkeys.
+ *
+ * Un fichier de carte se compose d'un en-tete de 20 octets (entiers de 32
+ * bits, octet de poids fort en premier) suivi du terrain des cases :
+ * <ul>
+ * <li>la signature "TMCA" ;</li>
+ * <li>la version du format (2) ;</li>
+ * <li>la largeur de la carte en nombre de cases ;</li>
+ * <li>la hauteur de la carte en nombre de cases ;</li>
+ * <li>le nombre de cases terre ;</li>
+ * <li>largeur * hauteur octets, ligne par ligne (0 pour la mer, 1 pour la
+ * terre).</li>
+ * </ul>
+ *
+ * Le chargement projette le fichier en memoire : la carte lit ses cases
+ * directement dans la projection, sans copie dans le tas, et le temps de
+ * chargement ne depend pas de la taille de la carte. Le nombre de cases terre
+ * est compte a l'ecriture, pour ne pas parcourir la carte au chargement. Les
+ * fichiers de la version 1, dont l'en-tete de 16 octets ne contient pas ce
+ * nombre, restent lisibles.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class FichierCarte {
+
+	/**
+	 * Signature d'un fichier de carte ("TMCA").
+	 */
+	public static final int SIGNATURE = 0x544D4341;
+
+	/**
+	 * Version du format.
+	 */
+	public static final int VERSION = 2;
+
+	/**
+	 * Taille de l'en-tete en octets.
+	 */
+	public static final int TAILLE_EN_TETE = 20;
+
+	/**
+	 * Version du format sans le nombre de cases terre.
+	 */
+	private static final int VERSION_SANS_TERRES = 1;
+
+	/**
+	 * Taille de l'en-tete de la version sans le nombre de cases terre.
+	 */
+	private static final int TAILLE_EN_TETE_SANS_TERRES = 16;
+
+	/**
+	 * Taille des blocs ecrits sur le disque.
+	 */
+	private static final int TAILLE_BLOC = 1 << 16;
+
+	/**
+	 * Constructeur prive : classe utilitaire.
+	 */
+	private FichierCarte() {
+	}
+
+	/**
+	 * Charge une carte en projetant le fichier en memoire.
+	 *
+	 * @param fichier le fichier de la carte.
+	 * @return la carte, dont les cases sont lues dans le fichier projete.
+	 * @throws IOException si le fichier ne peut pas etre lu ou n'est pas un
+	 *             fichier de carte valide.
+	 */
+	public static Carte charger(Path fichier) throws IOException {
+		try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+			final long taille = canal.size();
+			if (taille < TAILLE_EN_TETE_SANS_TERRES) {
+				throw new IOException("Fichier de carte tronque : " + fichier);
+			}
+
+			final ByteBuffer enTete = ByteBuffer.allocate((int) Math.min(taille,
+					TAILLE_EN_TETE));
+			while (enTete.hasRemaining()) {
+				if (canal.read(enTete, enTete.position()) < 0) {
+					throw new IOException("Fichier de carte tronque : " + fichier);
+				}
+			}
+			enTete.flip();
+			if (enTete.getInt() != SIGNATURE) {
+				throw new IOException("Signature de carte invalide : " + fichier);
+			}
+			final int version = enTete.getInt();
+			final int tailleEnTete;
+			if (version == VERSION) {
+				tailleEnTete = TAILLE_EN_TETE;
+			} else if (version == VERSION_SANS_TERRES) {
+				tailleEnTete = TAILLE_EN_TETE_SANS_TERRES;
+			} else {
+				throw new IOException("Version de carte non supportee (" + version + ") : "
+						+ fichier);
+			}
+			if (taille < tailleEnTete) {
+				throw new IOException("Fichier de carte tronque : " + fichier);
+			}
+			final int largeur = enTete.getInt();
+			final int hauteur = enTete.getInt();
+			final int nbTerres = (version == VERSION) ? enTete.getInt()
+					: Carte.TERRES_INCONNUES;
+			final long nbCases = (long) largeur * hauteur;
+			if (largeur <= 0 || hauteur <= 0 || nbCases > Integer.MAX_VALUE
+					|| taille != tailleEnTete + nbCases) {
+				throw new IOException("Dimensions de carte invalides (" + largeur + "x"
+						+ hauteur + ") : " + fichier);
+			}
+			if (version == VERSION && (nbTerres < 0 || nbTerres > nbCases)) {
+				throw new IOException("Nombre de cases terre invalide (" + nbTerres + ") : "
+						+ fichier);
+			}
+
+			// La projection reste valide apres la fermeture du canal.
+			final MappedByteBuffer cases = canal.map(FileChannel.MapMode.READ_ONLY,
+					tailleEnTete, nbCases);
+			return new Carte(largeur, hauteur, cases, nbTerres);
+		}
+	}
+
+	/**
+	 * Ecrit une carte dans un fichier, remplace s'il existe deja.
+	 *
+	 * @param carte la carte a ecrire.
+	 * @param fichier le fichier de destination.
+	 * @throws IOException en cas d'erreur d'ecriture.
+	 */
+	public static void ecrire(Carte carte, Path fichier) throws IOException {
+		try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer enTete = ByteBuffer.allocate(TAILLE_EN_TETE);
+			enTete.putInt(SIGNATURE).putInt(VERSION).putInt(carte.getLargeur())
+					.putInt(carte.getHauteur()).putInt(carte.getNbTerres());
+			enTete.flip();
+			ecrireTout(canal, enTete);
+			ecrireCases(canal, carte);
+		}
+	}
+
+	/**
+	 * Ecrit le terrain des cases d'une carte par blocs, ligne par ligne.
+	 *
+	 * @param canal le canal de destination.
+	 * @param carte la carte a ecrire.
+	 * @throws IOException en cas d'erreur d'ecriture.
+	 */
+	static void ecrireCases(FileChannel canal, Carte carte) throws IOException {
+		final ByteBuffer cases = carte.getCases();
+		while (cases.hasRemaining()) {
+			final ByteBuffer bloc = cases.duplicate();
+			bloc.limit(Math.min(cases.limit(), cases.position() + TAILLE_BLOC));
+			ecrireTout(canal, bloc);
+			cases.position(bloc.position());
+		}
+	}
+
+	/**
+	 * Ecrit l'integralite d'un tampon sur un canal.
+	 *
+	 * @param canal le canal de destination.
+	 * @param tampon le tampon a ecrire.
+	 * @throws IOException en cas d'erreur d'ecriture.
+	 */
+	static void ecrireTout(FileChannel canal, ByteBuffer tampon) throws IOException {
+		while (tampon.hasRemaining()) {
+			canal.write(tampon);
+		}
+	}
+}
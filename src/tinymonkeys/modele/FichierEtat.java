@@ -0,0 +1,212 @@
+package tinymonkeys.modele;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lecture et ecriture des etats d'ile au format binaire de TinyMonkeys.
+ *
+ * Un fichier d'etat se compose d'un en-tete de 44 octets (entiers de 32 bits,
+ * octet de poids fort en premier) :
+ * <ul>
+ * <li>la signature "TMET" ;</li>
+ * <li>la version du format (1) ;</li>
+ * <li>la largeur et la hauteur de la carte en nombre de cases ;</li>
+ * <li>le nombre de singes ;</li>
+ * <li>l'abscisse, l'ordonnee et la vie (0 ou 1) du pirate ;</li>
+ * <li>l'abscisse et l'ordonnee du tresor, -1 et -1 sans tresor ;</li>
+ * <li>la longueur en octets de l'image du pirate, -1 sans image.</li>
+ * </ul>
+ * suivi de l'indice de la case de chaque singe (entiers de 32 bits), de
+ * l'image du pirate (UTF-8) et du terrain des cases comme dans FichierCarte.
+ *
+ * Le chargement projette le fichier en memoire : les singes sont lus en un
+ * seul transfert et la carte lit ses cases directement dans la projection.
+ * Un etat n'est accepte que si ses singes occupent des cases terre deux a
+ * deux distinctes, et si le pirate et le tresor sont sur la terre.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class FichierEtat {
+
+	/**
+	 * Signature d'un fichier d'etat ("TMET").
+	 */
+	public static final int SIGNATURE = 0x544D4554;
+
+	/**
+	 * Version du format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Taille de l'en-tete en octets.
+	 */
+	public static final int TAILLE_EN_TETE = 44;
+
+	/**
+	 * Valeur indiquant l'absence de tresor ou d'image.
+	 */
+	private static final int ABSENT = -1;
+
+	/**
+	 * Constructeur prive : classe utilitaire.
+	 */
+	private FichierEtat() {
+	}
+
+	/**
+	 * Charge un etat d'ile en projetant le fichier en memoire.
+	 *
+	 * @param fichier le fichier de l'etat.
+	 * @return l'etat, dont la carte est lue dans le fichier projete.
+	 * @throws IOException si le fichier ne peut pas etre lu ou n'est pas un
+	 *             fichier d'etat valide.
+	 */
+	public static EtatIle charger(Path fichier) throws IOException {
+		try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+			final long taille = canal.size();
+			if (taille < TAILLE_EN_TETE) {
+				throw new IOException("Fichier d'etat tronque : " + fichier);
+			}
+
+			// La projection reste valide apres la fermeture du canal.
+			final MappedByteBuffer contenu = canal.map(FileChannel.MapMode.READ_ONLY, 0, taille);
+			if (contenu.getInt() != SIGNATURE) {
+				throw new IOException("Signature d'etat invalide : " + fichier);
+			}
+			final int version = contenu.getInt();
+			if (version != VERSION) {
+				throw new IOException("Version d'etat non supportee (" + version + ") : "
+						+ fichier);
+			}
+			final int largeur = contenu.getInt();
+			final int hauteur = contenu.getInt();
+			final int nbSinges = contenu.getInt();
+			final int xPirate = contenu.getInt();
+			final int yPirate = contenu.getInt();
+			final boolean pirateVivant = contenu.getInt() != 0;
+			final int xTresor = contenu.getInt();
+			final int yTresor = contenu.getInt();
+			final int longueurAvatar = contenu.getInt();
+
+			final long nbCases = (long) largeur * hauteur;
+			final long tailleAvatar = Math.max(0, longueurAvatar);
+			if (largeur <= 0 || hauteur <= 0 || nbCases > Integer.MAX_VALUE || nbSinges < 0
+					|| longueurAvatar < ABSENT || taille != TAILLE_EN_TETE
+							+ (long) Integer.BYTES * nbSinges + tailleAvatar + nbCases) {
+				throw new IOException("Dimensions d'etat invalides : " + fichier);
+			}
+
+			final int[] singes = new int[nbSinges];
+			contenu.asIntBuffer().get(singes);
+			for (final int indice : singes) {
+				if (indice < 0 || indice >= nbCases) {
+					throw new IOException("Singe hors de la carte : " + fichier);
+				}
+			}
+			contenu.position(contenu.position() + Integer.BYTES * nbSinges);
+
+			String avatar = null;
+			if (longueurAvatar != ABSENT) {
+				final byte[] octets = new byte[longueurAvatar];
+				contenu.get(octets);
+				avatar = new String(octets, StandardCharsets.UTF_8);
+			}
+
+			final Carte carte = new Carte(largeur, hauteur, contenu.slice());
+			final boolean tresor = xTresor != ABSENT || yTresor != ABSENT;
+			verifierPositions(carte, singes, xPirate, yPirate, tresor, xTresor, yTresor,
+					fichier);
+			return new EtatIle(carte, singes, xPirate, yPirate, pirateVivant, avatar, tresor,
+					xTresor, yTresor);
+		}
+	}
+
+	/**
+	 * Verifie que les singes occupent des cases terre distinctes, et que le
+	 * pirate et le tresor sont sur la terre.
+	 *
+	 * @param carte la carte de l'etat.
+	 * @param singes l'indice de la case de chaque singe, dans la carte.
+	 * @param xPirate l'abscisse du pirate.
+	 * @param yPirate l'ordonnee du pirate.
+	 * @param tresor true si l'etat a un tresor.
+	 * @param xTresor l'abscisse du tresor.
+	 * @param yTresor l'ordonnee du tresor.
+	 * @param fichier le fichier de l'etat.
+	 * @throws IOException si une position est invalide.
+	 */
+	private static void verifierPositions(Carte carte, int[] singes, int xPirate, int yPirate,
+			boolean tresor, int xTresor, int yTresor, Path fichier) throws IOException {
+		// Apres le tri, deux singes sur la meme case sont voisins : aucune
+		// table de la taille de la carte n'est necessaire.
+		final int[] cases = singes.clone();
+		Arrays.sort(cases);
+		for (int i = 0; i < cases.length; ++i) {
+			if (carte.getTerrain(cases[i]) != Carte.TERRE) {
+				throw new IOException("Singe hors de la terre : " + fichier);
+			}
+			if (i > 0 && cases[i] == cases[i - 1]) {
+				throw new IOException("Deux singes sur la meme case : " + fichier);
+			}
+		}
+		if (!carte.isTerre(xPirate, yPirate)) {
+			throw new IOException("Pirate hors de la terre : " + fichier);
+		}
+		if (tresor && !carte.isTerre(xTresor, yTresor)) {
+			throw new IOException("Tresor hors de la terre : " + fichier);
+		}
+	}
+
+	/**
+	 * Ecrit un etat d'ile dans un fichier, remplace s'il existe deja.
+	 *
+	 * @param etat l'etat a ecrire.
+	 * @param fichier le fichier de destination.
+	 * @throws IOException en cas d'erreur d'ecriture.
+	 */
+	public static void ecrire(EtatIle etat, Path fichier) throws IOException {
+		final Carte carte = etat.getCarte();
+		final byte[] avatar = (etat.getAvatarPirate() == null) ? null
+				: etat.getAvatarPirate().getBytes(StandardCharsets.UTF_8);
+		final int nbSinges = etat.getNbSinges();
+
+		try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer enTete = ByteBuffer.allocate(TAILLE_EN_TETE);
+			enTete.putInt(SIGNATURE).putInt(VERSION).putInt(carte.getLargeur())
+					.putInt(carte.getHauteur()).putInt(nbSinges);
+			enTete.putInt(etat.getXPirate()).putInt(etat.getYPirate())
+					.putInt(etat.isPirateVivant() ? 1 : 0);
+			if (etat.isTresor()) {
+				enTete.putInt(etat.getXTresor()).putInt(etat.getYTresor());
+			} else {
+				enTete.putInt(ABSENT).putInt(ABSENT);
+			}
+			enTete.putInt((avatar == null) ? ABSENT : avatar.length);
+			enTete.flip();
+			FichierCarte.ecrireTout(canal, enTete);
+
+			final ByteBuffer singes = ByteBuffer.allocate(Integer.BYTES * nbSinges);
+			for (int id = 0; id < nbSinges; ++id) {
+				singes.putInt(etat.getCaseSinge(id));
+			}
+			singes.flip();
+			FichierCarte.ecrireTout(canal, singes);
+
+			if (avatar != null) {
+				FichierCarte.ecrireTout(canal, ByteBuffer.wrap(avatar));
+			}
+			FichierCarte.ecrireCases(canal, carte);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package tinymonkeys.modele;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * File sans verrou a plusieurs producteurs et un seul consommateur.
+ *
+ * Les elements sont chaines du plus ancien au plus recent a partir d'un
+ * noeud sentinelle. Un producteur accroche son noeud en fin de file par un
+ * seul echange atomique, puis le relie a son predecesseur : le depot ne
+ * bloque jamais et ne boucle jamais. Le consommateur, seul a lire la tete,
+ * la fait avancer sans operation atomique.
+ *
+ * Entre l'echange et le chainage d'un depot, le consommateur voit la file
+ * s'arreter avant ce noeud : l'element, et ceux deposes apres lui, sont alors
+ * retires au passage suivant. L'ordre de depot est toujours respecte.
+ *
+ * @param <T> le type des elements.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+final class FileMpsc<T> {
+
+	/**
+	 * Maillon de la file.
+	 *
+	 * @param <T> le type de l'element.
+	 */
+	private static final class Noeud<T> {
+
+		/**
+		 * L'element, efface une fois retire.
+		 */
+		private T valeur;
+
+		/**
+		 * Le maillon suivant, ou null en fin de file.
+		 */
+		private volatile Noeud<T> suivant;
+
+		/**
+		 * Constructeur d'un maillon.
+		 *
+		 * @param valeur l'element.
+		 */
+		private Noeud(T valeur) {
+			this.valeur = valeur;
+		}
+	}
+
+	/**
+	 * Dernier maillon depose, partage par les producteurs.
+	 */
+	private final AtomicReference<Noeud<T>> fin;
+
+	/**
+	 * Maillon deja retire precedant le premier element, propre au
+	 * consommateur.
+	 */
+	private Noeud<T> tete;
+
+	/**
+	 * Constructeur d'une file vide.
+	 */
+	FileMpsc() {
+		final Noeud<T> sentinelle = new Noeud<T>(null);
+		this.tete = sentinelle;
+		this.fin = new AtomicReference<Noeud<T>>(sentinelle);
+	}
+
+	/**
+	 * Depose un element en fin de file. Peut etre appelee depuis n'importe
+	 * quel thread.
+	 *
+	 * @param valeur l'element, non null.
+	 */
+	void deposer(T valeur) {
+		final Noeud<T> noeud = new Noeud<T>(valeur);
+		final Noeud<T> precedent = this.fin.getAndSet(noeud);
+		precedent.suivant = noeud;
+	}
+
+	/**
+	 * Retire le plus ancien element de la file. Reserve au thread
+	 * consommateur.
+	 *
+	 * @return l'element, ou null si la file est vide.
+	 */
+	T retirer() {
+		final Noeud<T> suivant = this.tete.suivant;
+		T valeur = null;
+		if (suivant != null) {
+			valeur = suivant.valeur;
+			suivant.valeur = null;
+			this.tete = suivant;
+		}
+		return valeur;
+	}
+
+	/**
+	 * Indique si la file est vide. Reserve au thread consommateur.
+	 *
+	 * @return true si aucun element n'est visible.
+	 */
+	boolean isVide() {
+		return this.tete.suivant == null;
+	}
+}
@@ -0,0 +1,393 @@
+package tinymonkeys.modele;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Grille d'occupation des cases de l'ile par les singes.
+ *
+ * Un bit par case indique si au moins un singe l'occupe, ce qui permet de
+ * savoir en temps constant si une case est libre sans parcourir la bande de
+ * singes. Les singes supplementaires d'une case deja occupee, rares, sont
+ * comptes a part dans une table a adressage ouvert. Les cases sont indexees
+ * ligne par ligne : l'indice de la case (x, y) vaut y * largeur + x.
+ *
+ * La grille tient aussi la liste triee des cases terre et l'ensemble des
+ * cases terre libres, designees par leur rang dans cette liste, ce qui permet
+ * de tirer une case au hasard en temps constant. Ces index, dont la taille
+ * depend du nombre de cases terre et non de la taille de la carte, ne sont
+ * construits qu'au premier besoin : tant qu'ils n'existent pas, une case est
+ * d'abord cherchee par un nombre borne de tirages directs sur la carte, ce
+ * qui evite de parcourir une tres grande carte au demarrage.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class GrilleOccupation {
+
+	/**
+	 * Nombre maximal de tirages directs sur la carte avant de construire les
+	 * index des cases terre.
+	 */
+	private static final int ESSAIS_DIRECTS = 64;
+
+	/**
+	 * Largeur de la grille en nombre de cases.
+	 */
+	private int largeur;
+
+	/**
+	 * Hauteur de la grille en nombre de cases.
+	 */
+	private int hauteur;
+
+	/**
+	 * Cases occupees par au moins un singe, un bit par case.
+	 */
+	private long[] occupees;
+
+	/**
+	 * Nombre de singes en plus du premier sur chaque case occupee par
+	 * plusieurs singes.
+	 */
+	private TableOccupants surnombres;
+
+	/**
+	 * La carte indexee, ou null si aucune case n'est de type terre.
+	 */
+	private Carte carte;
+
+	/**
+	 * Les indices des cases terre, ligne par ligne, ou null tant que l'index
+	 * n'est pas construit.
+	 */
+	private int[] terres;
+
+	/**
+	 * Les rangs, dans terres, des cases terre qu'aucun singe n'occupe, ou
+	 * null tant que l'index n'est pas construit.
+	 */
+	private IndexCases terresLibres;
+
+	/**
+	 * Nombre de cases terre occupees par au moins un singe.
+	 */
+	private int nbTerresOccupees;
+
+	/**
+	 * Constructeur d'une grille vide, sans aucune case.
+	 */
+	public GrilleOccupation() {
+		this.dimensionner(0, 0);
+	}
+
+	/**
+	 * Redimensionne la grille. Toutes les cases sont alors considerees comme
+	 * libres, et aucune comme terre.
+	 *
+	 * @param largeur la largeur de la carte en nombre de cases.
+	 * @param hauteur la hauteur de la carte en nombre de cases.
+	 */
+	public final void dimensionner(int largeur, int hauteur) {
+		this.largeur = largeur;
+		this.hauteur = hauteur;
+		this.occupees = new long[(int) (((long) largeur * hauteur + Long.SIZE - 1) / Long.SIZE)];
+		this.surnombres = new TableOccupants();
+		this.carte = null;
+		this.terres = null;
+		this.terresLibres = null;
+		this.nbTerresOccupees = 0;
+	}
+
+	/**
+	 * Redimensionne la grille selon la carte, dont les cases terre seront
+	 * indexees au premier besoin. Toutes les cases sont alors considerees
+	 * comme libres.
+	 *
+	 * @param carte la carte de l'ile.
+	 */
+	public void indexer(Carte carte) {
+		this.dimensionner(carte.getLargeur(), carte.getHauteur());
+		this.carte = carte;
+	}
+
+	/**
+	 * Construit les index des cases terre et des cases terre libres s'ils
+	 * n'existent pas encore.
+	 */
+	private void indexerTerres() {
+		if (this.terres == null) {
+			// Carte et grille partagent le meme ordre des cases.
+			final int nbTerres = this.getNbTerres();
+			final int[] indices = new int[nbTerres];
+			final IndexCases libres = new IndexCases(nbTerres);
+			final int nbCases = this.largeur * this.hauteur;
+			int rang = 0;
+			for (int indice = 0; indice < nbCases && nbTerres > 0; ++indice) {
+				if (this.isTerre(indice)) {
+					if (rang == nbTerres) {
+						throw new IllegalStateException("Nombre de cases terre de la carte errone");
+					}
+					indices[rang] = indice;
+					if (!this.isOccupee(indice)) {
+						libres.ajouter(rang);
+					}
+					++rang;
+				}
+			}
+			if (rang != nbTerres) {
+				throw new IllegalStateException("Nombre de cases terre de la carte errone");
+			}
+			this.terresLibres = libres;
+			this.terres = indices;
+		}
+	}
+
+	/**
+	 * Indique si au moins un singe occupe une case.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return true si la case est occupee.
+	 */
+	private boolean isOccupee(int indice) {
+		return (this.occupees[indice >>> 6] & (1L << indice)) != 0;
+	}
+
+	/**
+	 * Calcule le rang d'une case terre dans la liste des cases terre.
+	 *
+	 * @param indice l'indice de la case, de type terre.
+	 * @return le rang de la case.
+	 */
+	private int rangTerre(int indice) {
+		return Arrays.binarySearch(this.terres, indice);
+	}
+
+	/**
+	 * Indique si une case est de type terre.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return true si la case est une case terre.
+	 */
+	private boolean isTerre(int indice) {
+		return this.carte != null && this.carte.getTerrain(indice) == Carte.TERRE;
+	}
+
+	/**
+	 * Indique si les coordonnees sont a l'interieur de la grille.
+	 *
+	 * @param x abscisse de la case.
+	 * @param y ordonnee de la case.
+	 * @return true si la case appartient a la grille.
+	 */
+	public boolean contient(int x, int y) {
+		return x >= 0 && y >= 0 && x < this.largeur && y < this.hauteur;
+	}
+
+	/**
+	 * Calcule l'indice de la case dans la grille.
+	 *
+	 * @param x abscisse de la case.
+	 * @param y ordonnee de la case.
+	 * @return l'indice de la case.
+	 */
+	public int indice(int x, int y) {
+		return y * this.largeur + x;
+	}
+
+	/**
+	 * Indique si aucun singe n'occupe la case. Une case hors de la grille est
+	 * consideree comme libre.
+	 *
+	 * @param x abscisse de la case.
+	 * @param y ordonnee de la case.
+	 * @return true si la case est libre.
+	 */
+	public boolean isLibre(int x, int y) {
+		return !this.contient(x, y) || !this.isOccupee(this.indice(x, y));
+	}
+
+	/**
+	 * Signale l'arrivee d'un singe sur une case.
+	 *
+	 * @param x abscisse de la case.
+	 * @param y ordonnee de la case.
+	 */
+	public void occuper(int x, int y) {
+		if (this.contient(x, y)) {
+			final int indice = this.indice(x, y);
+			if (this.isOccupee(indice)) {
+				this.surnombres.incrementer(indice);
+			} else {
+				this.occupees[indice >>> 6] |= 1L << indice;
+				if (this.isTerre(indice)) {
+					++this.nbTerresOccupees;
+					if (this.terresLibres != null) {
+						this.terresLibres.retirer(this.rangTerre(indice));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Signale le depart d'un singe d'une case.
+	 *
+	 * @param x abscisse de la case.
+	 * @param y ordonnee de la case.
+	 */
+	public void liberer(int x, int y) {
+		if (this.contient(x, y)) {
+			final int indice = this.indice(x, y);
+			if (this.isOccupee(indice) && this.surnombres.decrementer(indice) < 0) {
+				// Dernier singe de la case.
+				this.occupees[indice >>> 6] &= ~(1L << indice);
+				if (this.isTerre(indice)) {
+					--this.nbTerresOccupees;
+					if (this.terresLibres != null) {
+						this.terresLibres.ajouter(this.rangTerre(indice));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Signale le deplacement d'un singe d'une case a une autre.
+	 *
+	 * @param ancienX l'ancienne abscisse du singe.
+	 * @param ancienY l'ancienne ordonnee du singe.
+	 * @param nouveauX la nouvelle abscisse du singe.
+	 * @param nouveauY la nouvelle ordonnee du singe.
+	 */
+	public void deplacer(int ancienX, int ancienY, int nouveauX, int nouveauY) {
+		this.liberer(ancienX, ancienY);
+		this.occuper(nouveauX, nouveauY);
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de cases terre, tenu par la carte.
+	 *
+	 * @return le nombre de cases terre.
+	 */
+	public int getNbTerres() {
+		return (this.carte == null) ? 0 : this.carte.getNbTerres();
+	}
+
+	/**
+	 * Accesseur en lecture de la case terre de rang donne.
+	 *
+	 * @param rang le rang de la case, de 0 a getNbTerres() - 1.
+	 * @return l'indice de la case.
+	 */
+	public int getTerre(int rang) {
+		this.indexerTerres();
+		return this.terres[rang];
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de cases terre libres.
+	 *
+	 * @return le nombre de cases terre qu'aucun singe n'occupe.
+	 */
+	public int getNbTerresLibres() {
+		return this.getNbTerres() - this.nbTerresOccupees;
+	}
+
+	/**
+	 * Tire une case terre uniformement.
+	 *
+	 * @param aleatoire le generateur aleatoire a utiliser.
+	 * @return l'indice de la case, ou IndexCases.AUCUNE_CASE s'il n'y a pas de
+	 *         terre.
+	 */
+	public int tirerTerre(Random aleatoire) {
+		final int direct = this.tirageDirect(aleatoire, false);
+		if (direct != IndexCases.AUCUNE_CASE) {
+			return direct;
+		}
+		this.indexerTerres();
+		return (this.terres.length == 0) ? IndexCases.AUCUNE_CASE
+				: this.terres[aleatoire.nextInt(this.terres.length)];
+	}
+
+	/**
+	 * Tire une case terre libre uniformement.
+	 *
+	 * @param aleatoire le generateur aleatoire a utiliser.
+	 * @return l'indice de la case, ou IndexCases.AUCUNE_CASE si toutes les
+	 *         cases terre sont occupees.
+	 */
+	public int tirerTerreLibre(Random aleatoire) {
+		final int direct = this.tirageDirect(aleatoire, true);
+		if (direct != IndexCases.AUCUNE_CASE) {
+			return direct;
+		}
+		this.indexerTerres();
+		final int rang = this.terresLibres.tirer(aleatoire);
+		return (rang == IndexCases.AUCUNE_CASE) ? IndexCases.AUCUNE_CASE : this.terres[rang];
+	}
+
+	/**
+	 * Tire directement des cases de la carte, tant que les index ne sont pas
+	 * construits, jusqu'a trouver une case terre (libre si demande). Le
+	 * nombre de tirages est borne ; la case obtenue est uniforme parmi les
+	 * cases recherchees.
+	 *
+	 * @param aleatoire le generateur aleatoire a utiliser.
+	 * @param libre true si la case doit en outre etre libre.
+	 * @return l'indice de la case, ou IndexCases.AUCUNE_CASE si les index
+	 *         existent deja ou si aucun tirage n'a abouti.
+	 */
+	private int tirageDirect(Random aleatoire, boolean libre) {
+		final int nbCases = this.largeur * this.hauteur;
+		if (this.terres == null && nbCases > 0) {
+			for (int essai = 0; essai < ESSAIS_DIRECTS; ++essai) {
+				final int indice = aleatoire.nextInt(nbCases);
+				if (this.isTerre(indice) && (!libre || !this.isOccupee(indice))) {
+					return indice;
+				}
+			}
+		}
+		return IndexCases.AUCUNE_CASE;
+	}
+
+	/**
+	 * Calcule l'abscisse d'une case a partir de son indice.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return l'abscisse de la case.
+	 */
+	public int abscisse(int indice) {
+		return indice % this.largeur;
+	}
+
+	/**
+	 * Calcule l'ordonnee d'une case a partir de son indice.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return l'ordonnee de la case.
+	 */
+	public int ordonnee(int indice) {
+		return indice / this.largeur;
+	}
+
+	/**
+	 * Accesseur en lecture de la largeur de la grille.
+	 *
+	 * @return la largeur en nombre de cases.
+	 */
+	public int getLargeur() {
+		return this.largeur;
+	}
+
+	/**
+	 * Accesseur en lecture de la hauteur de la grille.
+	 *
+	 * @return la hauteur en nombre de cases.
+	 */
+	public int getHauteur() {
+		return this.hauteur;
+	}
+}
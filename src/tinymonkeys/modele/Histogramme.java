@@ -0,0 +1,187 @@
+package tinymonkeys.modele;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durees a precision relative constante, inspire de
+ * HdrHistogram.
+ *
+ * Les valeurs sont rangees dans des intervalles dont la largeur double a
+ * chaque puissance de deux : chaque puissance de deux est decoupee en 32
+ * sous-intervalles, soit une erreur relative inferieure a 3 % de 1 ns a
+ * plusieurs siecles, pour moins de 2000 compteurs. L'enregistrement d'une
+ * valeur ne fait aucune allocation et ne prend aucun verrou ; il peut etre
+ * appele depuis plusieurs threads a la fois.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class Histogramme {
+
+	/**
+	 * Nombre de bits de precision : les valeurs inferieures a 2^PRECISION
+	 * sont comptees exactement.
+	 */
+	private static final int PRECISION = 6;
+
+	/**
+	 * Nombre de sous-intervalles par puissance de deux.
+	 */
+	private static final int DEMI_SOUS_INTERVALLES = 1 << (PRECISION - 1);
+
+	/**
+	 * Nombre de compteurs, suffisant pour toute valeur positive d'un long.
+	 */
+	private static final int NB_COMPTEURS = (Long.SIZE - PRECISION + 1) * DEMI_SOUS_INTERVALLES
+			+ DEMI_SOUS_INTERVALLES;
+
+	/**
+	 * Nombre de valeurs enregistrees dans chaque intervalle.
+	 */
+	private final AtomicLongArray compteurs;
+
+	/**
+	 * Nombre total de valeurs enregistrees.
+	 */
+	private final LongAdder nombre;
+
+	/**
+	 * Somme des valeurs enregistrees.
+	 */
+	private final LongAdder somme;
+
+	/**
+	 * Plus grande valeur enregistree.
+	 */
+	private final LongAccumulator max;
+
+	/**
+	 * Constructeur d'un histogramme vide.
+	 */
+	public Histogramme() {
+		this.compteurs = new AtomicLongArray(NB_COMPTEURS);
+		this.nombre = new LongAdder();
+		this.somme = new LongAdder();
+		this.max = new LongAccumulator(Math::max, 0L);
+	}
+
+	/**
+	 * Enregistre une valeur. Une valeur negative est comptee comme nulle.
+	 *
+	 * @param valeur la valeur, typiquement une duree en nanosecondes.
+	 */
+	public void enregistrer(long valeur) {
+		final long positive = Math.max(0L, valeur);
+		this.compteurs.incrementAndGet(Histogramme.indice(positive));
+		this.nombre.increment();
+		this.somme.add(positive);
+		this.max.accumulate(positive);
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de valeurs enregistrees.
+	 *
+	 * @return le nombre de valeurs.
+	 */
+	public long getNombre() {
+		return this.nombre.sum();
+	}
+
+	/**
+	 * Accesseur en lecture de la moyenne des valeurs enregistrees.
+	 *
+	 * @return la moyenne, ou 0 si l'histogramme est vide.
+	 */
+	public double getMoyenne() {
+		final long n = this.nombre.sum();
+		return (n == 0) ? 0 : (double) this.somme.sum() / n;
+	}
+
+	/**
+	 * Accesseur en lecture de la plus grande valeur enregistree.
+	 *
+	 * @return la valeur maximale, ou 0 si l'histogramme est vide.
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Calcule la valeur en dessous de laquelle se trouve le pourcentage
+	 * indique des valeurs enregistrees, a la precision de l'histogramme pres.
+	 *
+	 * @param centile le pourcentage, entre 0 et 100.
+	 * @return la plus grande valeur equivalente du centile, ou 0 si
+	 *         l'histogramme est vide.
+	 */
+	public long getCentile(double centile) {
+		long total = 0;
+		for (int i = 0; i < NB_COMPTEURS; ++i) {
+			total += this.compteurs.get(i);
+		}
+		long valeur = 0;
+		if (total > 0) {
+			final long rang = Math.max(1L, (long) Math.ceil(centile / 100 * total));
+			long cumul = 0;
+			int i = 0;
+			while (cumul < rang && i < NB_COMPTEURS) {
+				cumul += this.compteurs.get(i);
+				++i;
+			}
+			valeur = Math.min(Histogramme.borneSuperieure(i - 1), this.max.get());
+		}
+		return valeur;
+	}
+
+	/**
+	 * Remet l'histogramme a zero. Les valeurs enregistrees pendant la remise
+	 * a zero peuvent etre perdues.
+	 */
+	public void reinitialiser() {
+		for (int i = 0; i < NB_COMPTEURS; ++i) {
+			this.compteurs.set(i, 0L);
+		}
+		this.nombre.reset();
+		this.somme.reset();
+		this.max.reset();
+	}
+
+	/**
+	 * Calcule l'indice de l'intervalle d'une valeur.
+	 *
+	 * @param valeur la valeur, positive ou nulle.
+	 * @return l'indice de son compteur.
+	 */
+	static int indice(long valeur) {
+		final int indice;
+		if (valeur < 2 * DEMI_SOUS_INTERVALLES) {
+			indice = (int) valeur;
+		} else {
+			// Decalage conservant les PRECISION bits de poids fort.
+			final int decalage = Long.SIZE - PRECISION - Long.numberOfLeadingZeros(valeur);
+			indice = decalage * DEMI_SOUS_INTERVALLES + (int) (valeur >>> decalage);
+		}
+		return indice;
+	}
+
+	/**
+	 * Calcule la plus grande valeur d'un intervalle.
+	 *
+	 * @param indice l'indice de l'intervalle.
+	 * @return la plus grande valeur comptee dans cet intervalle.
+	 */
+	static long borneSuperieure(int indice) {
+		final long borne;
+		if (indice < 2 * DEMI_SOUS_INTERVALLES) {
+			borne = indice;
+		} else {
+			final int decalage = indice / DEMI_SOUS_INTERVALLES - 1;
+			final long sousIntervalle = indice - (long) decalage * DEMI_SOUS_INTERVALLES;
+			borne = ((sousIntervalle + 1) << decalage) - 1;
+		}
+		return borne;
+	}
+}
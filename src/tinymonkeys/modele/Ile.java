@@ -1,11 +1,8 @@
 package tinymonkeys.modele;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
-
-import javax.swing.event.EventListenerList;
+import java.util.Random;
 
 /**
  * Classe Ile.
@@ -16,10 +13,14 @@ import javax.swing.event.EventListenerList;
  */
 public class Ile {
 	/**
-	 * La carte de l'ile : une matrice indiquant si chaque case est de type mer
-	 * (0) ou terre (1).
+	 * La carte de l'ile : le type de terrain de chaque case, mer ou terre.
+	 */
+	private Carte carte;
+
+	/**
+	 * La grille d'occupation des cases par les singes.
 	 */
-	private int[][] carte;
+	private final GrilleOccupation occupation;
 
 	/**
 	 * Les singes erratiques.
@@ -39,17 +40,57 @@ public class Ile {
 	/**
 	 * Liste des écouteurs sur l'ile.
 	 */
-	final private EventListenerList ileEcouteurs;
+	final private ListeEcouteurs<IleEcouteur> ileEcouteurs;
 
 	/**
-	 * Constructeur de la classe Ile.
+	 * Source de l'aleatoire de la simulation.
+	 */
+	private final SourceAleatoire sourceAleatoire;
+
+	/**
+	 * Generateur des positions du pirate et du tresor.
+	 */
+	private final Random aleatoire;
+
+	/**
+	 * Generateur des deplacements de singes demandes un a un, hors des ticks
+	 * de la bande.
+	 */
+	private final Random aleatoireSinges;
+
+	/**
+	 * Constructeur de la classe Ile, dont la graine est tiree au hasard.
 	 */
 	public Ile() {
+		this(new SourceAleatoire());
+	}
+
+	/**
+	 * Constructeur de la classe Ile. Deux iles de meme graine, soumises aux
+	 * memes operations, evoluent de maniere identique.
+	 * 
+	 * @param graine la graine de l'aleatoire de la simulation.
+	 */
+	public Ile(long graine) {
+		this(new SourceAleatoire(graine));
+	}
+
+	/**
+	 * Constructeur de la classe Ile a partir de sa source d'aleatoire.
+	 * 
+	 * @param sourceAleatoire la source de l'aleatoire de la simulation.
+	 */
+	private Ile(SourceAleatoire sourceAleatoire) {
+		// Les generateurs sont divises dans un ordre fixe.
+		this.sourceAleatoire = sourceAleatoire;
+		this.aleatoire = sourceAleatoire.diviser();
 		this.carte = null;
+		this.occupation = new GrilleOccupation();
 		this.erratiques = new BandeDeSingesErratiques(this);
 		this.tresor = null;
 		this.pirate = new Pirate(this);
-		this.ileEcouteurs = new EventListenerList();
+		this.aleatoireSinges = sourceAleatoire.diviser();
+		this.ileEcouteurs = new ListeEcouteurs<IleEcouteur>(IleEcouteur.class);
 	}
 
 	/**
@@ -58,7 +99,7 @@ public class Ile {
 	 * @return la largeur de la carte.
 	 */
 	public int getLargeurCarte() {
-		return this.carte.length;
+		return this.carte.getLargeur();
 	}
 
 	/**
@@ -67,7 +108,7 @@ public class Ile {
 	 * @return la longueur de la carte.
 	 */
 	public int getLongueurCarte() {
-		return this.carte[0].length;
+		return this.carte.getHauteur();
 	}
 
 	/**
@@ -79,7 +120,16 @@ public class Ile {
 	 * @return la valeur de la case de la carte aux coordonnees indiquees.
 	 */
 	public int valeurCarte(int x, int y) {
-		return this.carte[x][y];
+		return this.carte.getTerrain(x, y);
+	}
+
+	/**
+	 * Accesseur en lecture de la carte, partagee en lecture seule.
+	 * 
+	 * @return la carte de l'ile.
+	 */
+	public Carte getCarte() {
+		return this.carte;
 	}
 
 	/**
@@ -88,9 +138,21 @@ public class Ile {
 	 * @param carte la matrice terre-mer.
 	 */
 	public void creationCarte(int[][] carte) {
-		this.carte = carte.clone();
-		Arrays.asList(this.ileEcouteurs.getListeners(IleEcouteur.class))
-		 	.forEach(listener -> listener.creationCarte(this.carte));
+		this.creationCarte(Carte.depuisMatrice(carte));
+	}
+
+	/**
+	 * Creation de la carte. La carte est partagee sans copie avec les
+	 * ecouteurs.
+	 * 
+	 * @param carte la carte de l'ile.
+	 */
+	public void creationCarte(Carte carte) {
+		this.carte = carte;
+		this.indexerOccupation();
+		for (final IleEcouteur ecouteur : this.ileEcouteurs.getEcouteurs()) {
+			ecouteur.creationCarte(this.carte);
+		}
 	}
 
 	/**
@@ -99,9 +161,97 @@ public class Ile {
 	 * @param carte la matrice terre-mer.
 	 */
 	public void setCarte(int[][] carte) {
-		this.carte = carte.clone();
-		Arrays.asList(this.ileEcouteurs.getListeners(IleEcouteur.class))
-		 	.forEach(listener -> listener.changementCarte(this.carte));
+		this.setCarte(Carte.depuisMatrice(carte));
+	}
+
+	/**
+	 * Mise à jour de la carte. La carte est partagee sans copie avec les
+	 * ecouteurs.
+	 * 
+	 * @param carte la nouvelle carte de l'ile.
+	 */
+	public void setCarte(Carte carte) {
+		this.carte = carte;
+		this.indexerOccupation();
+		for (final IleEcouteur ecouteur : this.ileEcouteurs.getEcouteurs()) {
+			ecouteur.changementCarte(this.carte);
+		}
+	}
+
+	/**
+	 * Capture l'etat complet de l'ile : carte, singes, pirate et tresor.
+	 * 
+	 * @return l'etat de l'ile.
+	 */
+	public EtatIle capturerEtat() {
+		final boolean avecTresor = this.tresor != null;
+		return new EtatIle(this.carte, this.erratiques.capturerCases(this.occupation),
+				this.pirate.getX(), this.pirate.getY(), this.pirate.isVivant(),
+				this.pirate.getAvatar(), avecTresor, avecTresor ? this.tresor.x : 0,
+				avecTresor ? this.tresor.y : 0);
+	}
+
+	/**
+	 * Restaure l'etat complet de l'ile. Les singes de la bande sont remplaces
+	 * en bloc par ceux de l'etat, sans notification individuelle : les
+	 * ecouteurs de l'ile recoivent une seule notification de restauration.
+	 * Les deplacements de la bande doivent etre suspendus pendant la
+	 * restauration.
+	 * 
+	 * @param etat l'etat a restaurer.
+	 */
+	public void restaurerEtat(EtatIle etat) {
+		this.carte = etat.getCarte();
+		this.occupation.indexer(this.carte);
+		this.erratiques.restaurer(etat, this.occupation);
+		if (etat.isTresor()) {
+			this.tresor = new Tresor(etat.getXTresor(), etat.getYTresor());
+		} else {
+			this.tresor = null;
+		}
+		this.pirate.restaurer(etat.getXPirate(), etat.getYPirate(), etat.isPirateVivant(),
+				etat.getAvatarPirate());
+		for (final IleEcouteur ecouteur : this.ileEcouteurs.getEcouteurs()) {
+			ecouteur.restaurationEtat(etat);
+		}
+	}
+
+	/**
+	 * Indexe les cases terre de la carte courante dans la grille d'occupation
+	 * et y place les singes deja presents.
+	 */
+	private void indexerOccupation() {
+		this.occupation.indexer(this.carte);
+		this.erratiques.occuperCases(this.occupation);
+	}
+
+	/**
+	 * Accesseur en lecture de la grille d'occupation des cases par les singes.
+	 * 
+	 * @return la grille d'occupation.
+	 */
+	GrilleOccupation getOccupation() {
+		return this.occupation;
+	}
+
+	/**
+	 * Accesseur en lecture de la source de l'aleatoire de la simulation.
+	 * 
+	 * @return la source d'aleatoire.
+	 */
+	public SourceAleatoire getSourceAleatoire() {
+		return this.sourceAleatoire;
+	}
+
+	/**
+	 * Accesseur en lecture du generateur des deplacements de singes demandes
+	 * un a un, issu de la source d'aleatoire de l'ile. Il n'est pas
+	 * synchronise : seul le thread qui modifie le modele doit l'utiliser.
+	 * 
+	 * @return le generateur.
+	 */
+	public Random getAleatoireSinges() {
+		return this.aleatoireSinges;
 	}
 
 	/**
@@ -122,13 +272,13 @@ public class Ile {
 		this.pirate.setAvatar(avatar);
 
 		// On évite de mettre le pirate immédiatement sur un singe
-		CaseVide newCase = null;
-		do {
-			newCase = CaseVide.genererCaseAleatoire(this.getLargeurCarte(),
-					this.getLongueurCarte());
-		} while (!this.isDeplacementPossible(newCase.x, newCase.y));
+		final int indice = this.occupation.tirerTerreLibre(this.aleatoire);
+		if (indice == IndexCases.AUCUNE_CASE) {
+			throw new IllegalStateException("Aucune case terre libre pour le pirate");
+		}
 
-		this.pirate.positionInitiale(newCase.x, newCase.y);
+		this.pirate.positionInitiale(this.occupation.abscisse(indice),
+				this.occupation.ordonnee(indice));
 	}
 
 	/**
@@ -185,25 +335,27 @@ public class Ile {
 	 * Creation du tresor a une position aleatoire.
 	 */
 	public void creationTresor() {
-		CaseVide newCase = null;
-		// Positionnement du trésor sur une case vide aléatoire
-		do {
-			newCase = CaseVide.genererCaseAleatoire(this.getLargeurCarte(),
-					this.getLongueurCarte());
-		} while (this.valeurCarte(newCase.x, newCase.y) != 1);
-
-		this.tresor = new Tresor(newCase.x, newCase.y);
+		// Positionnement du trésor sur une case terre aléatoire
+		final int indice = this.occupation.tirerTerre(this.aleatoire);
+		if (indice == IndexCases.AUCUNE_CASE) {
+			throw new IllegalStateException("Aucune case terre pour le tresor");
+		}
+
+		this.tresor = new Tresor(this.occupation.abscisse(indice),
+				this.occupation.ordonnee(indice));
 		// Mise à jour de l'écouteur
-		Arrays.asList(this.ileEcouteurs.getListeners(IleEcouteur.class))
-				.forEach(listener -> listener.creationTresor(this.tresor.x, this.tresor.y));
+		for (final IleEcouteur ecouteur : this.ileEcouteurs.getEcouteurs()) {
+			ecouteur.creationTresor(this.tresor.x, this.tresor.y);
+		}
 	}
 
 	/**
 	 * Suppression du tresor.
 	 */
 	public void suppressionTresor() {
-		Arrays.asList(this.ileEcouteurs.getListeners(IleEcouteur.class))
-				.forEach(listener -> listener.suppressionTresor());
+		for (final IleEcouteur ecouteur : this.ileEcouteurs.getEcouteurs()) {
+			ecouteur.suppressionTresor();
+		}
 		this.creationTresor();
 	}
 
@@ -214,7 +366,17 @@ public class Ile {
 	 * @param ecouteur ecouteur de l'ile.
 	 */
 	public void enregistreEcIle(IleEcouteur ecouteur) {
-		this.ileEcouteurs.add(IleEcouteur.class, ecouteur);
+		this.ileEcouteurs.ajouter(ecouteur);
+	}
+
+	/**
+	 * Retire de la liste des ecouteurs de l'ile l'ecouteur passe en
+	 * parametre.
+	 * 
+	 * @param ecouteur ecouteur de l'ile.
+	 */
+	public void retireEcIle(IleEcouteur ecouteur) {
+		this.ileEcouteurs.retirer(ecouteur);
 	}
 
 	/**
@@ -223,16 +385,13 @@ public class Ile {
 	 * @return une liste de CaseVide
 	 */
 	protected List<CaseVide> genererListCasesTerre() {
-		int largeurCarte = this.getLargeurCarte();
-		int longueurCarte = this.getLongueurCarte();
-		final List<CaseVide> cases = new ArrayList<CaseVide>();
-		
-		for (int i = 0; i < largeurCarte; ++i) {
-			for (int j = 0; j < longueurCarte; ++j) {
-				if (this.valeurCarte(i, j) == 1) {
-					cases.add(new CaseVide(i, j));
-				}
-			}
+		// Les cases terre sont deja indexees : la carte n'est pas reparcourue.
+		final int nbTerres = this.occupation.getNbTerres();
+		final List<CaseVide> cases = new ArrayList<CaseVide>(nbTerres);
+		for (int i = 0; i < nbTerres; ++i) {
+			final int indice = this.occupation.getTerre(i);
+			cases.add(new CaseVide(this.occupation.abscisse(indice),
+					this.occupation.ordonnee(indice)));
 		}
 		return cases;
 	}
@@ -246,8 +405,7 @@ public class Ile {
 	 * @return true si la case est une case terre, false sinon.
 	 */
 	protected boolean isTerre(int x, int y) {
-		return x < this.getLargeurCarte() && y < this.getLongueurCarte()
-				&& this.valeurCarte(x, y) == 1;
+		return this.carte.isTerre(x, y);
 	}
 
 	/**
@@ -258,16 +416,7 @@ public class Ile {
 	 * @return true si la case est une case terre, false sinon.
 	 */
 	protected boolean isLibre(int x, int y) {
-		boolean res = true;
-
-		final Iterator<SingeErratique> it = this.erratiques
-				.getSingesErratiques().iterator();
-		while (res && it.hasNext()) {
-			if (it.next().coordonneesEgales(x, y)) {
-				res = false;
-			}
-		}
-		return res;
+		return this.occupation.isLibre(x, y);
 	}
 
 }
@@ -15,14 +15,14 @@ public interface IleEcouteur extends EventListener {
 	 * 
 	 * @param carte la carte a dessiner.
 	 */
-	public void creationCarte(int[][] carte);
+	public void creationCarte(Carte carte);
 
 	/**
 	 * Modifie la carte affichee.
 	 * 
 	 * @param carte la nouvelle carte.
 	 */
-	public void changementCarte(int[][] carte);
+	public void changementCarte(Carte carte);
 
 	/**
 	 * Creation de l'image du singe erratique identifie aux coordonnees
@@ -57,4 +57,23 @@ public interface IleEcouteur extends EventListener {
 	 */
 	public void suppressionTresor();
 
+	/**
+	 * Restauration de l'etat complet de l'ile : la carte, les singes, le
+	 * pirate et le tresor sont remplaces d'un bloc.
+	 * 
+	 * Par defaut, la restauration est transmise comme un changement de
+	 * carte suivi de la creation de chaque singe puis du tresor ; un ecouteur
+	 * reconstruisant sa representation en une passe redefinit cette methode.
+	 * 
+	 * @param etat l'etat restaure.
+	 */
+	default void restaurationEtat(EtatIle etat) {
+		this.changementCarte(etat.getCarte());
+		for (int id = 0; id < etat.getNbSinges(); ++id) {
+			this.creationSingeErratique(id, etat.getXSinge(id), etat.getYSinge(id));
+		}
+		if (etat.isTresor()) {
+			this.creationTresor(etat.getXTresor(), etat.getYTresor());
+		}
+	}
 }
@@ -0,0 +1,122 @@
+package tinymonkeys.modele;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Ensemble d'indices de cases permettant l'ajout, le retrait et le tirage
+ * aleatoire d'une case en temps constant.
+ *
+ * Les indices presents sont ranges de maniere compacte dans un tableau ; un
+ * second tableau donne le rang de chaque case dans le premier. Un retrait
+ * deplace le dernier indice a la place de l'indice retire : l'ordre des
+ * indices n'est donc pas conserve.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class IndexCases {
+
+	/**
+	 * Valeur indiquant l'absence de case.
+	 */
+	public static final int AUCUNE_CASE = -1;
+
+	/**
+	 * Les indices des cases presentes, ranges de 0 a taille - 1.
+	 */
+	private final int[] cases;
+
+	/**
+	 * Le rang de chaque case dans le tableau cases, AUCUNE_CASE si elle est
+	 * absente.
+	 */
+	private final int[] rangs;
+
+	/**
+	 * Nombre de cases presentes.
+	 */
+	private int taille;
+
+	/**
+	 * Constructeur d'un ensemble vide.
+	 *
+	 * @param nbCases le nombre total de cases, les indices valant de 0 a
+	 *            nbCases - 1.
+	 */
+	public IndexCases(int nbCases) {
+		this.cases = new int[nbCases];
+		this.rangs = new int[nbCases];
+		Arrays.fill(this.rangs, AUCUNE_CASE);
+		this.taille = 0;
+	}
+
+	/**
+	 * Ajoute une case a l'ensemble. Une case deja presente est ignoree.
+	 *
+	 * @param indice l'indice de la case.
+	 */
+	public void ajouter(int indice) {
+		if (this.rangs[indice] == AUCUNE_CASE) {
+			this.cases[this.taille] = indice;
+			this.rangs[indice] = this.taille;
+			++this.taille;
+		}
+	}
+
+	/**
+	 * Retire une case de l'ensemble. Une case absente est ignoree.
+	 *
+	 * @param indice l'indice de la case.
+	 */
+	public void retirer(int indice) {
+		final int rang = this.rangs[indice];
+		if (rang != AUCUNE_CASE) {
+			--this.taille;
+			final int derniere = this.cases[this.taille];
+			this.cases[rang] = derniere;
+			this.rangs[derniere] = rang;
+			this.rangs[indice] = AUCUNE_CASE;
+		}
+	}
+
+	/**
+	 * Indique si une case appartient a l'ensemble.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return true si la case est presente.
+	 */
+	public boolean contient(int indice) {
+		return this.rangs[indice] != AUCUNE_CASE;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de cases presentes.
+	 *
+	 * @return le nombre de cases.
+	 */
+	public int getTaille() {
+		return this.taille;
+	}
+
+	/**
+	 * Accesseur en lecture de la case de rang donne.
+	 *
+	 * @param rang le rang de la case, de 0 a getTaille() - 1.
+	 * @return l'indice de la case.
+	 */
+	public int get(int rang) {
+		return this.cases[rang];
+	}
+
+	/**
+	 * Tire une case de l'ensemble uniformement.
+	 *
+	 * @param aleatoire le generateur aleatoire a utiliser.
+	 * @return l'indice de la case, ou AUCUNE_CASE si l'ensemble est vide.
+	 */
+	public int tirer(Random aleatoire) {
+		return (this.taille == 0) ? AUCUNE_CASE : this.cases[aleatoire.nextInt(this.taille)];
+	}
+}
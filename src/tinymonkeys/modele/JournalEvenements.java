@@ -0,0 +1,751 @@
+package tinymonkeys.modele;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Journal binaire des evenements du modele, en ajout seul.
+ *
+ * Le journal ecoute l'ile, sa bande de singes et son pirate, et enregistre
+ * chaque evenement emis : carte, creations et deplacements de singes,
+ * deplacements et mort du pirate, creation et suppression du tresor,
+ * restauration d'un etat complet. La
+ * liberation du clavier, propre a l'interface, n'est pas enregistree.
+ *
+ * Un fichier de journal se compose d'un en-tete de 8 octets (la signature
+ * "TMJO" puis la version du format, entiers de 32 bits) suivi des
+ * enregistrements. Chaque enregistrement commence par son type (un octet) et
+ * le temps ecoule depuis l'enregistrement precedent en microsecondes ; tous
+ * les entiers sont codes en varint (7 bits par octet), les entiers signes
+ * apres un codage zigzag. Les coordonnees sont codees par difference : avec
+ * la derniere position connue du singe ou du pirate pour un deplacement,
+ * avec le singe precedent du lot pour une creation. Un deplacement de singe
+ * tient ainsi en trois octets. La carte est codee par plages de cases de meme
+ * terrain.
+ *
+ * Les evenements sont codes par le thread qui les emet dans un anneau
+ * d'octets hors du tas, qu'un thread d'arriere-plan vide periodiquement dans
+ * le fichier : l'enregistrement n'attend le disque que si l'anneau est plein.
+ * Le journal peut etre relu par LecteurJournal.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class JournalEvenements implements IleEcouteur, BandeDeSingesErratiquesEcouteur,
+		PirateEcouteur, Closeable {
+
+	/**
+	 * Signature d'un fichier de journal ("TMJO").
+	 */
+	public static final int SIGNATURE = 0x544D4A4F;
+
+	/**
+	 * Version du format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Taille de l'en-tete en octets.
+	 */
+	public static final int TAILLE_EN_TETE = 8;
+
+	/**
+	 * Type d'enregistrement : creation de la carte.
+	 */
+	static final byte CREATION_CARTE = 1;
+
+	/**
+	 * Type d'enregistrement : changement de carte.
+	 */
+	static final byte CHANGEMENT_CARTE = 2;
+
+	/**
+	 * Type d'enregistrement : lot de creations de singes.
+	 */
+	static final byte CREATIONS_SINGES = 3;
+
+	/**
+	 * Type d'enregistrement : lot de deplacements de singes.
+	 */
+	static final byte DEPLACEMENTS_SINGES = 4;
+
+	/**
+	 * Type d'enregistrement : ajout du pirate.
+	 */
+	static final byte AJOUT_PIRATE = 5;
+
+	/**
+	 * Type d'enregistrement : deplacement du pirate.
+	 */
+	static final byte DEPLACEMENT_PIRATE = 6;
+
+	/**
+	 * Type d'enregistrement : mort du pirate.
+	 */
+	static final byte MORT_PIRATE = 7;
+
+	/**
+	 * Type d'enregistrement : creation du tresor.
+	 */
+	static final byte CREATION_TRESOR = 8;
+
+	/**
+	 * Type d'enregistrement : suppression du tresor.
+	 */
+	static final byte SUPPRESSION_TRESOR = 9;
+
+	/**
+	 * Type d'enregistrement : restauration d'un etat complet de l'ile.
+	 */
+	static final byte RESTAURATION_ETAT = 10;
+
+	/**
+	 * Capacite de l'anneau par defaut en octets.
+	 */
+	public static final int CAPACITE_DEFAUT = 1 << 20;
+
+	/**
+	 * Taille du tampon de codage en octets.
+	 */
+	private static final int TAILLE_TAMPON = 1 << 14;
+
+	/**
+	 * Place maximale occupee par un element d'enregistrement : type, date et
+	 * trois entiers.
+	 */
+	private static final int TAILLE_ELEMENT = 32;
+
+	/**
+	 * Periode de vidage de l'anneau dans le fichier, en millisecondes.
+	 */
+	private static final long PERIODE_VIDAGE = 50;
+
+	/**
+	 * Nombre de nanosecondes dans une microseconde.
+	 */
+	private static final long NANOS_PAR_MICRO = 1000L;
+
+	private static final Logger log = Logger.getGlobal();
+
+	/**
+	 * Le fichier du journal.
+	 */
+	private final FileChannel canal;
+
+	/**
+	 * L'anneau d'octets en attente d'ecriture, hors du tas.
+	 */
+	private final ByteBuffer anneau;
+
+	/**
+	 * Vue de l'anneau utilisee par le thread de vidage.
+	 */
+	private final ByteBuffer anneauLecture;
+
+	/**
+	 * Verrou des compteurs de l'anneau, sur lequel attendent le thread de
+	 * vidage et les threads emetteurs quand l'anneau est plein.
+	 */
+	private final Object verrouAnneau = new Object();
+
+	/**
+	 * Nombre total d'octets publies dans l'anneau.
+	 */
+	private long ecrits;
+
+	/**
+	 * Nombre total d'octets ecrits dans le fichier.
+	 */
+	private long vides;
+
+	/**
+	 * Indique que le journal est ferme.
+	 */
+	private volatile boolean ferme;
+
+	/**
+	 * Erreur d'ecriture survenue dans le thread de vidage, ou null.
+	 */
+	private IOException erreur;
+
+	/**
+	 * Le thread de vidage de l'anneau.
+	 */
+	private final Thread videur;
+
+	/**
+	 * Tampon de codage d'un enregistrement, avant sa copie dans l'anneau.
+	 */
+	private final ByteBuffer tampon;
+
+	/**
+	 * Date du dernier enregistrement, en nanosecondes.
+	 */
+	private long dateDernier;
+
+	/**
+	 * Derniere abscisse connue de chaque singe.
+	 */
+	private int[] xsSinges = new int[0];
+
+	/**
+	 * Derniere ordonnee connue de chaque singe.
+	 */
+	private int[] ysSinges = new int[0];
+
+	/**
+	 * Derniere abscisse connue du pirate.
+	 */
+	private int xPirate;
+
+	/**
+	 * Derniere ordonnee connue du pirate.
+	 */
+	private int yPirate;
+
+	/**
+	 * Constructeur d'un journal ecrit dans le fichier indique, remplace s'il
+	 * existe deja, avec un anneau de capacite par defaut.
+	 *
+	 * @param fichier le fichier du journal.
+	 * @throws IOException si le fichier ne peut pas etre cree.
+	 */
+	public JournalEvenements(Path fichier) throws IOException {
+		this(fichier, CAPACITE_DEFAUT);
+	}
+
+	/**
+	 * Constructeur d'un journal ecrit dans le fichier indique, remplace s'il
+	 * existe deja.
+	 *
+	 * @param fichier le fichier du journal.
+	 * @param capacite la capacite de l'anneau en octets.
+	 * @throws IOException si le fichier ne peut pas etre cree.
+	 */
+	public JournalEvenements(Path fichier, int capacite) throws IOException {
+		this.canal = FileChannel.open(fichier, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.anneau = ByteBuffer.allocateDirect(capacite);
+		this.anneauLecture = this.anneau.duplicate();
+		this.tampon = ByteBuffer.allocate(TAILLE_TAMPON);
+
+		final ByteBuffer enTete = ByteBuffer.allocate(TAILLE_EN_TETE);
+		enTete.putInt(SIGNATURE).putInt(VERSION);
+		enTete.flip();
+		while (enTete.hasRemaining()) {
+			this.canal.write(enTete);
+		}
+
+		this.dateDernier = System.nanoTime();
+		this.videur = new Thread(this::vider, "journal-evenements");
+		this.videur.setDaemon(true);
+		this.videur.start();
+	}
+
+	/**
+	 * Enregistre les evenements de l'ile, de sa bande de singes et de son
+	 * pirate.
+	 *
+	 * @param ile l'ile a enregistrer.
+	 */
+	public void suivre(Ile ile) {
+		ile.enregistreEcIle(this);
+		ile.getSingesErratiques().enregistreEcBandeSinges(this);
+		ile.getPirate().enregistreEcPirate(this);
+	}
+
+	/**
+	 * Cesse d'enregistrer les evenements de l'ile.
+	 *
+	 * @param ile l'ile enregistree.
+	 */
+	public void oublier(Ile ile) {
+		ile.retireEcIle(this);
+		ile.getSingesErratiques().retireEcBandeSinges(this);
+		ile.getPirate().retireEcPirate(this);
+	}
+
+	@Override
+	public void creationCarte(Carte carte) {
+		this.enregistrerCarte(CREATION_CARTE, carte);
+	}
+
+	@Override
+	public void changementCarte(Carte carte) {
+		this.enregistrerCarte(CHANGEMENT_CARTE, carte);
+	}
+
+	@Override
+	public void creationSingeErratique(int id, int x, int y) {
+		final LotPositions lot = new LotPositions();
+		lot.ajouter(id, x, y);
+		this.creationsSingesErratiques(lot);
+	}
+
+	@Override
+	public synchronized void creationsSingesErratiques(LotPositions creations) {
+		if (!this.ferme) {
+			final int taille = creations.getTaille();
+			this.debut(CREATIONS_SINGES);
+			ecrireVarint(this.tampon, taille);
+			int idPrecedent = -1;
+			int xPrecedent = 0;
+			int yPrecedent = 0;
+			for (int i = 0; i < taille; ++i) {
+				this.assurerPlace(TAILLE_ELEMENT);
+				final int id = creations.getId(i);
+				final int x = creations.getX(i);
+				final int y = creations.getY(i);
+				ecrireVarint(this.tampon, zigzag(id - idPrecedent - 1));
+				ecrireVarint(this.tampon, zigzag(x - xPrecedent));
+				ecrireVarint(this.tampon, zigzag(y - yPrecedent));
+				this.connaitreSinge(id);
+				this.xsSinges[id] = x;
+				this.ysSinges[id] = y;
+				idPrecedent = id;
+				xPrecedent = x;
+				yPrecedent = y;
+			}
+			this.publier();
+		}
+	}
+
+	@Override
+	public void deplacementSingeErratique(int id, int x, int y) {
+		final LotPositions lot = new LotPositions();
+		lot.ajouter(id, x, y);
+		this.deplacementsSingesErratiques(lot);
+	}
+
+	@Override
+	public synchronized void deplacementsSingesErratiques(LotPositions deplacements) {
+		if (!this.ferme) {
+			final int taille = deplacements.getTaille();
+			this.debut(DEPLACEMENTS_SINGES);
+			ecrireVarint(this.tampon, taille);
+			int idPrecedent = -1;
+			for (int i = 0; i < taille; ++i) {
+				this.assurerPlace(TAILLE_ELEMENT);
+				final int id = deplacements.getId(i);
+				final int x = deplacements.getX(i);
+				final int y = deplacements.getY(i);
+				this.connaitreSinge(id);
+				ecrireVarint(this.tampon, zigzag(id - idPrecedent - 1));
+				ecrireVarint(this.tampon, zigzag(x - this.xsSinges[id]));
+				ecrireVarint(this.tampon, zigzag(y - this.ysSinges[id]));
+				this.xsSinges[id] = x;
+				this.ysSinges[id] = y;
+				idPrecedent = id;
+			}
+			this.publier();
+		}
+	}
+
+	@Override
+	public synchronized void ajoutPirate(int id, int x, int y, String avatar) {
+		if (!this.ferme) {
+			final byte[] octets = (avatar == null) ? null
+					: avatar.getBytes(StandardCharsets.UTF_8);
+			this.debut(AJOUT_PIRATE);
+			ecrireVarint(this.tampon, id);
+			ecrireVarint(this.tampon, zigzag(x));
+			ecrireVarint(this.tampon, zigzag(y));
+			// Longueur + 1, 0 pour un avatar absent.
+			ecrireVarint(this.tampon, (octets == null) ? 0 : octets.length + 1);
+			if (octets != null) {
+				this.ecrireOctets(octets);
+			}
+			this.xPirate = x;
+			this.yPirate = y;
+			this.publier();
+		}
+	}
+
+	@Override
+	public synchronized void deplacementPirate(int id, int x, int y) {
+		if (!this.ferme) {
+			this.debut(DEPLACEMENT_PIRATE);
+			ecrireVarint(this.tampon, id);
+			ecrireVarint(this.tampon, zigzag(x - this.xPirate));
+			ecrireVarint(this.tampon, zigzag(y - this.yPirate));
+			this.xPirate = x;
+			this.yPirate = y;
+			this.publier();
+		}
+	}
+
+	@Override
+	public synchronized void mortPirate(int id) {
+		if (!this.ferme) {
+			this.debut(MORT_PIRATE);
+			ecrireVarint(this.tampon, id);
+			this.publier();
+		}
+	}
+
+	@Override
+	public void liberationClavier() {
+		// Evenement propre a l'interface, non enregistre.
+	}
+
+	@Override
+	public synchronized void creationTresor(int x, int y) {
+		if (!this.ferme) {
+			this.debut(CREATION_TRESOR);
+			ecrireVarint(this.tampon, zigzag(x));
+			ecrireVarint(this.tampon, zigzag(y));
+			this.publier();
+		}
+	}
+
+	@Override
+	public synchronized void suppressionTresor() {
+		if (!this.ferme) {
+			this.debut(SUPPRESSION_TRESOR);
+			this.publier();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * L'etat est enregistre en un seul enregistrement : la carte par plages,
+	 * les singes dans l'ordre de leurs identifiants, codes par difference avec
+	 * le singe precedent, puis le pirate et le tresor.
+	 */
+	@Override
+	public synchronized void restaurationEtat(EtatIle etat) {
+		if (!this.ferme) {
+			this.debut(RESTAURATION_ETAT);
+			this.ecrireCarte(etat.getCarte());
+
+			final int nbSinges = etat.getNbSinges();
+			ecrireVarint(this.tampon, nbSinges);
+			this.xsSinges = new int[nbSinges];
+			this.ysSinges = new int[nbSinges];
+			int xPrecedent = 0;
+			int yPrecedent = 0;
+			for (int id = 0; id < nbSinges; ++id) {
+				this.assurerPlace(TAILLE_ELEMENT);
+				final int x = etat.getXSinge(id);
+				final int y = etat.getYSinge(id);
+				ecrireVarint(this.tampon, zigzag(x - xPrecedent));
+				ecrireVarint(this.tampon, zigzag(y - yPrecedent));
+				this.xsSinges[id] = x;
+				this.ysSinges[id] = y;
+				xPrecedent = x;
+				yPrecedent = y;
+			}
+
+			final String avatar = etat.getAvatarPirate();
+			final byte[] octets = (avatar == null) ? null : avatar.getBytes(StandardCharsets.UTF_8);
+			this.assurerPlace(TAILLE_ELEMENT);
+			this.xPirate = etat.getXPirate();
+			this.yPirate = etat.getYPirate();
+			ecrireVarint(this.tampon, zigzag(this.xPirate));
+			ecrireVarint(this.tampon, zigzag(this.yPirate));
+			this.tampon.put((byte) (etat.isPirateVivant() ? 1 : 0));
+			ecrireVarint(this.tampon, (octets == null) ? 0 : octets.length + 1);
+			if (octets != null) {
+				this.ecrireOctets(octets);
+			}
+
+			this.assurerPlace(TAILLE_ELEMENT);
+			this.tampon.put((byte) (etat.isTresor() ? 1 : 0));
+			if (etat.isTresor()) {
+				ecrireVarint(this.tampon, zigzag(etat.getXTresor()));
+				ecrireVarint(this.tampon, zigzag(etat.getYTresor()));
+			}
+			this.publier();
+		}
+	}
+
+	/**
+	 * Ferme le journal : les evenements suivants sont ignores, l'anneau est
+	 * vide dans le fichier puis le fichier est ferme.
+	 *
+	 * @throws IOException si une ecriture a echoue.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			this.ferme = true;
+		}
+		synchronized (this.verrouAnneau) {
+			this.verrouAnneau.notifyAll();
+		}
+		try {
+			this.videur.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.canal.close();
+		synchronized (this.verrouAnneau) {
+			if (this.erreur != null) {
+				throw this.erreur;
+			}
+		}
+	}
+
+	/**
+	 * Enregistre une carte, codee par plages de cases de meme terrain.
+	 *
+	 * @param type le type d'enregistrement.
+	 * @param carte la carte.
+	 */
+	private synchronized void enregistrerCarte(byte type, Carte carte) {
+		if (!this.ferme) {
+			this.debut(type);
+			this.ecrireCarte(carte);
+			// Les positions connues ne valent plus pour la nouvelle carte.
+			this.xsSinges = new int[0];
+			this.ysSinges = new int[0];
+			this.publier();
+		}
+	}
+
+	/**
+	 * Code une carte par plages de cases de meme terrain dans le tampon.
+	 *
+	 * @param carte la carte.
+	 */
+	private void ecrireCarte(Carte carte) {
+		ecrireVarint(this.tampon, carte.getLargeur());
+		ecrireVarint(this.tampon, carte.getHauteur());
+		final int nbCases = carte.getLargeur() * carte.getHauteur();
+		int indice = 0;
+		while (indice < nbCases) {
+			final byte terrain = carte.getTerrain(indice);
+			int fin = indice + 1;
+			while (fin < nbCases && carte.getTerrain(fin) == terrain) {
+				++fin;
+			}
+			this.assurerPlace(TAILLE_ELEMENT);
+			this.tampon.put(terrain);
+			ecrireVarint(this.tampon, fin - indice);
+			indice = fin;
+		}
+	}
+
+	/**
+	 * Commence un enregistrement : type et temps ecoule depuis le precedent.
+	 *
+	 * @param type le type d'enregistrement.
+	 */
+	private void debut(byte type) {
+		final long maintenant = System.nanoTime();
+		this.assurerPlace(TAILLE_ELEMENT);
+		this.tampon.put(type);
+		ecrireVarlong(this.tampon, (maintenant - this.dateDernier) / NANOS_PAR_MICRO);
+		// La date avance du temps enregistre, sans cumuler les arrondis.
+		this.dateDernier += (maintenant - this.dateDernier) / NANOS_PAR_MICRO * NANOS_PAR_MICRO;
+	}
+
+	/**
+	 * Agrandit si besoin les tables des positions connues des singes pour
+	 * contenir le singe indique. Un singe inconnu est suppose en (0, 0).
+	 *
+	 * @param id l'identifiant du singe.
+	 */
+	private void connaitreSinge(int id) {
+		if (id >= this.xsSinges.length) {
+			final int capacite = Math.max(id + 1, this.xsSinges.length * 2);
+			this.xsSinges = Arrays.copyOf(this.xsSinges, capacite);
+			this.ysSinges = Arrays.copyOf(this.ysSinges, capacite);
+		}
+	}
+
+	/**
+	 * Copie des octets dans le tampon de codage, par morceaux si besoin.
+	 *
+	 * @param octets les octets a copier.
+	 */
+	private void ecrireOctets(byte[] octets) {
+		int copies = 0;
+		while (copies < octets.length) {
+			this.assurerPlace(1);
+			final int morceau = Math.min(octets.length - copies, this.tampon.remaining());
+			this.tampon.put(octets, copies, morceau);
+			copies += morceau;
+		}
+	}
+
+	/**
+	 * Transfere le tampon de codage dans l'anneau s'il reste moins de place
+	 * que demande. Un meme enregistrement peut ainsi etre transfere en
+	 * plusieurs fois : le verrou du journal garantit que ses morceaux restent
+	 * contigus.
+	 *
+	 * @param place la place necessaire en octets.
+	 */
+	private void assurerPlace(int place) {
+		if (this.tampon.remaining() < place) {
+			this.publier();
+		}
+	}
+
+	/**
+	 * Copie le contenu du tampon de codage dans l'anneau, en attendant que le
+	 * thread de vidage libere de la place si l'anneau est plein.
+	 */
+	private void publier() {
+		this.tampon.flip();
+		final int capacite = this.anneau.capacity();
+		boolean interrompu = false;
+		boolean enErreur = false;
+		while (this.tampon.hasRemaining() && !enErreur) {
+			final long debut;
+			final int libre;
+			synchronized (this.verrouAnneau) {
+				while (this.erreur == null && this.ecrits - this.vides == capacite) {
+					this.verrouAnneau.notifyAll();
+					try {
+						this.verrouAnneau.wait();
+					} catch (final InterruptedException e) {
+						// Un enregistrement commence doit etre termine.
+						interrompu = true;
+					}
+				}
+				enErreur = this.erreur != null;
+				debut = this.ecrits;
+				libre = (int) (capacite - (this.ecrits - this.vides));
+			}
+			if (enErreur) {
+				// Le fichier n'est plus ecrit : l'enregistrement est perdu.
+				break;
+			}
+
+			// Copie hors verrou : cette zone n'est pas lue par le thread de vidage.
+			final int position = (int) (debut % capacite);
+			final int morceau = Math.min(this.tampon.remaining(),
+					Math.min(libre, capacite - position));
+			final ByteBuffer source = this.tampon.duplicate();
+			source.limit(source.position() + morceau);
+			this.anneau.position(position);
+			this.anneau.put(source);
+			this.tampon.position(this.tampon.position() + morceau);
+
+			synchronized (this.verrouAnneau) {
+				this.ecrits += morceau;
+				if (2 * (this.ecrits - this.vides) > capacite) {
+					this.verrouAnneau.notifyAll();
+				}
+			}
+		}
+		this.tampon.clear();
+		if (interrompu) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Boucle du thread de vidage : ecrit periodiquement dans le fichier le
+	 * contenu publie de l'anneau, jusqu'a la fermeture du journal.
+	 */
+	private void vider() {
+		final int capacite = this.anneau.capacity();
+		boolean termine = false;
+		while (!termine) {
+			final long debut;
+			final long fin;
+			synchronized (this.verrouAnneau) {
+				if (!this.ferme && 2 * (this.ecrits - this.vides) <= capacite) {
+					try {
+						this.verrouAnneau.wait(PERIODE_VIDAGE);
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				debut = this.vides;
+				fin = this.ecrits;
+				termine = this.ferme && debut == fin;
+			}
+
+			try {
+				long position = debut;
+				while (position < fin) {
+					final int indice = (int) (position % capacite);
+					final int morceau = (int) Math.min(fin - position, capacite - indice);
+					this.anneauLecture.limit(indice + morceau);
+					this.anneauLecture.position(indice);
+					while (this.anneauLecture.hasRemaining()) {
+						this.canal.write(this.anneauLecture);
+					}
+					position += morceau;
+				}
+			} catch (final IOException e) {
+				log.log(Level.SEVERE, "Ecriture du journal impossible", e);
+				termine = true;
+				synchronized (this.verrouAnneau) {
+					this.erreur = e;
+				}
+			}
+
+			synchronized (this.verrouAnneau) {
+				this.vides = fin;
+				this.verrouAnneau.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Code un entier signe en zigzag : les petites valeurs absolues donnent
+	 * de petits entiers positifs.
+	 *
+	 * @param valeur l'entier signe.
+	 * @return l'entier code.
+	 */
+	static int zigzag(int valeur) {
+		return (valeur << 1) ^ (valeur >> (Integer.SIZE - 1));
+	}
+
+	/**
+	 * Decode un entier code en zigzag.
+	 *
+	 * @param valeur l'entier code.
+	 * @return l'entier signe.
+	 */
+	static int dezigzag(int valeur) {
+		return (valeur >>> 1) ^ -(valeur & 1);
+	}
+
+	/**
+	 * Ecrit un entier non signe en varint : 7 bits par octet, le bit de poids
+	 * fort indiquant qu'un octet suit.
+	 *
+	 * @param tampon le tampon de destination.
+	 * @param valeur l'entier, considere comme non signe.
+	 */
+	static void ecrireVarint(ByteBuffer tampon, int valeur) {
+		int reste = valeur;
+		while ((reste & ~0x7F) != 0) {
+			tampon.put((byte) ((reste & 0x7F) | 0x80));
+			reste >>>= 7;
+		}
+		tampon.put((byte) reste);
+	}
+
+	/**
+	 * Ecrit un entier long non signe en varint.
+	 *
+	 * @param tampon le tampon de destination.
+	 * @param valeur l'entier, considere comme non signe.
+	 */
+	static void ecrireVarlong(ByteBuffer tampon, long valeur) {
+		long reste = valeur;
+		while ((reste & ~0x7FL) != 0) {
+			tampon.put((byte) ((reste & 0x7F) | 0x80));
+			reste >>>= 7;
+		}
+		tampon.put((byte) reste);
+	}
+}
@@ -0,0 +1,419 @@
+package tinymonkeys.modele;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relecture d'un journal d'evenements ecrit par JournalEvenements.
+ *
+ * Le fichier est projete en memoire. Chaque enregistrement relu est transmis
+ * aux ecouteurs indiques, comme s'il etait emis par le modele : une vue
+ * (Fenetre) peut ainsi rejouer une partie sans modele. Les lots de singes sont
+ * transmis en une seule notification, comme a l'enregistrement.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class LecteurJournal {
+
+	/**
+	 * Nombre de nanosecondes dans une microseconde.
+	 */
+	private static final long NANOS_PAR_MICRO = 1000L;
+
+	/**
+	 * Le contenu du journal, apres l'en-tete.
+	 */
+	private final ByteBuffer contenu;
+
+	/**
+	 * Date du dernier enregistrement lu, en microsecondes depuis le debut du
+	 * journal.
+	 */
+	private long date;
+
+	/**
+	 * Lot de positions reutilise d'un enregistrement a l'autre.
+	 */
+	private final LotPositions lot = new LotPositions();
+
+	/**
+	 * Derniere abscisse connue de chaque singe.
+	 */
+	private int[] xsSinges = new int[0];
+
+	/**
+	 * Derniere ordonnee connue de chaque singe.
+	 */
+	private int[] ysSinges = new int[0];
+
+	/**
+	 * Derniere abscisse connue du pirate.
+	 */
+	private int xPirate;
+
+	/**
+	 * Derniere ordonnee connue du pirate.
+	 */
+	private int yPirate;
+
+	/**
+	 * Constructeur d'un lecteur du journal indique.
+	 *
+	 * @param fichier le fichier du journal.
+	 * @throws IOException si le fichier ne peut pas etre lu ou n'est pas un
+	 *             journal valide.
+	 */
+	public LecteurJournal(Path fichier) throws IOException {
+		try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+			final long taille = canal.size();
+			if (taille < JournalEvenements.TAILLE_EN_TETE || taille > Integer.MAX_VALUE) {
+				throw new IOException("Taille de journal invalide : " + fichier);
+			}
+			final ByteBuffer journal = canal.map(FileChannel.MapMode.READ_ONLY, 0, taille);
+			if (journal.getInt() != JournalEvenements.SIGNATURE) {
+				throw new IOException("Signature de journal invalide : " + fichier);
+			}
+			final int version = journal.getInt();
+			if (version != JournalEvenements.VERSION) {
+				throw new IOException("Version de journal non supportee (" + version + ") : "
+						+ fichier);
+			}
+			this.contenu = journal.slice();
+		}
+	}
+
+	/**
+	 * Indique s'il reste des enregistrements a lire.
+	 *
+	 * @return true si un enregistrement suit.
+	 */
+	public boolean hasSuivant() {
+		return this.contenu.hasRemaining();
+	}
+
+	/**
+	 * Accesseur en lecture de la date du dernier enregistrement lu.
+	 *
+	 * @return la date en microsecondes depuis le debut du journal.
+	 */
+	public long getDate() {
+		return this.date;
+	}
+
+	/**
+	 * Lit l'enregistrement suivant et le transmet aux ecouteurs.
+	 *
+	 * @param ecIle l'ecouteur des evenements de l'ile.
+	 * @param ecBande l'ecouteur des evenements de la bande de singes.
+	 * @param ecPirate l'ecouteur des evenements du pirate.
+	 * @throws IOException si l'enregistrement est invalide ou tronque.
+	 */
+	public void suivant(IleEcouteur ecIle, BandeDeSingesErratiquesEcouteur ecBande,
+			PirateEcouteur ecPirate) throws IOException {
+		try {
+			final byte type = this.contenu.get();
+			this.date += this.lireVarlong();
+			switch (type) {
+				case JournalEvenements.CREATION_CARTE:
+					ecIle.creationCarte(this.lireCarte());
+					break;
+				case JournalEvenements.CHANGEMENT_CARTE:
+					ecIle.changementCarte(this.lireCarte());
+					break;
+				case JournalEvenements.CREATIONS_SINGES:
+					ecBande.creationsSingesErratiques(this.lireCreations());
+					break;
+				case JournalEvenements.DEPLACEMENTS_SINGES:
+					ecBande.deplacementsSingesErratiques(this.lireDeplacements());
+					break;
+				case JournalEvenements.AJOUT_PIRATE:
+					this.lireAjoutPirate(ecPirate);
+					break;
+				case JournalEvenements.DEPLACEMENT_PIRATE:
+					final int id = this.lireVarint();
+					this.xPirate += this.lireSigne();
+					this.yPirate += this.lireSigne();
+					ecPirate.deplacementPirate(id, this.xPirate, this.yPirate);
+					break;
+				case JournalEvenements.MORT_PIRATE:
+					ecPirate.mortPirate(this.lireVarint());
+					break;
+				case JournalEvenements.CREATION_TRESOR:
+					final int x = this.lireSigne();
+					ecIle.creationTresor(x, this.lireSigne());
+					break;
+				case JournalEvenements.SUPPRESSION_TRESOR:
+					ecIle.suppressionTresor();
+					break;
+				case JournalEvenements.RESTAURATION_ETAT:
+					ecIle.restaurationEtat(this.lireEtat());
+					break;
+				default:
+					throw new IOException("Type d'enregistrement inconnu : " + type);
+			}
+		} catch (final BufferUnderflowException e) {
+			throw new IOException("Journal tronque", e);
+		}
+	}
+
+	/**
+	 * Rejoue tout le journal vers les ecouteurs, en respectant les delais
+	 * enregistres divises par le facteur de vitesse.
+	 *
+	 * @param ecIle l'ecouteur des evenements de l'ile.
+	 * @param ecBande l'ecouteur des evenements de la bande de singes.
+	 * @param ecPirate l'ecouteur des evenements du pirate.
+	 * @param vitesse le facteur de vitesse (1 pour le temps reel), ou
+	 *            Double.POSITIVE_INFINITY pour rejouer sans attente.
+	 * @throws IOException si le journal est invalide.
+	 * @throws InterruptedException si le thread est interrompu pendant une
+	 *             attente.
+	 * @throws IllegalArgumentException si la vitesse n'est pas strictement
+	 *             positive.
+	 */
+	public void rejouer(IleEcouteur ecIle, BandeDeSingesErratiquesEcouteur ecBande,
+			PirateEcouteur ecPirate, double vitesse) throws IOException, InterruptedException {
+		if (!(vitesse > 0)) {
+			throw new IllegalArgumentException("Vitesse de rejeu invalide : " + vitesse);
+		}
+		final long debut = System.nanoTime();
+		final long dateDebut = this.date;
+		while (this.hasSuivant()) {
+			// Les echeances sont calculees depuis le debut, sans derive.
+			final long dateEnregistrement = this.date + this.consulterDelai();
+			final long echeance = debut
+					+ (long) ((dateEnregistrement - dateDebut) * NANOS_PAR_MICRO / vitesse);
+			final long attente = echeance - System.nanoTime();
+			if (attente > 0) {
+				TimeUnit.NANOSECONDS.sleep(attente);
+			}
+			this.suivant(ecIle, ecBande, ecPirate);
+		}
+	}
+
+	/**
+	 * Lit, sans avancer, le delai de l'enregistrement suivant.
+	 *
+	 * @return le delai en microsecondes.
+	 * @throws IOException si l'enregistrement est tronque.
+	 */
+	private long consulterDelai() throws IOException {
+		final int position = this.contenu.position();
+		try {
+			this.contenu.get();
+			return this.lireVarlong();
+		} catch (final BufferUnderflowException e) {
+			throw new IOException("Journal tronque", e);
+		} finally {
+			this.contenu.position(position);
+		}
+	}
+
+	/**
+	 * Lit une carte codee par plages.
+	 *
+	 * @return la carte.
+	 * @throws IOException si les plages ne couvrent pas exactement la carte.
+	 */
+	private Carte lireCarte() throws IOException {
+		final int largeur = this.lireVarint();
+		final int hauteur = this.lireVarint();
+		final long nbCases = (long) largeur * hauteur;
+		if (largeur <= 0 || hauteur <= 0 || nbCases > Integer.MAX_VALUE) {
+			throw new IOException("Dimensions de carte invalides : " + largeur + "x" + hauteur);
+		}
+		final byte[] cases = new byte[(int) nbCases];
+		int indice = 0;
+		while (indice < cases.length) {
+			final byte terrain = this.contenu.get();
+			final int longueur = this.lireVarint();
+			if (longueur <= 0 || longueur > cases.length - indice) {
+				throw new IOException("Plage de carte invalide : " + longueur);
+			}
+			Arrays.fill(cases, indice, indice + longueur, terrain);
+			indice += longueur;
+		}
+		this.xsSinges = new int[0];
+		this.ysSinges = new int[0];
+		return new Carte(largeur, hauteur, cases);
+	}
+
+	/**
+	 * Lit un etat complet de l'ile ; les positions connues des singes et du
+	 * pirate deviennent celles de l'etat.
+	 *
+	 * @return l'etat.
+	 * @throws IOException si la carte est invalide ou si un singe est hors de
+	 *             la carte.
+	 */
+	private EtatIle lireEtat() throws IOException {
+		final Carte carte = this.lireCarte();
+		final int largeur = carte.getLargeur();
+		final int nbSinges = this.lireVarint();
+		if (nbSinges < 0 || nbSinges > this.contenu.remaining()) {
+			throw new IOException("Nombre de singes invalide : " + nbSinges);
+		}
+		final int[] singes = new int[nbSinges];
+		this.xsSinges = new int[nbSinges];
+		this.ysSinges = new int[nbSinges];
+		int x = 0;
+		int y = 0;
+		for (int id = 0; id < nbSinges; ++id) {
+			x += this.lireSigne();
+			y += this.lireSigne();
+			if (x < 0 || x >= largeur || y < 0 || y >= carte.getHauteur()) {
+				throw new IOException("Singe hors de la carte : " + x + ", " + y);
+			}
+			this.xsSinges[id] = x;
+			this.ysSinges[id] = y;
+			singes[id] = y * largeur + x;
+		}
+
+		this.xPirate = this.lireSigne();
+		this.yPirate = this.lireSigne();
+		final boolean pirateVivant = this.contenu.get() != 0;
+		final int longueur = this.lireVarint();
+		String avatar = null;
+		if (longueur > 0) {
+			final byte[] octets = new byte[longueur - 1];
+			this.contenu.get(octets);
+			avatar = new String(octets, StandardCharsets.UTF_8);
+		}
+
+		final boolean tresor = this.contenu.get() != 0;
+		int xTresor = -1;
+		int yTresor = -1;
+		if (tresor) {
+			xTresor = this.lireSigne();
+			yTresor = this.lireSigne();
+		}
+		return new EtatIle(carte, singes, this.xPirate, this.yPirate, pirateVivant, avatar,
+				tresor, xTresor, yTresor);
+	}
+
+	/**
+	 * Lit un lot de creations de singes.
+	 *
+	 * @return le lot.
+	 */
+	private LotPositions lireCreations() {
+		final int taille = this.lireVarint();
+		this.lot.vider();
+		int id = -1;
+		int x = 0;
+		int y = 0;
+		for (int i = 0; i < taille; ++i) {
+			id += this.lireSigne() + 1;
+			x += this.lireSigne();
+			y += this.lireSigne();
+			this.connaitreSinge(id);
+			this.xsSinges[id] = x;
+			this.ysSinges[id] = y;
+			this.lot.ajouter(id, x, y);
+		}
+		return this.lot;
+	}
+
+	/**
+	 * Lit un lot de deplacements de singes.
+	 *
+	 * @return le lot.
+	 */
+	private LotPositions lireDeplacements() {
+		final int taille = this.lireVarint();
+		this.lot.vider();
+		int id = -1;
+		for (int i = 0; i < taille; ++i) {
+			id += this.lireSigne() + 1;
+			this.connaitreSinge(id);
+			this.xsSinges[id] += this.lireSigne();
+			this.ysSinges[id] += this.lireSigne();
+			this.lot.ajouter(id, this.xsSinges[id], this.ysSinges[id]);
+		}
+		return this.lot;
+	}
+
+	/**
+	 * Lit l'ajout du pirate et le transmet a l'ecouteur.
+	 *
+	 * @param ecPirate l'ecouteur des evenements du pirate.
+	 */
+	private void lireAjoutPirate(PirateEcouteur ecPirate) {
+		final int id = this.lireVarint();
+		this.xPirate = this.lireSigne();
+		this.yPirate = this.lireSigne();
+		final int longueur = this.lireVarint();
+		String avatar = null;
+		if (longueur > 0) {
+			final byte[] octets = new byte[longueur - 1];
+			this.contenu.get(octets);
+			avatar = new String(octets, StandardCharsets.UTF_8);
+		}
+		ecPirate.ajoutPirate(id, this.xPirate, this.yPirate, avatar);
+	}
+
+	/**
+	 * Agrandit si besoin les tables des positions connues des singes.
+	 *
+	 * @param id l'identifiant du singe.
+	 */
+	private void connaitreSinge(int id) {
+		if (id >= this.xsSinges.length) {
+			final int capacite = Math.max(id + 1, this.xsSinges.length * 2);
+			this.xsSinges = Arrays.copyOf(this.xsSinges, capacite);
+			this.ysSinges = Arrays.copyOf(this.ysSinges, capacite);
+		}
+	}
+
+	/**
+	 * Lit un entier signe code en zigzag puis en varint.
+	 *
+	 * @return l'entier.
+	 */
+	private int lireSigne() {
+		return JournalEvenements.dezigzag(this.lireVarint());
+	}
+
+	/**
+	 * Lit un entier non signe code en varint.
+	 *
+	 * @return l'entier.
+	 */
+	private int lireVarint() {
+		int valeur = 0;
+		int decalage = 0;
+		byte octet;
+		do {
+			octet = this.contenu.get();
+			valeur |= (octet & 0x7F) << decalage;
+			decalage += 7;
+		} while (octet < 0);
+		return valeur;
+	}
+
+	/**
+	 * Lit un entier long non signe code en varint.
+	 *
+	 * @return l'entier.
+	 */
+	private long lireVarlong() {
+		long valeur = 0;
+		int decalage = 0;
+		byte octet;
+		do {
+			octet = this.contenu.get();
+			valeur |= (long) (octet & 0x7F) << decalage;
+			decalage += 7;
+		} while (octet < 0);
+		return valeur;
+	}
+}
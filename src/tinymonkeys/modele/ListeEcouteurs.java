@@ -0,0 +1,107 @@
+package tinymonkeys.modele;
+
+import java.lang.reflect.Array;
+import java.util.EventListener;
+
+/**
+ * Liste d'ecouteurs d'un type donne, copiee a l'ecriture.
+ *
+ * Le tableau des ecouteurs n'est reconstruit que lors d'un ajout ou d'un
+ * retrait ; la notification se resume donc a un simple parcours de tableau,
+ * sans allocation. Le tableau retourne par getEcouteurs est partage et ne
+ * doit pas etre modifie.
+ *
+ * @param <T> le type des ecouteurs.
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class ListeEcouteurs<T extends EventListener> {
+
+	/**
+	 * Le type des ecouteurs.
+	 */
+	private final Class<T> type;
+
+	/**
+	 * Les ecouteurs enregistres.
+	 */
+	private volatile T[] ecouteurs;
+
+	/**
+	 * Constructeur d'une liste d'ecouteurs vide.
+	 *
+	 * @param type le type des ecouteurs.
+	 */
+	public ListeEcouteurs(Class<T> type) {
+		this.type = type;
+		this.ecouteurs = this.nouveauTableau(0);
+	}
+
+	/**
+	 * Enregistre un ecouteur. Un ecouteur null est ignore.
+	 *
+	 * @param ecouteur l'ecouteur a enregistrer.
+	 */
+	public synchronized void ajouter(T ecouteur) {
+		if (ecouteur != null) {
+			final T[] anciens = this.ecouteurs;
+			final T[] nouveaux = this.nouveauTableau(anciens.length + 1);
+			System.arraycopy(anciens, 0, nouveaux, 0, anciens.length);
+			nouveaux[anciens.length] = ecouteur;
+			this.ecouteurs = nouveaux;
+		}
+	}
+
+	/**
+	 * Retire un ecouteur precedemment enregistre. Si l'ecouteur a ete
+	 * enregistre plusieurs fois, seul son dernier enregistrement est retire.
+	 *
+	 * @param ecouteur l'ecouteur a retirer.
+	 * @return true si l'ecouteur etait enregistre.
+	 */
+	public synchronized boolean retirer(T ecouteur) {
+		final T[] anciens = this.ecouteurs;
+		int indice = anciens.length - 1;
+		while (indice >= 0 && anciens[indice] != ecouteur) {
+			--indice;
+		}
+
+		if (indice >= 0) {
+			final T[] nouveaux = this.nouveauTableau(anciens.length - 1);
+			System.arraycopy(anciens, 0, nouveaux, 0, indice);
+			System.arraycopy(anciens, indice + 1, nouveaux, indice, anciens.length - indice - 1);
+			this.ecouteurs = nouveaux;
+		}
+		return indice >= 0;
+	}
+
+	/**
+	 * Accesseur en lecture des ecouteurs enregistres.
+	 *
+	 * @return le tableau partage des ecouteurs, a ne pas modifier.
+	 */
+	public T[] getEcouteurs() {
+		return this.ecouteurs;
+	}
+
+	/**
+	 * Indique si aucun ecouteur n'est enregistre.
+	 *
+	 * @return true si la liste est vide.
+	 */
+	public boolean isVide() {
+		return this.ecouteurs.length == 0;
+	}
+
+	/**
+	 * Cree un tableau d'ecouteurs de la taille indiquee.
+	 *
+	 * @param taille la taille du tableau.
+	 * @return le tableau cree.
+	 */
+	@SuppressWarnings("unchecked")
+	private T[] nouveauTableau(int taille) {
+		return (T[]) Array.newInstance(this.type, taille);
+	}
+}
@@ -0,0 +1,118 @@
+package tinymonkeys.modele;
+
+import java.util.Arrays;
+
+/**
+ * Lot de positions d'elements identifies, transmis en une seule fois aux
+ * ecouteurs (par exemple l'ensemble des deplacements d'un tick).
+ *
+ * Les identifiants et les coordonnees sont stockes dans des tableaux de
+ * types primitifs reutilises d'un lot a l'autre : un ecouteur ne doit donc
+ * pas conserver de reference vers le lot au-dela de la notification, mais
+ * en recopier le contenu si necessaire.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class LotPositions {
+
+	/**
+	 * Capacite initiale d'un lot.
+	 */
+	private static final int CAPACITE_INITIALE = 64;
+
+	/**
+	 * Masque des 32 bits de poids faible.
+	 */
+	private static final long MASQUE_ORDONNEE = 0xFFFFFFFFL;
+
+	/**
+	 * Identifiants des elements.
+	 */
+	private int[] ids;
+
+	/**
+	 * Coordonnees des elements : abscisse sur les 32 bits de poids fort,
+	 * ordonnee sur les 32 bits de poids faible.
+	 */
+	private long[] positions;
+
+	/**
+	 * Nombre d'elements du lot.
+	 */
+	private int taille;
+
+	/**
+	 * Constructeur d'un lot vide.
+	 */
+	public LotPositions() {
+		this.ids = new int[CAPACITE_INITIALE];
+		this.positions = new long[CAPACITE_INITIALE];
+		this.taille = 0;
+	}
+
+	/**
+	 * Vide le lot en conservant sa capacite.
+	 */
+	public void vider() {
+		this.taille = 0;
+	}
+
+	/**
+	 * Ajoute la position d'un element au lot.
+	 *
+	 * @param id l'identifiant de l'element.
+	 * @param x la coordonnee en abscisse de l'element.
+	 * @param y la coordonnee en ordonnee de l'element.
+	 */
+	public void ajouter(int id, int x, int y) {
+		if (this.taille == this.ids.length) {
+			final int capacite = this.ids.length * 2;
+			this.ids = Arrays.copyOf(this.ids, capacite);
+			this.positions = Arrays.copyOf(this.positions, capacite);
+		}
+		this.ids[this.taille] = id;
+		this.positions[this.taille] = ((long) x << Integer.SIZE) | (y & MASQUE_ORDONNEE);
+		++this.taille;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre d'elements du lot.
+	 *
+	 * @return le nombre d'elements.
+	 */
+	public int getTaille() {
+		return this.taille;
+	}
+
+	/**
+	 * Accesseur en lecture de l'identifiant d'un element du lot.
+	 *
+	 * @param i l'indice de l'element dans le lot.
+	 * @return l'identifiant de l'element.
+	 */
+	public int getId(int i) {
+		return this.ids[i];
+	}
+
+	/**
+	 * Accesseur en lecture de l'abscisse d'un element du lot.
+	 *
+	 * @param i l'indice de l'element dans le lot.
+	 * @return la coordonnee en abscisse.
+	 */
+	public int getX(int i) {
+		return (int) (this.positions[i] >> Integer.SIZE);
+	}
+
+	/**
+	 * Accesseur en lecture de l'ordonnee d'un element du lot.
+	 *
+	 * @param i l'indice de l'element dans le lot.
+	 * @return la coordonnee en ordonnee.
+	 */
+	public int getY(int i) {
+		return (int) this.positions[i];
+	}
+}
@@ -0,0 +1,565 @@
+package tinymonkeys.modele;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metriques des chemins critiques de TinyMonkeys : histogrammes de durees et
+ * compteurs d'evenements, partages par tout le processus.
+ *
+ * Les histogrammes mesurent la duree des ticks, le cout du deplacement d'un
+ * singe (duree des deplacements d'un tick divisee par le nombre de singes,
+ * afin de ne pas chronometrer chaque singe), la diffusion aux ecouteurs des
+ * deplacements d'un tick d'une part et de l'etat de fin de tick d'autre
+ * part, les passages de dessin sur l'EDT (zones modifiees d'une part,
+ * dessin standard de Swing d'autre part) et la latence entre une touche
+ * et l'affichage du deplacement du pirate qui en resulte. Les compteurs
+ * comptent les deplacements de singes effectues et bloques, les morts du
+ * pirate et les tresors trouves.
+ *
+ * Toutes les mesures sont sans verrou. Les metriques sont consultables par
+ * JMX (enregistrerMBean) et peuvent etre journalisees periodiquement sous
+ * forme de texte (demarrerRapports).
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class Metriques implements MetriquesMBean {
+
+	/**
+	 * Nom JMX des metriques.
+	 */
+	public static final String NOM_JMX = "tinymonkeys:type=Metriques";
+
+	private static final Logger log = Logger.getGlobal();
+
+	/**
+	 * Nombre de nanosecondes dans une microseconde.
+	 */
+	private static final double NANOS_PAR_MICRO = 1000.0;
+
+	/**
+	 * Centile rapporte par JMX.
+	 */
+	private static final double CENTILE_JMX = 99;
+
+	/**
+	 * Les metriques du processus.
+	 */
+	private static final Metriques INSTANCE = new Metriques();
+
+	/**
+	 * Durees des ticks de simulation.
+	 */
+	private final Histogramme dureesTick;
+
+	/**
+	 * Cout du deplacement d'un singe, moyenne par tick.
+	 */
+	private final Histogramme coutsDeplacement;
+
+	/**
+	 * Durees de diffusion des deplacements d'un tick aux ecouteurs de la
+	 * bande de singes.
+	 */
+	private final Histogramme dureesDiffusionDeplacements;
+
+	/**
+	 * Durees de diffusion de l'etat de fin de tick aux ecouteurs de la
+	 * simulation.
+	 */
+	private final Histogramme dureesDiffusionEtat;
+
+	/**
+	 * Durees des passages de dessin des zones modifiees des composants suivis
+	 * par le gestionnaire de rafraichissement.
+	 */
+	private final Histogramme dureesPeintureZones;
+
+	/**
+	 * Durees des passages de dessin standard de Swing, pour les composants
+	 * non suivis.
+	 */
+	private final Histogramme dureesPeintureSwing;
+
+	/**
+	 * Latences entre une touche et l'affichage du deplacement du pirate.
+	 */
+	private final Histogramme latencesEntree;
+
+	/**
+	 * Nombre de deplacements de singes effectues.
+	 */
+	private final LongAdder deplacements;
+
+	/**
+	 * Nombre de deplacements de singes bloques (aucune case libre, ou case
+	 * prise par un autre singe).
+	 */
+	private final LongAdder deplacementsBloques;
+
+	/**
+	 * Nombre de morts du pirate.
+	 */
+	private final LongAdder morts;
+
+	/**
+	 * Nombre de tresors trouves.
+	 */
+	private final LongAdder tresors;
+
+	/**
+	 * Date de la plus ancienne touche pas encore traitee par la simulation,
+	 * ou 0.
+	 */
+	private final AtomicLong dateEntree;
+
+	/**
+	 * Date de la plus ancienne touche appliquee au modele mais pas encore
+	 * transmise a la vue, ou 0.
+	 */
+	private final AtomicLong dateEntreeAppliquee;
+
+	/**
+	 * Date de la touche transmise a la vue, en attente du prochain dessin, ou
+	 * 0. Lue et ecrite sur l'EDT.
+	 */
+	private long dateEntreeAffichee;
+
+	/**
+	 * Executeur des rapports periodiques, ou null.
+	 */
+	private ScheduledExecutorService rapports;
+
+	/**
+	 * Constructeur de metriques vides.
+	 */
+	Metriques() {
+		this.dureesTick = new Histogramme();
+		this.coutsDeplacement = new Histogramme();
+		this.dureesDiffusionDeplacements = new Histogramme();
+		this.dureesDiffusionEtat = new Histogramme();
+		this.dureesPeintureZones = new Histogramme();
+		this.dureesPeintureSwing = new Histogramme();
+		this.latencesEntree = new Histogramme();
+		this.deplacements = new LongAdder();
+		this.deplacementsBloques = new LongAdder();
+		this.morts = new LongAdder();
+		this.tresors = new LongAdder();
+		this.dateEntree = new AtomicLong();
+		this.dateEntreeAppliquee = new AtomicLong();
+	}
+
+	/**
+	 * Accesseur des metriques du processus.
+	 *
+	 * @return les metriques partagees.
+	 */
+	public static Metriques getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Enregistre la duree d'un tick.
+	 *
+	 * @param nanos la duree du tick, en nanosecondes.
+	 */
+	public void enregistrerTick(long nanos) {
+		this.dureesTick.enregistrer(nanos);
+	}
+
+	/**
+	 * Enregistre les deplacements des singes d'un tick.
+	 *
+	 * @param nanos la duree des deplacements, en nanosecondes.
+	 * @param nbSinges le nombre de singes de la bande.
+	 * @param nbDeplaces le nombre de singes ayant change de case.
+	 */
+	public void enregistrerDeplacements(long nanos, int nbSinges, int nbDeplaces) {
+		if (nbSinges > 0) {
+			this.coutsDeplacement.enregistrer(nanos / nbSinges);
+		}
+		this.deplacements.add(nbDeplaces);
+		this.deplacementsBloques.add(nbSinges - nbDeplaces);
+	}
+
+	/**
+	 * Enregistre la duree de diffusion des deplacements d'un tick aux
+	 * ecouteurs de la bande de singes.
+	 *
+	 * @param nanos la duree de la diffusion, en nanosecondes.
+	 */
+	public void enregistrerDiffusionDeplacements(long nanos) {
+		this.dureesDiffusionDeplacements.enregistrer(nanos);
+	}
+
+	/**
+	 * Enregistre la duree de diffusion de l'etat de fin de tick aux
+	 * ecouteurs de la simulation.
+	 *
+	 * @param nanos la duree de la diffusion, en nanosecondes.
+	 */
+	public void enregistrerDiffusionEtat(long nanos) {
+		this.dureesDiffusionEtat.enregistrer(nanos);
+	}
+
+	/**
+	 * Enregistre un passage de dessin des zones modifiees des composants
+	 * suivis. Doit etre appelee sur l'EDT.
+	 *
+	 * @param debut la date de debut du dessin, en nanosecondes.
+	 * @param fin la date de fin du dessin, en nanosecondes.
+	 */
+	public void enregistrerPeintureZones(long debut, long fin) {
+		this.dureesPeintureZones.enregistrer(fin - debut);
+		this.finPeinture(fin);
+	}
+
+	/**
+	 * Enregistre un passage de dessin standard de Swing. Doit etre appelee
+	 * sur l'EDT.
+	 *
+	 * @param debut la date de debut du dessin, en nanosecondes.
+	 * @param fin la date de fin du dessin, en nanosecondes.
+	 */
+	public void enregistrerPeintureSwing(long debut, long fin) {
+		this.dureesPeintureSwing.enregistrer(fin - debut);
+		this.finPeinture(fin);
+	}
+
+	/**
+	 * Enregistre, si le deplacement d'une touche vient d'etre dessine, la
+	 * latence de cette touche.
+	 *
+	 * @param fin la date de fin du dessin, en nanosecondes.
+	 */
+	private void finPeinture(long fin) {
+		if (this.dateEntreeAffichee != 0) {
+			this.latencesEntree.enregistrer(fin - this.dateEntreeAffichee);
+			this.dateEntreeAffichee = 0;
+		}
+	}
+
+	/**
+	 * Note l'appui d'une touche. Seule la plus ancienne touche non traitee
+	 * est mesuree. Peut etre appelee depuis n'importe quel thread.
+	 */
+	public void noterEntree() {
+		this.dateEntree.compareAndSet(0L, System.nanoTime());
+	}
+
+	/**
+	 * Retire la date de la touche en attente, avant l'application des
+	 * entrees par la simulation.
+	 *
+	 * @return la date de la touche, ou 0 si aucune touche n'est en attente.
+	 */
+	public long prendreEntree() {
+		return this.dateEntree.getAndSet(0L);
+	}
+
+	/**
+	 * Note qu'une touche a deplace le pirate dans le modele.
+	 *
+	 * @param date la date de la touche, obtenue par prendreEntree.
+	 */
+	public void noterEntreeAppliquee(long date) {
+		if (date != 0) {
+			this.dateEntreeAppliquee.compareAndSet(0L, date);
+		}
+	}
+
+	/**
+	 * Note que le deplacement du pirate a ete transmis a la vue ; la latence
+	 * sera mesuree a la fin du dessin suivant. Doit etre appelee sur l'EDT.
+	 */
+	public void noterEntreeAffichee() {
+		final long date = this.dateEntreeAppliquee.getAndSet(0L);
+		if (date != 0 && this.dateEntreeAffichee == 0) {
+			this.dateEntreeAffichee = date;
+		}
+	}
+
+	/**
+	 * Compte une mort du pirate.
+	 */
+	public void compterMort() {
+		this.morts.increment();
+	}
+
+	/**
+	 * Compte un tresor trouve.
+	 */
+	public void compterTresor() {
+		this.tresors.increment();
+	}
+
+	/**
+	 * Accesseur de l'histogramme des durees de tick.
+	 *
+	 * @return l'histogramme, en nanosecondes.
+	 */
+	public Histogramme getDureesTick() {
+		return this.dureesTick;
+	}
+
+	/**
+	 * Accesseur de l'histogramme du cout du deplacement d'un singe.
+	 *
+	 * @return l'histogramme, en nanosecondes.
+	 */
+	public Histogramme getCoutsDeplacement() {
+		return this.coutsDeplacement;
+	}
+
+	/**
+	 * Accesseur de l'histogramme des durees de diffusion des deplacements.
+	 *
+	 * @return l'histogramme, en nanosecondes.
+	 */
+	public Histogramme getDureesDiffusionDeplacements() {
+		return this.dureesDiffusionDeplacements;
+	}
+
+	/**
+	 * Accesseur de l'histogramme des durees de diffusion de l'etat de fin de
+	 * tick.
+	 *
+	 * @return l'histogramme, en nanosecondes.
+	 */
+	public Histogramme getDureesDiffusionEtat() {
+		return this.dureesDiffusionEtat;
+	}
+
+	/**
+	 * Accesseur de l'histogramme des durees de dessin des zones modifiees.
+	 *
+	 * @return l'histogramme, en nanosecondes.
+	 */
+	public Histogramme getDureesPeintureZones() {
+		return this.dureesPeintureZones;
+	}
+
+	/**
+	 * Accesseur de l'histogramme des durees de dessin standard de Swing.
+	 *
+	 * @return l'histogramme, en nanosecondes.
+	 */
+	public Histogramme getDureesPeintureSwing() {
+		return this.dureesPeintureSwing;
+	}
+
+	/**
+	 * Accesseur de l'histogramme des latences des touches.
+	 *
+	 * @return l'histogramme, en nanosecondes.
+	 */
+	public Histogramme getLatencesEntree() {
+		return this.latencesEntree;
+	}
+
+	@Override
+	public long getNbTicks() {
+		return this.dureesTick.getNombre();
+	}
+
+	@Override
+	public double getDureeTickMoyenne() {
+		return this.dureesTick.getMoyenne() / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureeTick99() {
+		return this.dureesTick.getCentile(CENTILE_JMX) / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureeTickMax() {
+		return this.dureesTick.getMax() / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getCoutDeplacementMoyen() {
+		return this.coutsDeplacement.getMoyenne() / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getCoutDeplacement99() {
+		return this.coutsDeplacement.getCentile(CENTILE_JMX) / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureeDiffusionDeplacementsMoyenne() {
+		return this.dureesDiffusionDeplacements.getMoyenne() / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureeDiffusionDeplacements99() {
+		return this.dureesDiffusionDeplacements.getCentile(CENTILE_JMX) / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureeDiffusionEtatMoyenne() {
+		return this.dureesDiffusionEtat.getMoyenne() / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureeDiffusionEtat99() {
+		return this.dureesDiffusionEtat.getCentile(CENTILE_JMX) / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureePeintureZonesMoyenne() {
+		return this.dureesPeintureZones.getMoyenne() / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureePeintureZones99() {
+		return this.dureesPeintureZones.getCentile(CENTILE_JMX) / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureePeintureSwingMoyenne() {
+		return this.dureesPeintureSwing.getMoyenne() / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getDureePeintureSwing99() {
+		return this.dureesPeintureSwing.getCentile(CENTILE_JMX) / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getLatenceEntreeMoyenne() {
+		return this.latencesEntree.getMoyenne() / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public double getLatenceEntree99() {
+		return this.latencesEntree.getCentile(CENTILE_JMX) / NANOS_PAR_MICRO;
+	}
+
+	@Override
+	public long getNbDeplacements() {
+		return this.deplacements.sum();
+	}
+
+	@Override
+	public long getNbDeplacementsBloques() {
+		return this.deplacementsBloques.sum();
+	}
+
+	@Override
+	public long getNbMorts() {
+		return this.morts.sum();
+	}
+
+	@Override
+	public long getNbTresors() {
+		return this.tresors.sum();
+	}
+
+	@Override
+	public String getRapport() {
+		final StringBuilder rapport = new StringBuilder("Metriques TinyMonkeys (us)");
+		Metriques.ligne(rapport, "tick", this.dureesTick);
+		Metriques.ligne(rapport, "deplacement/singe", this.coutsDeplacement);
+		Metriques.ligne(rapport, "diffusion deplacements", this.dureesDiffusionDeplacements);
+		Metriques.ligne(rapport, "diffusion etat", this.dureesDiffusionEtat);
+		Metriques.ligne(rapport, "peinture zones", this.dureesPeintureZones);
+		Metriques.ligne(rapport, "peinture Swing", this.dureesPeintureSwing);
+		Metriques.ligne(rapport, "latence touche", this.latencesEntree);
+		rapport.append(String.format(Locale.ROOT,
+				"%n  deplacements=%d bloques=%d morts=%d tresors=%d",
+				this.deplacements.sum(), this.deplacementsBloques.sum(), this.morts.sum(),
+				this.tresors.sum()));
+		return rapport.toString();
+	}
+
+	@Override
+	public void reinitialiser() {
+		this.dureesTick.reinitialiser();
+		this.coutsDeplacement.reinitialiser();
+		this.dureesDiffusionDeplacements.reinitialiser();
+		this.dureesDiffusionEtat.reinitialiser();
+		this.dureesPeintureZones.reinitialiser();
+		this.dureesPeintureSwing.reinitialiser();
+		this.latencesEntree.reinitialiser();
+		this.deplacements.reset();
+		this.deplacementsBloques.reset();
+		this.morts.reset();
+		this.tresors.reset();
+	}
+
+	/**
+	 * Enregistre les metriques aupres du serveur JMX de la plateforme, sous
+	 * le nom NOM_JMX. Sans effet si elles le sont deja.
+	 */
+	public void enregistrerMBean() {
+		try {
+			final MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName nom = new ObjectName(NOM_JMX);
+			if (!serveur.isRegistered(nom)) {
+				serveur.registerMBean(this, nom);
+			}
+		} catch (final JMException e) {
+			log.log(Level.WARNING, "Metriques non exposees par JMX", e);
+		}
+	}
+
+	/**
+	 * Journalise periodiquement le rapport des metriques, sur un thread
+	 * demon. Remplace les rapports precedemment demarres.
+	 *
+	 * @param periode la periode entre deux rapports.
+	 * @param unite l'unite de la periode.
+	 */
+	public synchronized void demarrerRapports(long periode, TimeUnit unite) {
+		this.arreterRapports();
+		this.rapports = Executors.newSingleThreadScheduledExecutor(corps -> {
+			final Thread thread = new Thread(corps, "tinymonkeys-metriques");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.rapports.scheduleAtFixedRate(() -> log.info(this.getRapport()), periode, periode,
+				unite);
+	}
+
+	/**
+	 * Arrete les rapports periodiques.
+	 */
+	public synchronized void arreterRapports() {
+		if (this.rapports != null) {
+			this.rapports.shutdown();
+			this.rapports = null;
+		}
+	}
+
+	/**
+	 * Ajoute au rapport la ligne d'un histogramme.
+	 *
+	 * @param rapport le rapport en cours.
+	 * @param nom le nom de la mesure.
+	 * @param histogramme l'histogramme de la mesure, en nanosecondes.
+	 */
+	private static void ligne(StringBuilder rapport, String nom, Histogramme histogramme) {
+		rapport.append(String.format(Locale.ROOT,
+				"%n  %-18s n=%d moy=%.3f p50=%.3f p99=%.3f p99.9=%.3f max=%.3f", nom,
+				histogramme.getNombre(), histogramme.getMoyenne() / NANOS_PAR_MICRO,
+				histogramme.getCentile(50) / NANOS_PAR_MICRO,
+				histogramme.getCentile(99) / NANOS_PAR_MICRO,
+				histogramme.getCentile(99.9) / NANOS_PAR_MICRO,
+				histogramme.getMax() / NANOS_PAR_MICRO));
+	}
+}
@@ -0,0 +1,130 @@
+package tinymonkeys.modele;
+
+/**
+ * Interface d'administration JMX des metriques de TinyMonkeys.
+ *
+ * Les durees sont exprimees en microsecondes.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public interface MetriquesMBean {
+
+	/**
+	 * @return le nombre de ticks mesures.
+	 */
+	long getNbTicks();
+
+	/**
+	 * @return la duree moyenne d'un tick.
+	 */
+	double getDureeTickMoyenne();
+
+	/**
+	 * @return le 99e centile de la duree d'un tick.
+	 */
+	double getDureeTick99();
+
+	/**
+	 * @return la plus longue duree d'un tick.
+	 */
+	double getDureeTickMax();
+
+	/**
+	 * @return le cout moyen du deplacement d'un singe.
+	 */
+	double getCoutDeplacementMoyen();
+
+	/**
+	 * @return le 99e centile du cout du deplacement d'un singe.
+	 */
+	double getCoutDeplacement99();
+
+	/**
+	 * @return la duree moyenne de la diffusion des deplacements d'un tick
+	 *         aux ecouteurs de la bande de singes.
+	 */
+	double getDureeDiffusionDeplacementsMoyenne();
+
+	/**
+	 * @return le 99e centile de la duree de diffusion des deplacements d'un
+	 *         tick.
+	 */
+	double getDureeDiffusionDeplacements99();
+
+	/**
+	 * @return la duree moyenne de la diffusion de l'etat de fin de tick aux
+	 *         ecouteurs de la simulation.
+	 */
+	double getDureeDiffusionEtatMoyenne();
+
+	/**
+	 * @return le 99e centile de la duree de diffusion de l'etat de fin de
+	 *         tick.
+	 */
+	double getDureeDiffusionEtat99();
+
+	/**
+	 * @return la duree moyenne d'un passage de dessin des zones modifiees.
+	 */
+	double getDureePeintureZonesMoyenne();
+
+	/**
+	 * @return le 99e centile de la duree d'un passage de dessin des zones
+	 *         modifiees.
+	 */
+	double getDureePeintureZones99();
+
+	/**
+	 * @return la duree moyenne d'un passage de dessin standard de Swing.
+	 */
+	double getDureePeintureSwingMoyenne();
+
+	/**
+	 * @return le 99e centile de la duree d'un passage de dessin standard de
+	 *         Swing.
+	 */
+	double getDureePeintureSwing99();
+
+	/**
+	 * @return la latence moyenne entre une touche et son affichage.
+	 */
+	double getLatenceEntreeMoyenne();
+
+	/**
+	 * @return le 99e centile de la latence entre une touche et son
+	 *         affichage.
+	 */
+	double getLatenceEntree99();
+
+	/**
+	 * @return le nombre de deplacements de singes effectues.
+	 */
+	long getNbDeplacements();
+
+	/**
+	 * @return le nombre de deplacements de singes bloques.
+	 */
+	long getNbDeplacementsBloques();
+
+	/**
+	 * @return le nombre de morts du pirate.
+	 */
+	long getNbMorts();
+
+	/**
+	 * @return le nombre de tresors trouves.
+	 */
+	long getNbTresors();
+
+	/**
+	 * @return le rapport textuel de l'ensemble des metriques.
+	 */
+	String getRapport();
+
+	/**
+	 * Remet toutes les metriques a zero.
+	 */
+	void reinitialiser();
+}
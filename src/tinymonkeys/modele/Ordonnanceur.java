@@ -0,0 +1,334 @@
+package tinymonkeys.modele;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ordonnanceur de la simulation : execute une tache a frequence fixe.
+ *
+ * Les echeances sont calculees a partir de la date de demarrage et non de la
+ * fin du tick precedent, de sorte que la duree des ticks ne fait pas deriver
+ * la cadence. Lorsqu'un tick deborde sur les suivants, la politique de
+ * retard indique s'il faut rattraper les ticks manques ou les sauter.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class Ordonnanceur {
+
+	/**
+	 * Politique appliquee lorsque des ticks sont en retard sur leur echeance.
+	 */
+	public enum PolitiqueRetard {
+		/**
+		 * Les ticks en retard sont executes a la suite jusqu'a revenir a
+		 * l'heure.
+		 */
+		RATTRAPAGE,
+
+		/**
+		 * Les echeances depassees sont abandonnees et le tick suivant est
+		 * cale sur la prochaine echeance a venir.
+		 */
+		SAUT
+	}
+
+	/**
+	 * Etats de l'ordonnanceur.
+	 */
+	private enum Etat {
+		/**
+		 * Ordonnanceur cree mais pas encore demarre.
+		 */
+		INITIAL,
+
+		/**
+		 * Les ticks sont executes.
+		 */
+		EN_COURS,
+
+		/**
+		 * Les ticks sont suspendus.
+		 */
+		EN_PAUSE,
+
+		/**
+		 * L'ordonnanceur est definitivement arrete.
+		 */
+		ARRETE
+	}
+
+	/**
+	 * Nom du thread de simulation.
+	 */
+	private static final String NOM_THREAD = "TinyMonkeys-simulation";
+
+	private static final Logger log = Logger.getGlobal();
+
+	/**
+	 * La tache executee a chaque tick.
+	 */
+	private final Runnable tache;
+
+	/**
+	 * L'executeur portant le thread de simulation.
+	 */
+	private ScheduledExecutorService executeur;
+
+	/**
+	 * Le prochain tick planifie.
+	 */
+	private ScheduledFuture<?> prochainTick;
+
+	/**
+	 * Periode entre deux ticks, en nanosecondes.
+	 */
+	private long periodeNanos;
+
+	/**
+	 * Politique appliquee aux ticks en retard.
+	 */
+	private PolitiqueRetard politique;
+
+	/**
+	 * Etat courant de l'ordonnanceur.
+	 */
+	private Etat etat;
+
+	/**
+	 * Date (System.nanoTime) de l'echeance du prochain tick.
+	 */
+	private long echeance;
+
+	/**
+	 * Generation de planification, incrementee a chaque pause ou reprise afin
+	 * d'ignorer les ticks planifies auparavant.
+	 */
+	private long generation;
+
+	/**
+	 * Nombre de ticks executes.
+	 */
+	private long nbTicks;
+
+	/**
+	 * Nombre de ticks sautes en application de la politique SAUT.
+	 */
+	private long nbTicksSautes;
+
+	/**
+	 * Constructeur de l'ordonnanceur.
+	 *
+	 * @param tache la tache a executer a chaque tick.
+	 * @param periode la periode entre deux ticks.
+	 * @param unite l'unite de la periode.
+	 */
+	public Ordonnanceur(Runnable tache, long periode, TimeUnit unite) {
+		this.tache = tache;
+		this.etat = Etat.INITIAL;
+		this.politique = PolitiqueRetard.RATTRAPAGE;
+		this.setPeriode(periode, unite);
+	}
+
+	/**
+	 * Modifie la periode entre deux ticks. La nouvelle periode s'applique a
+	 * partir du tick suivant.
+	 *
+	 * @param periode la periode entre deux ticks.
+	 * @param unite l'unite de la periode.
+	 */
+	public final synchronized void setPeriode(long periode, TimeUnit unite) {
+		if (periode <= 0) {
+			throw new IllegalArgumentException("Periode invalide : " + periode);
+		}
+		this.periodeNanos = unite.toNanos(periode);
+	}
+
+	/**
+	 * Modifie la frequence des ticks.
+	 *
+	 * @param ticksParSeconde le nombre de ticks par seconde.
+	 */
+	public synchronized void setFrequence(double ticksParSeconde) {
+		this.setPeriode(Math.round(TimeUnit.SECONDS.toNanos(1) / ticksParSeconde),
+				TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Modifie la politique appliquee aux ticks en retard.
+	 *
+	 * @param politique la nouvelle politique.
+	 */
+	public synchronized void setPolitique(PolitiqueRetard politique) {
+		this.politique = politique;
+	}
+
+	/**
+	 * Demarre l'execution des ticks sur un thread dedie.
+	 */
+	public synchronized void demarrer() {
+		if (this.etat != Etat.INITIAL) {
+			throw new IllegalStateException("Ordonnanceur deja demarre");
+		}
+		this.executeur = Executors.newSingleThreadScheduledExecutor(
+				corps -> new Thread(corps, NOM_THREAD));
+		this.etat = Etat.EN_COURS;
+		this.echeance = System.nanoTime();
+		this.planifier(0L);
+	}
+
+	/**
+	 * Execute une tache sur le thread de simulation des que possible, entre
+	 * deux ticks, si les ticks sont en cours.
+	 *
+	 * @param tache la tache a executer.
+	 * @return true si la tache a ete planifiee, false si l'ordonnanceur n'est
+	 *         pas en cours.
+	 */
+	public synchronized boolean executerDesQuePossible(Runnable tache) {
+		final boolean planifiee = this.etat == Etat.EN_COURS;
+		if (planifiee) {
+			this.executeur.execute(() -> {
+				try {
+					tache.run();
+				} catch (RuntimeException e) {
+					log.log(Level.WARNING, "Erreur pendant une tache de simulation", e);
+				}
+			});
+		}
+		return planifiee;
+	}
+
+	/**
+	 * Suspend l'execution des ticks. Un tick en cours se termine normalement.
+	 */
+	public synchronized void pause() {
+		if (this.etat == Etat.EN_COURS) {
+			this.etat = Etat.EN_PAUSE;
+			++this.generation;
+			this.prochainTick.cancel(false);
+		}
+	}
+
+	/**
+	 * Reprend l'execution des ticks apres une pause. Les echeances sont
+	 * recalees sur l'instant de la reprise.
+	 */
+	public synchronized void reprise() {
+		if (this.etat == Etat.EN_PAUSE) {
+			this.etat = Etat.EN_COURS;
+			++this.generation;
+			this.echeance = System.nanoTime();
+			this.planifier(0L);
+		}
+	}
+
+	/**
+	 * Arrete definitivement l'ordonnanceur et libere son thread. Un tick en
+	 * cours se termine normalement.
+	 */
+	public synchronized void arreter() {
+		if (this.etat != Etat.ARRETE) {
+			if (this.executeur != null) {
+				this.prochainTick.cancel(false);
+				this.executeur.shutdown();
+			}
+			this.etat = Etat.ARRETE;
+			++this.generation;
+		}
+	}
+
+	/**
+	 * Attend la fin du thread de simulation apres un arret.
+	 *
+	 * @param delai le delai maximal d'attente.
+	 * @param unite l'unite du delai.
+	 * @return true si le thread est termine.
+	 * @throws InterruptedException si l'attente est interrompue.
+	 */
+	public boolean attendreArret(long delai, TimeUnit unite) throws InterruptedException {
+		final ScheduledExecutorService exec;
+		synchronized (this) {
+			exec = this.executeur;
+		}
+		return exec == null || exec.awaitTermination(delai, unite);
+	}
+
+	/**
+	 * Indique si les ticks sont en cours d'execution.
+	 *
+	 * @return true si l'ordonnanceur est demarre et n'est pas en pause.
+	 */
+	public synchronized boolean isEnCours() {
+		return this.etat == Etat.EN_COURS;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de ticks executes.
+	 *
+	 * @return le nombre de ticks executes.
+	 */
+	public synchronized long getNbTicks() {
+		return this.nbTicks;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de ticks sautes.
+	 *
+	 * @return le nombre de ticks sautes faute de temps.
+	 */
+	public synchronized long getNbTicksSautes() {
+		return this.nbTicksSautes;
+	}
+
+	/**
+	 * Planifie le prochain tick pour la generation courante.
+	 *
+	 * @param delaiNanos le delai avant le tick, en nanosecondes.
+	 */
+	private void planifier(long delaiNanos) {
+		final long gen = this.generation;
+		this.prochainTick = this.executeur.schedule(() -> this.executerTick(gen),
+				Math.max(0L, delaiNanos), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Execute un tick puis planifie le suivant selon la politique de retard.
+	 *
+	 * @param gen la generation de planification du tick.
+	 */
+	private void executerTick(long gen) {
+		synchronized (this) {
+			if (gen != this.generation) {
+				return;
+			}
+		}
+
+		try {
+			this.tache.run();
+		} catch (RuntimeException e) {
+			log.log(Level.WARNING, "Erreur pendant un tick de simulation", e);
+		}
+
+		synchronized (this) {
+			++this.nbTicks;
+			if (gen == this.generation) {
+				final long maintenant = System.nanoTime();
+				this.echeance += this.periodeNanos;
+				final long retard = maintenant - this.echeance;
+				if (retard > 0 && this.politique == PolitiqueRetard.SAUT) {
+					// Abandon des échéances dépassées
+					final long sautes = retard / this.periodeNanos + 1;
+					this.echeance += sautes * this.periodeNanos;
+					this.nbTicksSautes += sautes;
+				}
+				this.planifier(this.echeance - maintenant);
+			}
+		}
+	}
+}
@@ -1,10 +1,5 @@
 package tinymonkeys.modele;
 
-import java.util.Arrays;
-import java.util.List;
-
-import javax.swing.event.EventListenerList;
-
 /**
  * Classe d'un pirate.
  * 
@@ -42,7 +37,7 @@ public class Pirate {
 	/**
 	 * Liste des écouteurs sur le pirate.
 	 */
-	final private EventListenerList pirateEcouteurs;
+	final private ListeEcouteurs<PirateEcouteur> pirateEcouteurs;
 
 	/**
 	 * Constructeur du pirate sans position ni nom renseignes mais avec l'ile
@@ -52,7 +47,7 @@ public class Pirate {
 	 */
 	public Pirate(Ile ile) {
 		this.monkeyIsland = ile;
-		this.pirateEcouteurs = new EventListenerList();
+		this.pirateEcouteurs = new ListeEcouteurs<PirateEcouteur>(PirateEcouteur.class);
 	}
 
 	/**
@@ -64,7 +59,7 @@ public class Pirate {
 	public Pirate(Ile ile, String avatar) {
 		this.monkeyIsland = ile;
 		this.avatar = avatar;
-		this.pirateEcouteurs = new EventListenerList();
+		this.pirateEcouteurs = new ListeEcouteurs<PirateEcouteur>(PirateEcouteur.class);
 	}
 
 	/**
@@ -91,10 +86,24 @@ public class Pirate {
 	 * @param singe le singe essayant de tuer le pirate.
 	 */
 	public void tuerPirate(Singe singe) {
-		if (singe.coordonneesEgales(this.x, this.y)) {
+		this.tuerPirate(singe.getX(), singe.getY());
+	}
+
+	/**
+	 * Tue le pirate s'il se trouve sur la case d'un singe.
+	 *
+	 * @param x l'abscisse du singe essayant de tuer le pirate.
+	 * @param y l'ordonnee du singe essayant de tuer le pirate.
+	 */
+	public void tuerPirate(int x, int y) {
+		if (this.x == x && this.y == y) {
+			if (this.isVivant) {
+				Metriques.getInstance().compterMort();
+			}
 			this.isVivant = false;
-			Arrays.asList(this.pirateEcouteurs.getListeners(PirateEcouteur.class))
-			 	.forEach(listener -> listener.mortPirate(0));			
+			for (final PirateEcouteur ecouteur : this.pirateEcouteurs.getEcouteurs()) {
+				ecouteur.mortPirate(0);
+			}
 		}
 	}
 
@@ -107,8 +116,9 @@ public class Pirate {
 	public void positionInitiale(int x, int y) {
 		this.x = x;
 		this.y = y;
-		Arrays.asList(this.pirateEcouteurs.getListeners(PirateEcouteur.class))
-			.forEach(listener -> listener.ajoutPirate(0, x, y, this.avatar));
+		for (final PirateEcouteur ecouteur : this.pirateEcouteurs.getEcouteurs()) {
+			ecouteur.ajoutPirate(0, x, y, this.avatar);
+		}
 	}
 
 	/**
@@ -127,34 +137,56 @@ public class Pirate {
 			final int newY = this.y + dy;
 	
 			// Récupération des écouteurs
-			final List<PirateEcouteur> listeners = Arrays
-					.asList(this.pirateEcouteurs.getListeners(PirateEcouteur.class));
+			final PirateEcouteur[] ecouteurs = this.pirateEcouteurs.getEcouteurs();
 			
 			// On ne procède au déplacement que s'il s'agit d'une case terre
 			if (this.monkeyIsland.isTerre(newX, newY)) {
 	
 				if (this.monkeyIsland.getTresor().coordonneesEgales(newX, newY)) {
 					// Le pirate a trouvé le trésor
+					Metriques.getInstance().compterTresor();
 					this.monkeyIsland.suppressionTresor();
 				}
 				
 				// On set sa position
 				this.x = newX;
 				this.y = newY;
-				listeners.forEach(listener -> listener.deplacementPirate(0, this.x, this.y));
+				for (final PirateEcouteur ecouteur : ecouteurs) {
+					ecouteur.deplacementPirate(0, this.x, this.y);
+				}
 			}
 			
 			if (!this.monkeyIsland.isLibre(newX, newY)) {
 				// Si la case n'est pas libre, le pirate est tombé sur un singe
+				Metriques.getInstance().compterMort();
 				this.isVivant = false;
-				listeners.forEach(listener -> listener.mortPirate(0));
+				for (final PirateEcouteur ecouteur : ecouteurs) {
+					ecouteur.mortPirate(0);
+				}
 			} else {
 				// Sinon, libération du clavier
-				listeners.forEach(listener -> listener.liberationClavier());
+				for (final PirateEcouteur ecouteur : ecouteurs) {
+					ecouteur.liberationClavier();
+				}
 			}
 		}
 	}
 	
+	/**
+	 * Restaure l'etat du pirate, sans notifier les ecouteurs.
+	 * 
+	 * @param x l'abscisse du pirate.
+	 * @param y l'ordonnee du pirate.
+	 * @param vivant true si le pirate est vivant.
+	 * @param avatar le lien vers l'image du pirate.
+	 */
+	void restaurer(int x, int y, boolean vivant, String avatar) {
+		this.x = x;
+		this.y = y;
+		this.isVivant = vivant;
+		this.avatar = avatar;
+	}
+
 	/**
 	 * Accesseur en lecture de la santé du pirate.
 	 * 
@@ -189,6 +221,16 @@ public class Pirate {
 	 * @param ecouteur ecouteur du pirate.
 	 */
 	public void enregistreEcPirate(PirateEcouteur ecouteur) {
-		this.pirateEcouteurs.add(PirateEcouteur.class, ecouteur);
+		this.pirateEcouteurs.ajouter(ecouteur);
+	}
+
+	/**
+	 * Retire de la liste des ecouteurs de pirate l'ecouteur passe en
+	 * parametre.
+	 * 
+	 * @param ecouteur ecouteur du pirate.
+	 */
+	public void retireEcPirate(PirateEcouteur ecouteur) {
+		this.pirateEcouteurs.retirer(ecouteur);
 	}
 }
@@ -0,0 +1,125 @@
+package tinymonkeys.modele;
+
+import java.util.Arrays;
+
+/**
+ * Stockage compact des positions des singes d'une bande.
+ *
+ * Les positions sont rangees dans deux tableaux paralleles d'entiers, indexes
+ * par l'identifiant du singe : huit octets par singe, contigus en memoire, au
+ * lieu d'un objet par singe. Le stockage n'est pas synchronise : il ne doit
+ * etre modifie que par le thread qui deplace la bande.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+final class PositionsSinges {
+
+	/**
+	 * Capacite initiale des tableaux.
+	 */
+	private static final int CAPACITE_INITIALE = 16;
+
+	/**
+	 * Abscisse de chaque singe.
+	 */
+	private int[] xs;
+
+	/**
+	 * Ordonnee de chaque singe.
+	 */
+	private int[] ys;
+
+	/**
+	 * Nombre de singes stockes.
+	 */
+	private int taille;
+
+	/**
+	 * Constructeur d'un stockage vide.
+	 */
+	PositionsSinges() {
+		this.xs = new int[CAPACITE_INITIALE];
+		this.ys = new int[CAPACITE_INITIALE];
+	}
+
+	/**
+	 * Ajoute un singe a la position indiquee.
+	 *
+	 * @param x l'abscisse du singe.
+	 * @param y l'ordonnee du singe.
+	 * @return l'identifiant du singe.
+	 */
+	int ajouter(int x, int y) {
+		if (this.taille == this.xs.length) {
+			final int capacite = this.taille + (this.taille >> 1);
+			this.xs = Arrays.copyOf(this.xs, capacite);
+			this.ys = Arrays.copyOf(this.ys, capacite);
+		}
+		this.xs[this.taille] = x;
+		this.ys[this.taille] = y;
+		return this.taille++;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de singes stockes.
+	 *
+	 * @return le nombre de singes.
+	 */
+	int getTaille() {
+		return this.taille;
+	}
+
+	/**
+	 * Accesseur en lecture de l'abscisse d'un singe.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @return l'abscisse du singe.
+	 */
+	int getX(int id) {
+		return this.xs[id];
+	}
+
+	/**
+	 * Accesseur en lecture de l'ordonnee d'un singe.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @return l'ordonnee du singe.
+	 */
+	int getY(int id) {
+		return this.ys[id];
+	}
+
+	/**
+	 * Accesseur en ecriture de la position d'un singe.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @param x la nouvelle abscisse.
+	 * @param y la nouvelle ordonnee.
+	 */
+	void setPosition(int id, int x, int y) {
+		this.xs[id] = x;
+		this.ys[id] = y;
+	}
+
+	/**
+	 * Retourne le tableau des abscisses, a parcourir jusqu'a getTaille(). Le
+	 * tableau reste valide jusqu'au prochain ajout.
+	 *
+	 * @return les abscisses des singes.
+	 */
+	int[] getXs() {
+		return this.xs;
+	}
+
+	/**
+	 * Retourne le tableau des ordonnees, a parcourir jusqu'a getTaille(). Le
+	 * tableau reste valide jusqu'au prochain ajout.
+	 *
+	 * @return les ordonnees des singes.
+	 */
+	int[] getYs() {
+		return this.ys;
+	}
+}
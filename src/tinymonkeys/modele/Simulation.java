@@ -0,0 +1,350 @@
+package tinymonkeys.modele;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Simulation d'une ile par un seul thread ecrivain.
+ *
+ * Une fois la simulation demarree, le modele n'est plus modifie que par le
+ * thread de simulation. Les autres threads (le thread de Swing pour le
+ * clavier, par exemple) deposent leurs modifications sous forme de commandes
+ * dans une file ; chaque tick execute d'abord les commandes en attente, dans
+ * leur ordre de depot, puis deplace les singes. Les champs du modele n'ont
+ * ainsi besoin d'aucune synchronisation et les ecouteurs du modele sont tous
+ * appeles sur le thread de simulation.
+ *
+ * Les entrees du joueur (deplacements du pirate) ont leur propre file. Le
+ * depot d'une entree reveille le thread de simulation, qui vide la file sans
+ * attendre le tick suivant : le pirate se deplace des la touche, entre deux
+ * ticks. La file est aussi videe au debut de chaque tick, avant les
+ * commandes, notamment tant que la simulation n'est pas demarree. Selon la
+ * politique de coalescence, les entrees retirees ensemble lors d'un meme
+ * vidage sont toutes appliquees dans l'ordre, ou seule la derniere l'est, les
+ * precedentes etant alors abandonnees. Les deux files sont sans verrou :
+ * deposer une entree ne bloque jamais le thread de Swing.
+ *
+ * A la fin de chaque tick, si des ecouteurs de la simulation sont
+ * enregistres, l'etat de l'ile est capture (EtatIle) et leur est publie. Cet
+ * etat immuable peut etre lu depuis n'importe quel thread, sans verrou ni
+ * copie. Sans ecouteur, aucune capture n'est faite : elle parcourt toute la
+ * bande de singes. La duree de chaque tick est enregistree dans les
+ * metriques du processus.
+ *
+ * La bande de singes de l'ile ne doit pas etre demarree par ailleurs : son
+ * propre ordonnanceur en ferait un second thread ecrivain.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class Simulation {
+
+	/**
+	 * Politique de coalescence des entrees deposees pendant un tick.
+	 */
+	public enum Coalescence {
+		/**
+		 * Toutes les entrees sont appliquees, dans leur ordre de depot.
+		 */
+		TOUTES,
+
+		/**
+		 * Seule la derniere entree deposee est appliquee, par exemple la
+		 * derniere direction demandee pour le pirate.
+		 */
+		DERNIERE
+	}
+
+	private static final Logger log = Logger.getGlobal();
+
+	/**
+	 * L'ile simulee.
+	 */
+	private final Ile monkeyIsland;
+
+	/**
+	 * Ordonnanceur cadencant les ticks sur le thread de simulation.
+	 */
+	private final Ordonnanceur ordonnanceur;
+
+	/**
+	 * Commandes en attente d'execution par le thread de simulation.
+	 */
+	private final FileMpsc<Consumer<Ile>> commandes;
+
+	/**
+	 * Entrees du joueur en attente d'execution par le thread de simulation.
+	 */
+	private final FileMpsc<Consumer<Ile>> entrees;
+
+	/**
+	 * Indique qu'un vidage des entrees est deja planifie sur le thread de
+	 * simulation.
+	 */
+	private final AtomicBoolean vidagePlanifie;
+
+	/**
+	 * Politique de coalescence des entrees.
+	 */
+	private volatile Coalescence coalescence;
+
+	/**
+	 * Liste des ecouteurs de la simulation.
+	 */
+	private final ListeEcouteurs<SimulationEcouteur> simulationEcouteurs;
+
+	/**
+	 * Nombre de ticks executes, ecrit par le seul thread de simulation.
+	 */
+	private long nbTicks;
+
+	/**
+	 * Etat de l'ile publie a la fin du dernier tick, ou null avant le premier
+	 * tick.
+	 */
+	private volatile EtatIle etat;
+
+	/**
+	 * Constructeur d'une simulation de l'ile, cadencee comme la bande de
+	 * singes.
+	 *
+	 * @param ile l'ile a simuler.
+	 */
+	public Simulation(Ile ile) {
+		this.monkeyIsland = ile;
+		this.commandes = new FileMpsc<Consumer<Ile>>();
+		this.entrees = new FileMpsc<Consumer<Ile>>();
+		this.vidagePlanifie = new AtomicBoolean(false);
+		this.coalescence = Coalescence.TOUTES;
+		this.simulationEcouteurs = new ListeEcouteurs<SimulationEcouteur>(SimulationEcouteur.class);
+		this.ordonnanceur = new Ordonnanceur(this::tick,
+				BandeDeSingesErratiques.TEMPO_DEPLACEMENT, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Accesseur en lecture de l'ile simulee. Une fois la simulation demarree,
+	 * l'ile ne doit etre modifiee que par des commandes.
+	 *
+	 * @return l'ile.
+	 */
+	public Ile getIle() {
+		return this.monkeyIsland;
+	}
+
+	/**
+	 * Depose une commande, executee par le thread de simulation au debut du
+	 * tick suivant. Peut etre appelee depuis n'importe quel thread.
+	 *
+	 * @param commande la modification a appliquer a l'ile.
+	 */
+	public void soumettre(Consumer<Ile> commande) {
+		if (commande == null) {
+			throw new IllegalArgumentException("Commande nulle");
+		}
+		this.commandes.deposer(commande);
+	}
+
+	/**
+	 * Demande le deplacement du pirate, execute selon la politique de
+	 * coalescence par le thread de simulation, aussitot que celui-ci est
+	 * libre si la simulation est demarree, au debut du tick suivant sinon.
+	 * Peut etre appelee depuis n'importe quel thread.
+	 *
+	 * @param dx la direction en abscisse.
+	 * @param dy la direction en ordonnee.
+	 */
+	public void demandeDeplacementPirate(int dx, int dy) {
+		this.entrees.deposer(ile -> ile.demandeDeplacementPirate(dx, dy));
+		if (this.vidagePlanifie.compareAndSet(false, true)
+				&& !this.ordonnanceur.executerDesQuePossible(this::viderEntrees)) {
+			// Simulation arretee ou en pause : le prochain tick videra la file.
+			this.vidagePlanifie.set(false);
+		}
+	}
+
+	/**
+	 * Vide la file des entrees entre deux ticks. Executee par le thread de
+	 * simulation.
+	 */
+	private void viderEntrees() {
+		// Une entree deposee pendant le vidage en planifie un nouveau.
+		this.vidagePlanifie.set(false);
+		this.appliquerEntrees();
+	}
+
+	/**
+	 * Applique les entrees en attente selon la politique de coalescence.
+	 */
+	private void appliquerEntrees() {
+		final Metriques metriques = Metriques.getInstance();
+		final Pirate pirate = this.monkeyIsland.getPirate();
+		final int xPirate = pirate.getX();
+		final int yPirate = pirate.getY();
+		final long dateEntree = metriques.prendreEntree();
+		if (this.coalescence == Coalescence.DERNIERE) {
+			Consumer<Ile> derniere = null;
+			Consumer<Ile> entree = this.entrees.retirer();
+			while (entree != null) {
+				derniere = entree;
+				entree = this.entrees.retirer();
+			}
+			if (derniere != null) {
+				this.executer(derniere);
+			}
+		} else {
+			this.executerTout(this.entrees);
+		}
+		if (pirate.getX() != xPirate || pirate.getY() != yPirate) {
+			metriques.noterEntreeAppliquee(dateEntree);
+		}
+	}
+
+	/**
+	 * Accesseur en lecture de la politique de coalescence des entrees.
+	 *
+	 * @return la politique de coalescence.
+	 */
+	public Coalescence getCoalescence() {
+		return this.coalescence;
+	}
+
+	/**
+	 * Modifie la politique de coalescence des entrees, appliquee a partir du
+	 * vidage suivant de la file des entrees.
+	 *
+	 * @param coalescence la nouvelle politique.
+	 */
+	public void setCoalescence(Coalescence coalescence) {
+		this.coalescence = coalescence;
+	}
+
+	/**
+	 * Execute un tick : les entrees du joueur, les commandes en attente, les
+	 * deplacements des singes, puis la publication de l'etat de l'ile a ses
+	 * ecouteurs, s'il y en a. Appelee par le thread de simulation ; ne peut etre appelee directement
+	 * que si la simulation n'est pas demarree.
+	 */
+	public void tick() {
+		final Metriques metriques = Metriques.getInstance();
+		final long debut = System.nanoTime();
+		this.appliquerEntrees();
+		this.executerTout(this.commandes);
+
+		this.monkeyIsland.getSingesErratiques().deplacerSinges();
+		++this.nbTicks;
+
+		if (!this.simulationEcouteurs.isVide()) {
+			final EtatIle instantane = this.monkeyIsland.capturerEtat();
+			this.etat = instantane;
+			final long debutDiffusion = System.nanoTime();
+			for (final SimulationEcouteur ecouteur : this.simulationEcouteurs.getEcouteurs()) {
+				ecouteur.finTick(this.nbTicks, instantane);
+			}
+			metriques.enregistrerDiffusionEtat(System.nanoTime() - debutDiffusion);
+		}
+		metriques.enregistrerTick(System.nanoTime() - debut);
+	}
+
+	/**
+	 * Execute toutes les commandes visibles d'une file, dans leur ordre de
+	 * depot.
+	 *
+	 * @param file la file des commandes.
+	 */
+	private void executerTout(FileMpsc<Consumer<Ile>> file) {
+		Consumer<Ile> commande = file.retirer();
+		while (commande != null) {
+			this.executer(commande);
+			commande = file.retirer();
+		}
+	}
+
+	/**
+	 * Execute une commande sur l'ile ; une erreur n'empeche pas l'execution
+	 * des commandes suivantes.
+	 *
+	 * @param commande la commande.
+	 */
+	private void executer(Consumer<Ile> commande) {
+		try {
+			commande.accept(this.monkeyIsland);
+		} catch (final RuntimeException e) {
+			log.log(Level.WARNING, "Erreur pendant l'execution d'une commande", e);
+		}
+	}
+
+	/**
+	 * Accesseur en lecture de l'etat de l'ile publie a la fin du dernier
+	 * tick ayant des ecouteurs. Peut etre appele depuis n'importe quel
+	 * thread.
+	 *
+	 * @return l'etat de l'ile, ou null si aucun etat n'a encore ete publie.
+	 */
+	public EtatIle getEtat() {
+		return this.etat;
+	}
+
+	/**
+	 * Accesseur en lecture de l'ordonnanceur de la simulation, permettant
+	 * d'en regler la frequence et la politique de retard.
+	 *
+	 * @return l'ordonnanceur des ticks.
+	 */
+	public Ordonnanceur getOrdonnanceur() {
+		return this.ordonnanceur;
+	}
+
+	/**
+	 * Lance les ticks periodiques sur le thread de simulation.
+	 */
+	public void demarrer() {
+		this.ordonnanceur.demarrer();
+	}
+
+	/**
+	 * Suspend les ticks ; les commandes deposees entre-temps attendent la
+	 * reprise.
+	 */
+	public void pause() {
+		this.ordonnanceur.pause();
+	}
+
+	/**
+	 * Reprend les ticks apres une pause.
+	 */
+	public void reprise() {
+		this.ordonnanceur.reprise();
+	}
+
+	/**
+	 * Arrete definitivement la simulation. Les entrees et commandes encore en
+	 * attente ne sont pas executees.
+	 */
+	public void arreter() {
+		this.ordonnanceur.arreter();
+	}
+
+	/**
+	 * Enregistre dans la liste des ecouteurs de la simulation l'ecouteur
+	 * passe en parametre.
+	 *
+	 * @param ecouteur ecouteur de la simulation.
+	 */
+	public void enregistreEcSimulation(SimulationEcouteur ecouteur) {
+		this.simulationEcouteurs.ajouter(ecouteur);
+	}
+
+	/**
+	 * Retire de la liste des ecouteurs de la simulation l'ecouteur passe en
+	 * parametre.
+	 *
+	 * @param ecouteur ecouteur de la simulation.
+	 */
+	public void retireEcSimulation(SimulationEcouteur ecouteur) {
+		this.simulationEcouteurs.retirer(ecouteur);
+	}
+}
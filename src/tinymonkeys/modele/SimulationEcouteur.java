@@ -0,0 +1,23 @@
+package tinymonkeys.modele;
+
+import java.util.EventListener;
+
+/**
+ * Ecouteur des ticks d'une simulation.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public interface SimulationEcouteur extends EventListener {
+
+	/**
+	 * Fin d'un tick de simulation. Appelee sur le thread de simulation ;
+	 * l'etat, immuable, peut etre conserve et lu depuis n'importe quel
+	 * thread.
+	 *
+	 * @param tick le numero du tick, a partir de 1.
+	 * @param etat l'etat de l'ile a la fin du tick.
+	 */
+	void finTick(long tick, EtatIle etat);
+}
@@ -12,6 +12,12 @@ public abstract class Singe extends AbstractElement {
 	 */
 	private Ile monkeyIsland;
 
+	/**
+	 * Grille d'occupation mise a jour lors des deplacements du singe. Elle
+	 * n'est renseignee que lorsque le singe appartient a une bande.
+	 */
+	private GrilleOccupation occupation;
+
 	/**
 	 * Constructeur de la classe Singe.
 	 * 
@@ -30,6 +36,29 @@ public abstract class Singe extends AbstractElement {
 	 */
 	public abstract void deplacerSinge();
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * La grille d'occupation de l'ile est tenue a jour.
+	 */
+	@Override
+	public void setPosition(int x, int y) {
+		if (this.occupation != null) {
+			this.occupation.deplacer(this.x, this.y, x, y);
+		}
+		super.setPosition(x, y);
+	}
+
+	/**
+	 * Rattache le singe a une grille d'occupation, ou l'en detache si la
+	 * grille est null.
+	 * 
+	 * @param occupation la grille d'occupation de l'ile.
+	 */
+	void setOccupation(GrilleOccupation occupation) {
+		this.occupation = occupation;
+	}
+
 	/**
 	 * Getter de monkeyIsland.
 	 * 
@@ -1,8 +1,6 @@
 package tinymonkeys.modele;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Random;
 
 /**
  * Classe du singe erratique.
@@ -13,6 +11,34 @@ import java.util.List;
  */
 
 public class SingeErratique extends Singe {
+
+	/**
+	 * Nombre de directions de deplacement possibles.
+	 */
+	static final int NB_DIRECTIONS = 4;
+
+	/**
+	 * Deplacement en abscisse associe a chaque direction (haut, bas, droite,
+	 * gauche).
+	 */
+	static final int[] DX = {0, 0, 1, -1};
+
+	/**
+	 * Deplacement en ordonnee associe a chaque direction (haut, bas, droite,
+	 * gauche).
+	 */
+	static final int[] DY = {1, -1, 0, 0};
+
+	/**
+	 * Valeur indiquant qu'aucune direction n'est praticable.
+	 */
+	static final int AUCUNE_DIRECTION = -1;
+
+	/**
+	 * Masque de bits indiquant que toutes les directions sont bloquees.
+	 */
+	private static final int TOUTES_BLOQUEES = (1 << NB_DIRECTIONS) - 1;
+
 	/**
 	 * Constructeur de la classe SingeErratique.
 	 * 
@@ -25,48 +51,93 @@ public class SingeErratique extends Singe {
 	}
 
 	/**
-	 * Deplacement aleatoire du singe erratique.
+	 * Deplacement aleatoire du singe erratique, tire avec le generateur des
+	 * deplacements de singes de l'ile.
 	 */
 	public void deplacerSinge() {
-		final CaseVide nextCase = this.getNextRandomPos();
-		if (null != nextCase) {
-			// Si la case est null, on abandonne le déplacement
-			this.setPosition(nextCase.x, nextCase.y);
+		this.deplacerSinge(this.getMonkeyIsland().getAleatoireSinges());
+	}
+
+	/**
+	 * Deplacement aleatoire du singe erratique, tire avec le generateur
+	 * indique.
+	 * 
+	 * @param aleatoire le generateur aleatoire a utiliser.
+	 */
+	public void deplacerSinge(Random aleatoire) {
+		final int direction = tirageDirection(this.getMonkeyIsland(),
+				this.getX(), this.getY(), aleatoire);
+		// Si aucune direction n'est praticable, le singe reste sur place
+		if (direction != AUCUNE_DIRECTION) {
+			this.setPosition(this.getX() + DX[direction], this.getY() + DY[direction]);
 			this.getMonkeyIsland().getPirate().tuerPirate(this);
 		}
 	}
 
 	/**
 	 * Produit une nouvelle position innocupée, et adjacente à celle du singe.
-	 * Si toutes les positions adjacentes sont occupées, retourne null.
+	 * Si toutes les positions adjacentes sont occupées, retourne null. La
+	 * direction est tiree avec le generateur des deplacements de singes de
+	 * l'ile.
 	 * 
 	 * @return une CaseVide représentant la nouvelle position.
 	 */
 	protected CaseVide getNextRandomPos() {
+		final Ile ile = this.getMonkeyIsland();
+		final int direction = tirageDirection(ile, this.getX(), this.getY(),
+				ile.getAleatoireSinges());
+		CaseVide nextCase = null;
+		if (direction != AUCUNE_DIRECTION) {
+			nextCase = new CaseVide(this.getX() + DX[direction], this.getY() + DY[direction]);
+		}
+		return nextCase;
+	}
 
-		// Création d'une liste contenant les 4 déplacements possibles
-		final List<CaseVide> listPos = new ArrayList<CaseVide>(4);
-		listPos.add(new CaseVide(this.getX(), this.getY() + 1));
-		listPos.add(new CaseVide(this.getX(), this.getY() - 1));
-		listPos.add(new CaseVide(this.getX() + 1, this.getY()));
-		listPos.add(new CaseVide(this.getX() - 1, this.getY()));
-		
-		// Mélange de la liste
-		Collections.shuffle(listPos);
-		
-		CaseVide nextCase;
-		do {
-			// Retrait de la première case
-			// Si la position est invalide, nouvelle tentative aléatoire.
-			try {
-				nextCase = listPos.remove(0);
-			} catch (IndexOutOfBoundsException e) {
-				// Le déplacement est impossible
-				nextCase = null;
+	/**
+	 * Tire uniformement une direction praticable parmi les quatre cases
+	 * adjacentes a la position indiquee, sans allocation. Les directions sont
+	 * essayees dans un ordre aleatoire et l'ile n'est interrogee que jusqu'a
+	 * la premiere direction valide ; les directions essayees sans succes sont
+	 * memorisees dans un masque de bits.
+	 * 
+	 * @param ile l'ile validant les deplacements.
+	 * @param x l'abscisse de depart.
+	 * @param y l'ordonnee de depart.
+	 * @param aleatoire le generateur aleatoire a utiliser.
+	 * @return l'indice de la direction dans DX et DY, ou AUCUNE_DIRECTION.
+	 */
+	static int tirageDirection(Ile ile, int x, int y, Random aleatoire) {
+		int bloquees = 0;
+		int restantes = NB_DIRECTIONS;
+		int resultat = AUCUNE_DIRECTION;
+
+		while (resultat == AUCUNE_DIRECTION && restantes > 0) {
+			// Choix uniforme parmi les directions non encore essayées
+			final int direction = rangDirectionLibre(bloquees,
+					aleatoire.nextInt(restantes));
+			if (ile.isDeplacementPossible(x + DX[direction], y + DY[direction])) {
+				resultat = direction;
+			} else {
+				bloquees |= 1 << direction;
+				--restantes;
 			}
-		} while (nextCase != null
-				&& !this.getMonkeyIsland().isDeplacementPossible(nextCase.x, nextCase.y));
+		}
+		return resultat;
+	}
 
-		return nextCase;
+	/**
+	 * Retourne la direction non bloquee de rang indique.
+	 * 
+	 * @param bloquees le masque des directions bloquees.
+	 * @param rang le rang de la direction parmi les directions non bloquees.
+	 * @return l'indice de la direction.
+	 */
+	private static int rangDirectionLibre(int bloquees, int rang) {
+		int libres = ~bloquees & TOUTES_BLOQUEES;
+		for (int i = 0; i < rang; ++i) {
+			// Retrait du bit de poids faible
+			libres &= libres - 1;
+		}
+		return Integer.numberOfTrailingZeros(libres);
 	}
 }
@@ -0,0 +1,66 @@
+package tinymonkeys.modele;
+
+/**
+ * Singe erratique dont la position est lue et ecrite dans le stockage compact
+ * de sa bande.
+ *
+ * Un tel singe n'est qu'une vue sur une entree du stockage : il est cree a la
+ * demande et peut etre abandonne sans effet sur la bande.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+final class SingeErratiqueStocke extends SingeErratique {
+
+	/**
+	 * Le stockage des positions de la bande.
+	 */
+	private final PositionsSinges positions;
+
+	/**
+	 * Identifiant du singe dans le stockage.
+	 */
+	private final int id;
+
+	/**
+	 * Constructeur d'une vue sur un singe du stockage.
+	 *
+	 * @param positions le stockage des positions de la bande.
+	 * @param id l'identifiant du singe.
+	 * @param ile l'ile sur laquelle vit le singe.
+	 */
+	SingeErratiqueStocke(PositionsSinges positions, int id, Ile ile) {
+		super(positions.getX(id), positions.getY(id), ile);
+		this.positions = positions;
+		this.id = id;
+	}
+
+	@Override
+	public int getX() {
+		return this.positions.getX(this.id);
+	}
+
+	@Override
+	public int getY() {
+		return this.positions.getY(this.id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * La position est ecrite dans le stockage et la grille d'occupation de
+	 * l'ile est tenue a jour.
+	 */
+	@Override
+	public void setPosition(int x, int y) {
+		this.getMonkeyIsland().getOccupation().deplacer(this.getX(), this.getY(), x, y);
+		this.positions.setPosition(this.id, x, y);
+		super.setPosition(x, y);
+	}
+
+	@Override
+	public boolean coordonneesEgales(int x, int y) {
+		return this.getX() == x && this.getY() == y;
+	}
+}
@@ -0,0 +1,161 @@
+package tinymonkeys.modele;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Source unique de l'aleatoire d'une simulation.
+ *
+ * La source est construite a partir d'une graine et distribue des
+ * generateurs independants, obtenus par division d'un SplittableRandom :
+ * chaque utilisateur (bande de singes, ile, lot de calcul parallele) tire
+ * dans son propre generateur, sans contention. Pour une meme graine, et des
+ * divisions faites dans le meme ordre, tous les tirages sont identiques d'une
+ * execution a l'autre.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class SourceAleatoire {
+
+	/**
+	 * La graine de la source.
+	 */
+	private final long graine;
+
+	/**
+	 * Le generateur racine, divise a chaque demande.
+	 */
+	private final SplittableRandom racine;
+
+	/**
+	 * Constructeur d'une source de graine tiree au hasard.
+	 */
+	public SourceAleatoire() {
+		this(new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Constructeur d'une source de graine donnee.
+	 *
+	 * @param graine la graine de la source.
+	 */
+	public SourceAleatoire(long graine) {
+		this.graine = graine;
+		this.racine = new SplittableRandom(graine);
+	}
+
+	/**
+	 * Accesseur en lecture de la graine, permettant de rejouer la simulation.
+	 *
+	 * @return la graine de la source.
+	 */
+	public long getGraine() {
+		return this.graine;
+	}
+
+	/**
+	 * Retourne un nouveau generateur, independant des precedents. Le
+	 * generateur n'est pas synchronise : il ne doit etre utilise que par un
+	 * seul thread a la fois.
+	 *
+	 * @return le generateur.
+	 */
+	public synchronized Random diviser() {
+		return new Generateur(this.racine.split());
+	}
+
+	/**
+	 * Tire une nouvelle graine, par exemple pour un calcul qui derive lui-meme
+	 * ses generateurs.
+	 *
+	 * @return la graine.
+	 */
+	public synchronized long nouvelleGraine() {
+		return this.racine.nextLong();
+	}
+
+	/**
+	 * Retourne un generateur determine par la graine indiquee.
+	 *
+	 * @param graine la graine du generateur.
+	 * @return le generateur.
+	 */
+	static Random generateur(long graine) {
+		return new Generateur(new SplittableRandom(graine));
+	}
+
+	/**
+	 * Generateur de l'API Random tirant dans un SplittableRandom, non
+	 * synchronise.
+	 *
+	 * @version 1.0
+	 * @author Adrian Fraisse
+	 */
+	private static final class Generateur extends Random {
+
+		/**
+		 * UID auto-généré.
+		 */
+		private static final long serialVersionUID = 6418326574412338907L;
+
+		/**
+		 * Le generateur effectif.
+		 */
+		private final SplittableRandom tirages;
+
+		/**
+		 * Constructeur.
+		 *
+		 * @param tirages le generateur effectif.
+		 */
+		Generateur(SplittableRandom tirages) {
+			this.tirages = tirages;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * La graine d'un generateur issu d'une source ne peut pas etre
+		 * modifiee.
+		 */
+		@Override
+		public synchronized void setSeed(long seed) {
+			// Appelee par le constructeur de Random, avant l'initialisation.
+			if (this.tirages != null) {
+				throw new UnsupportedOperationException();
+			}
+		}
+
+		@Override
+		protected int next(int bits) {
+			return this.tirages.nextInt() >>> (Integer.SIZE - bits);
+		}
+
+		@Override
+		public int nextInt() {
+			return this.tirages.nextInt();
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			return this.tirages.nextInt(bound);
+		}
+
+		@Override
+		public long nextLong() {
+			return this.tirages.nextLong();
+		}
+
+		@Override
+		public double nextDouble() {
+			return this.tirages.nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return this.tirages.nextBoolean();
+		}
+	}
+}
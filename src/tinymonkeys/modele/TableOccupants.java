@@ -0,0 +1,194 @@
+package tinymonkeys.modele;
+
+import java.util.Arrays;
+
+/**
+ * Compteurs de singes associes a des cases, par adressage ouvert.
+ *
+ * Seules les cases de compteur non nul sont enregistrees : la memoire depend
+ * du nombre de cases comptees et non de la taille de la carte. La grille
+ * d'occupation y compte les singes en surnombre sur une case. Les collisions
+ * sont resolues par sondage lineaire, et une case remise a zero est retiree
+ * en decalant les cases suivantes de sa sequence de sondage, sans marque de
+ * suppression.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+final class TableOccupants {
+
+	/**
+	 * Marque d'un emplacement vide.
+	 */
+	private static final int VIDE = -1;
+
+	/**
+	 * Capacite initiale de la table, puissance de deux.
+	 */
+	private static final int CAPACITE_INITIALE = 16;
+
+	/**
+	 * Constante multiplicative du hachage (nombre d'or sur 32 bits).
+	 */
+	private static final int HACHAGE = 0x9E3779B9;
+
+	/**
+	 * Indice de la case de chaque emplacement, VIDE si l'emplacement est
+	 * libre.
+	 */
+	private int[] cases;
+
+	/**
+	 * Compteur de la case de chaque emplacement.
+	 */
+	private int[] nombres;
+
+	/**
+	 * Masque des emplacements : la capacite moins un.
+	 */
+	private int masque;
+
+	/**
+	 * Nombre de cases enregistrees.
+	 */
+	private int taille;
+
+	/**
+	 * Constructeur d'une table vide.
+	 */
+	TableOccupants() {
+		this.allouer(CAPACITE_INITIALE);
+	}
+
+	/**
+	 * Alloue des emplacements vides.
+	 *
+	 * @param capacite le nombre d'emplacements, puissance de deux.
+	 */
+	private void allouer(int capacite) {
+		this.cases = new int[capacite];
+		Arrays.fill(this.cases, VIDE);
+		this.nombres = new int[capacite];
+		this.masque = capacite - 1;
+		this.taille = 0;
+	}
+
+	/**
+	 * Calcule l'emplacement ideal d'une case.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return l'emplacement ideal.
+	 */
+	private int emplacementIdeal(int indice) {
+		final int h = indice * HACHAGE;
+		return (h ^ (h >>> 16)) & this.masque;
+	}
+
+	/**
+	 * Cherche l'emplacement d'une case.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return l'emplacement de la case, ou l'emplacement vide qui termine sa
+	 *         sequence de sondage si elle est absente.
+	 */
+	private int emplacement(int indice) {
+		int e = this.emplacementIdeal(indice);
+		while (this.cases[e] != VIDE && this.cases[e] != indice) {
+			e = (e + 1) & this.masque;
+		}
+		return e;
+	}
+
+	/**
+	 * Accesseur en lecture du compteur d'une case.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return le compteur de la case, 0 si elle n'est pas enregistree.
+	 */
+	int get(int indice) {
+		return this.nombres[this.emplacement(indice)];
+	}
+
+	/**
+	 * Incremente le compteur d'une case.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return le compteur de la case apres l'increment.
+	 */
+	int incrementer(int indice) {
+		int e = this.emplacement(indice);
+		if (this.cases[e] == VIDE) {
+			// Facteur de charge maintenu sous un demi.
+			if (2 * (this.taille + 1) > this.cases.length) {
+				this.agrandir();
+				e = this.emplacement(indice);
+			}
+			this.cases[e] = indice;
+			++this.taille;
+		}
+		return ++this.nombres[e];
+	}
+
+	/**
+	 * Decremente le compteur d'une case, retiree de la table a zero.
+	 *
+	 * @param indice l'indice de la case.
+	 * @return le compteur de la case apres le decrement, ou -1 si la case
+	 *         n'etait pas enregistree.
+	 */
+	int decrementer(int indice) {
+		final int e = this.emplacement(indice);
+		int reste = -1;
+		if (this.cases[e] != VIDE) {
+			reste = --this.nombres[e];
+			if (reste == 0) {
+				this.supprimer(e);
+			}
+		}
+		return reste;
+	}
+
+	/**
+	 * Vide un emplacement en y ramenant les cases suivantes qui ne seraient
+	 * plus trouvees par sondage.
+	 *
+	 * @param e l'emplacement a vider.
+	 */
+	private void supprimer(int e) {
+		int trou = e;
+		int suivant = (e + 1) & this.masque;
+		while (this.cases[suivant] != VIDE) {
+			final int ideal = this.emplacementIdeal(this.cases[suivant]);
+			// La case peut combler le trou si celui-ci est sur son chemin de
+			// sondage, entre son emplacement ideal et son emplacement actuel.
+			if (((suivant - ideal) & this.masque) >= ((suivant - trou) & this.masque)) {
+				this.cases[trou] = this.cases[suivant];
+				this.nombres[trou] = this.nombres[suivant];
+				trou = suivant;
+			}
+			suivant = (suivant + 1) & this.masque;
+		}
+		this.cases[trou] = VIDE;
+		this.nombres[trou] = 0;
+		--this.taille;
+	}
+
+	/**
+	 * Double la capacite de la table.
+	 */
+	private void agrandir() {
+		final int[] anciennesCases = this.cases;
+		final int[] anciensNombres = this.nombres;
+		final int taille = this.taille;
+		this.allouer(2 * anciennesCases.length);
+		for (int e = 0; e < anciennesCases.length; ++e) {
+			if (anciennesCases[e] != VIDE) {
+				final int nouveau = this.emplacement(anciennesCases[e]);
+				this.cases[nouveau] = anciennesCases[e];
+				this.nombres[nouveau] = anciensNombres[e];
+			}
+		}
+		this.taille = taille;
+	}
+}
@@ -0,0 +1,136 @@
+package tinymonkeys.vue;
+
+import javax.swing.Timer;
+
+/**
+ * Boucle de rendu de la fenetre, cadencee independamment de la simulation.
+ *
+ * Un Timer de Swing declenche sur l'EDT une image a la frequence cible. A
+ * chaque image, la passerelle transmet a la fenetre les evenements recus
+ * depuis l'image precedente, fusionnes en la derniere position de chaque
+ * personnage : la fenetre montre donc l'etat le plus recent de la
+ * simulation, et le travail de rendu ne depend que du nombre d'images, pas du
+ * nombre de ticks. La simulation peut ainsi tourner a 1000 ticks par seconde
+ * pendant que l'ecran affiche 60 images par seconde.
+ *
+ * Avec l'interpolation, en rendu sur canevas, les personnages glissent d'une
+ * case a l'autre entre deux ticks au lieu d'y sauter.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class BoucleRendu {
+
+	/**
+	 * Nombre d'images par seconde par defaut.
+	 */
+	public static final int IMAGES_PAR_SECONDE_DEFAUT = 60;
+
+	/**
+	 * Nombre de millisecondes dans une seconde.
+	 */
+	private static final int MILLIS_PAR_SECONDE = 1000;
+
+	/**
+	 * La fenetre dessinee.
+	 */
+	private final Fenetre fenetre;
+
+	/**
+	 * La passerelle des evenements du modele, videe a chaque image.
+	 */
+	private final PasserelleEdt passerelle;
+
+	/**
+	 * Le minuteur declenchant les images sur l'EDT.
+	 */
+	private final Timer minuteur;
+
+	/**
+	 * Nombre d'images produites, lu et ecrit sur l'EDT.
+	 */
+	private long nbImages;
+
+	/**
+	 * Constructeur de la boucle de rendu. La passerelle ne doit pas etre
+	 * automatique : c'est la boucle qui la vide.
+	 *
+	 * @param fenetre la fenetre dessinee.
+	 * @param passerelle la passerelle des evenements du modele vers la
+	 *            fenetre.
+	 * @param imagesParSeconde la frequence cible des images.
+	 */
+	public BoucleRendu(Fenetre fenetre, PasserelleEdt passerelle, int imagesParSeconde) {
+		this.fenetre = fenetre;
+		this.passerelle = passerelle;
+		this.minuteur = new Timer(BoucleRendu.delai(imagesParSeconde), evenement -> this.image());
+		this.minuteur.setCoalesce(true);
+	}
+
+	/**
+	 * Modifie la frequence cible des images.
+	 *
+	 * @param imagesParSeconde le nombre d'images par seconde.
+	 */
+	public void setImagesParSeconde(int imagesParSeconde) {
+		this.minuteur.setDelay(BoucleRendu.delai(imagesParSeconde));
+	}
+
+	/**
+	 * Active ou desactive l'interpolation des positions entre deux ticks.
+	 *
+	 * @param interpolation true pour faire glisser les personnages.
+	 */
+	public void setInterpolation(boolean interpolation) {
+		this.fenetre.setInterpolation(interpolation);
+	}
+
+	/**
+	 * Lance les images.
+	 */
+	public void demarrer() {
+		this.minuteur.start();
+	}
+
+	/**
+	 * Arrete les images.
+	 */
+	public void arreter() {
+		this.minuteur.stop();
+	}
+
+	/**
+	 * Accesseur en lecture du nombre d'images produites. Doit etre appele sur
+	 * l'EDT.
+	 *
+	 * @return le nombre d'images.
+	 */
+	public long getNbImages() {
+		return this.nbImages;
+	}
+
+	/**
+	 * Produit une image : transmet les evenements en attente puis anime les
+	 * personnages en cours de deplacement.
+	 */
+	private void image() {
+		this.passerelle.vider();
+		this.fenetre.animer();
+		++this.nbImages;
+	}
+
+	/**
+	 * Calcule le delai entre deux images.
+	 *
+	 * @param imagesParSeconde le nombre d'images par seconde.
+	 * @return le delai en millisecondes.
+	 */
+	private static int delai(int imagesParSeconde) {
+		if (imagesParSeconde <= 0) {
+			throw new IllegalArgumentException("Frequence d'images invalide : "
+					+ imagesParSeconde);
+		}
+		return Math.max(1, Math.round((float) MILLIS_PAR_SECONDE / imagesParSeconde));
+	}
+}
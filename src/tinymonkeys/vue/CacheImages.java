@@ -0,0 +1,159 @@
+package tinymonkeys.vue;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Cache des images des elements, partage par toutes les vues.
+ *
+ * Chaque image n'est lue et decodee qu'une seule fois. Une copie mise a
+ * l'echelle de la taille d'affichage, compatible avec l'ecran, est conservee
+ * pour chaque image : toutes les vues d'un meme element partagent donc la
+ * meme image, dessinee sans redimensionnement. La copie n'est reconstruite
+ * que lorsque la taille demandee change (changement de carte).
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public final class CacheImages {
+
+	/**
+	 * Message d'erreur.
+	 */
+	private static final String ERROR = "Error : ";
+
+	private static final Logger log = Logger.getGlobal();
+
+	/**
+	 * Images originales, indexees par leur emplacement. Une image illisible
+	 * est representee par une entree dont l'image est null.
+	 */
+	private static final Map<String, Entree> ORIGINALES = new ConcurrentHashMap<String, Entree>();
+
+	/**
+	 * Copies mises a l'echelle, indexees par l'emplacement de l'image.
+	 */
+	private static final Map<String, Entree> MISES_A_L_ECHELLE = new ConcurrentHashMap<String, Entree>();
+
+	/**
+	 * Constructeur prive : classe utilitaire.
+	 */
+	private CacheImages() {
+	}
+
+	/**
+	 * Retourne l'image originale, lue lors du premier appel.
+	 *
+	 * @param chemin l'emplacement de l'image.
+	 * @return l'image, ou null si elle n'a pas pu etre lue.
+	 */
+	public static BufferedImage getImage(String chemin) {
+		return ORIGINALES.computeIfAbsent(chemin, CacheImages::lireImage).image;
+	}
+
+	/**
+	 * Retourne l'image mise a l'echelle de la taille indiquee.
+	 *
+	 * @param chemin l'emplacement de l'image.
+	 * @param taille la largeur et la hauteur de l'image en pixels.
+	 * @return l'image a la taille demandee, ou null si elle n'a pas pu etre
+	 *         lue.
+	 */
+	public static BufferedImage getImage(String chemin, int taille) {
+		final Entree entree = MISES_A_L_ECHELLE.get(chemin);
+		if (entree != null && entree.taille == taille) {
+			return entree.image;
+		}
+
+		final Entree copie = new Entree(miseALEchelle(getImage(chemin), taille), taille);
+		MISES_A_L_ECHELLE.put(chemin, copie);
+		return copie.image;
+	}
+
+	/**
+	 * Lit une image sur le disque.
+	 *
+	 * @param chemin l'emplacement de l'image.
+	 * @return l'entree de l'image, dont l'image est null en cas d'erreur.
+	 */
+	private static Entree lireImage(String chemin) {
+		BufferedImage image = null;
+		try {
+			image = ImageIO.read(new File(chemin));
+		} catch (IOException ie) {
+			log.info(ERROR + ie.getMessage());
+		}
+		return new Entree(image, 0);
+	}
+
+	/**
+	 * Copie une image a la taille indiquee, dans un format compatible avec
+	 * l'ecran.
+	 *
+	 * @param originale l'image a copier.
+	 * @param taille la largeur et la hauteur de la copie en pixels.
+	 * @return la copie, ou null si l'image ou la taille est invalide.
+	 */
+	private static BufferedImage miseALEchelle(BufferedImage originale, int taille) {
+		if (originale == null || taille <= 0) {
+			return null;
+		}
+
+		final BufferedImage copie;
+		if (GraphicsEnvironment.isHeadless()) {
+			copie = new BufferedImage(taille, taille, BufferedImage.TYPE_INT_ARGB);
+		} else {
+			copie = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+					.getDefaultConfiguration()
+					.createCompatibleImage(taille, taille, Transparency.TRANSLUCENT);
+		}
+
+		final Graphics2D g = copie.createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(originale, 0, 0, taille, taille, null);
+		} finally {
+			g.dispose();
+		}
+		return copie;
+	}
+
+	/**
+	 * Image associee a la taille pour laquelle elle a ete construite.
+	 */
+	private static final class Entree {
+
+		/**
+		 * L'image, null si elle n'a pas pu etre lue.
+		 */
+		private final BufferedImage image;
+
+		/**
+		 * La taille de l'image en pixels (0 pour une image originale).
+		 */
+		private final int taille;
+
+		/**
+		 * Constructeur d'une entree.
+		 *
+		 * @param image l'image.
+		 * @param taille la taille de l'image en pixels.
+		 */
+		private Entree(BufferedImage image, int taille) {
+			this.image = image;
+			this.taille = taille;
+		}
+	}
+}
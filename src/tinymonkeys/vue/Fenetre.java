@@ -9,10 +9,15 @@ import java.util.Hashtable;
 
 import javax.swing.JFrame;
 import javax.swing.JLayeredPane;
+import javax.swing.RepaintManager;
 
 import tinymonkeys.controleur.Controleur;
 import tinymonkeys.modele.BandeDeSingesErratiquesEcouteur;
+import tinymonkeys.modele.Carte;
+import tinymonkeys.modele.EtatIle;
 import tinymonkeys.modele.IleEcouteur;
+import tinymonkeys.modele.LotPositions;
+import tinymonkeys.modele.Metriques;
 import tinymonkeys.modele.PirateEcouteur;
 
 /**
@@ -73,9 +78,27 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	private VueTresor vueTresor;
 
 	/**
-	 * Disponibilite du clavier.
+	 * Vue dessinant tous les personnages et le tresor sur un seul composant,
+	 * en mode canevas.
 	 */
-	private boolean clavierDisponible;
+	private VueSprites vueSprites;
+
+	/**
+	 * Indique si les personnages sont dessines sur un seul canevas (true) ou
+	 * par un composant chacun (false).
+	 */
+	private final boolean renduCanevas;
+
+	/**
+	 * Indique si les positions des personnages sont interpolees entre deux
+	 * ticks, en mode canevas.
+	 */
+	private boolean interpolation;
+
+	/**
+	 * Gestionnaire des zones a redessiner.
+	 */
+	private final transient GestionnaireZonesModifiees gestionnaireZones;
 
 	/**
 	 * 
@@ -85,8 +108,22 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 * @param controleur le controleur de la vue.
 	 */
 	public Fenetre(String titre, Controleur controleur) {
+		this(titre, controleur, false);
+	}
+
+	/**
+	 * 
+	 * Constructeur de la fenetre.
+	 * 
+	 * @param titre libellé de la fenetre affiche dans la barre de titre.
+	 * @param controleur le controleur de la vue.
+	 * @param renduCanevas true pour dessiner tous les personnages sur un seul
+	 *            canevas, false pour utiliser un composant par personnage.
+	 */
+	public Fenetre(String titre, Controleur controleur, boolean renduCanevas) {
 		// Construction de la fenetre.
 		super();
+		this.renduCanevas = renduCanevas;
 
 		// Sortie de l'application en cas de fermeture de la fenetre.
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -106,11 +143,14 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 		// Récupération du conteneur.
 		this.layeredPane = this.getLayeredPane();
 
+		// Seules les zones modifiées du panneau sont redessinées.
+		this.gestionnaireZones = new GestionnaireZonesModifiees(this.layeredPane);
+		RepaintManager.setCurrentManager(this.gestionnaireZones);
+
 		// Lien vers le controleur pour tout ce qui est des commandes clavier.
 		this.controleur = controleur;
 
 		// Mise en ecoute du clavier.
-		this.clavierDisponible = true;
 		this.addKeyListener(this);
 
 		this.vuesSingesErratiques = new Hashtable<Integer, VueSingeErratique>();
@@ -121,21 +161,63 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void creationCarte(int[][] carte) {
+	public void creationCarte(Carte carte) {
 		this.vueCarte = new VueCarte(this.largeurEcran, this.hauteurEcran,
 				carte);
 		this.layeredPane.add(this.vueCarte, JLayeredPane.DEFAULT_LAYER);
+		this.vueCarte.repaint();
+
+		if (this.renduCanevas) {
+			this.vueSprites = new VueSprites(this.vueCarte.getTailleCase(),
+					this.vueCarte.getXGrille(), this.vueCarte.getYGrille(),
+					this.vueCarte.getWidth(), this.vueCarte.getHeight());
+			this.vueSprites.setInterpolation(this.interpolation);
+			this.gestionnaireZones.suivre(this.vueSprites);
+			this.layeredPane.add(this.vueSprites, JLayeredPane.PALETTE_LAYER);
+		}
+	}
+
+	/**
+	 * Active ou desactive l'interpolation des positions des personnages entre
+	 * deux ticks. Seul le mode canevas interpole ; la fenetre doit alors etre
+	 * animee par une boucle de rendu.
+	 *
+	 * @param interpolation true pour faire glisser les personnages.
+	 */
+	public void setInterpolation(boolean interpolation) {
+		this.interpolation = interpolation;
+		if (this.vueSprites != null) {
+			this.vueSprites.setInterpolation(interpolation);
+		}
+	}
+
+	/**
+	 * Anime les personnages en cours de deplacement. Appelee sur l'EDT a
+	 * chaque image de la boucle de rendu.
+	 */
+	public void animer() {
+		if (this.vueSprites != null) {
+			this.vueSprites.animer();
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void changementCarte(int[][] carte) {
+	public void changementCarte(Carte carte) {
 		this.vueCarte.setVueCarte(carte);
 
-		this.vuePirate.setDimensions(this.vueCarte.getTailleCase(),
-				this.vueCarte.getXGrille(), this.vueCarte.getYGrille());
+		if (this.vueSprites != null) {
+			this.vueSprites.setDimensions(this.vueCarte.getTailleCase(),
+					this.vueCarte.getXGrille(), this.vueCarte.getYGrille(),
+					this.vueCarte.getWidth(), this.vueCarte.getHeight());
+		}
+
+		if (this.vuePirate != null) {
+			this.vuePirate.setDimensions(this.vueCarte.getTailleCase(),
+					this.vueCarte.getXGrille(), this.vueCarte.getYGrille());
+		}
 
 		final Collection<VueSingeErratique> ensVuesSingesErratiques = this.vuesSingesErratiques
 				.values();
@@ -144,8 +226,10 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 					this.vueCarte.getXGrille(), this.vueCarte.getYGrille());
 		}
 
-		this.vueTresor.setDimensions(this.vueCarte.getTailleCase(),
-				this.vueCarte.getXGrille(), this.vueCarte.getYGrille());
+		if (this.vueTresor != null) {
+			this.vueTresor.setDimensions(this.vueCarte.getTailleCase(),
+					this.vueCarte.getXGrille(), this.vueCarte.getYGrille());
+		}
 
 		repaint();
 	}
@@ -155,10 +239,15 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 */
 	@Override
 	public void ajoutPirate(int id, int x, int y, String avatar) {
-		this.vuePirate = new VuePirate(this.vueCarte.getTailleCase(),
-				this.vueCarte.getXGrille(), this.vueCarte.getYGrille(), x, y,
-				avatar);
-		this.layeredPane.add(this.vuePirate, JLayeredPane.PALETTE_LAYER);
+		if (this.renduCanevas) {
+			this.vueSprites.ajoutPirate(x, y, avatar);
+		} else {
+			this.vuePirate = new VuePirate(this.vueCarte.getTailleCase(),
+					this.vueCarte.getXGrille(), this.vueCarte.getYGrille(), x, y,
+					avatar);
+			this.layeredPane.add(this.vuePirate, JLayeredPane.PALETTE_LAYER);
+			this.vuePirate.repaint();
+		}
 	}
 
 	/**
@@ -166,8 +255,14 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 */
 	@Override
 	public void deplacementPirate(int id, int x, int y) {
-		this.vuePirate.setPosition(x, y);
-		repaint();
+		// Le déplacement de la vue signale lui-même les zones à redessiner.
+		if (this.renduCanevas) {
+			this.vueSprites.deplacementPirate(x, y);
+		} else {
+			this.vuePirate.setPosition(x, y);
+		}
+		// La latence de la touche est mesuree a la fin du dessin suivant.
+		Metriques.getInstance().noterEntreeAffichee();
 	}
 
 	/**
@@ -175,8 +270,12 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 */
 	@Override
 	public void mortPirate(int id) {
-		this.vuePirate.mortPirate();
-		repaint();
+		if (this.renduCanevas) {
+			this.vueSprites.mortPirate();
+		} else {
+			this.vuePirate.mortPirate();
+			this.vuePirate.repaint();
+		}
 	}
 
 	/**
@@ -184,11 +283,31 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 */
 	@Override
 	public void creationSingeErratique(int id, int x, int y) {
-		final VueSingeErratique vse = new VueSingeErratique(
-				this.vueCarte.getTailleCase(), this.vueCarte.getXGrille(),
-				this.vueCarte.getYGrille(), x, y);
-		this.vuesSingesErratiques.put(id, vse);
-		this.layeredPane.add(vse, JLayeredPane.PALETTE_LAYER);
+		if (this.renduCanevas) {
+			this.vueSprites.creationSinge(id, x, y);
+		} else {
+			final VueSingeErratique vse = new VueSingeErratique(
+					this.vueCarte.getTailleCase(), this.vueCarte.getXGrille(),
+					this.vueCarte.getYGrille(), x, y);
+			this.vuesSingesErratiques.put(id, vse);
+			this.layeredPane.add(vse, JLayeredPane.PALETTE_LAYER);
+			vse.repaint();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * En mode canevas, l'ensemble des singes est ajoute a la table en un seul
+	 * rafraichissement.
+	 */
+	@Override
+	public void creationsSingesErratiques(LotPositions creations) {
+		if (this.renduCanevas) {
+			this.vueSprites.creationsSinges(creations);
+		} else {
+			BandeDeSingesErratiquesEcouteur.super.creationsSingesErratiques(creations);
+		}
 	}
 
 	/**
@@ -196,9 +315,30 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 */
 	@Override
 	public void deplacementSingeErratique(int id, int x, int y) {
-		final VueSingeErratique vse = this.vuesSingesErratiques.get(id);
-		vse.setPosition(x, y);
-		repaint();
+		if (this.renduCanevas) {
+			this.vueSprites.deplacementSinge(id, x, y);
+		} else {
+			this.vuesSingesErratiques.get(id).setPosition(x, y);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Seules les cases quittees et atteintes par les singes sont redessinees,
+	 * en un seul passage pour l'ensemble du lot.
+	 */
+	@Override
+	public void deplacementsSingesErratiques(LotPositions deplacements) {
+		if (this.renduCanevas) {
+			this.vueSprites.deplacementsSinges(deplacements);
+		} else {
+			final int taille = deplacements.getTaille();
+			for (int i = 0; i < taille; ++i) {
+				this.vuesSingesErratiques.get(deplacements.getId(i))
+						.setPosition(deplacements.getX(i), deplacements.getY(i));
+			}
+		}
 	}
 
 	/**
@@ -206,10 +346,14 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 */
 	@Override
 	public void creationTresor(int x, int y) {
-		this.vueTresor = new VueTresor(this.vueCarte.getTailleCase(),
-				this.vueCarte.getXGrille(), this.vueCarte.getYGrille(), x, y);
-		this.layeredPane.add(this.vueTresor, JLayeredPane.DEFAULT_LAYER);
-		repaint();
+		if (this.renduCanevas) {
+			this.vueSprites.creationTresor(x, y);
+		} else {
+			this.vueTresor = new VueTresor(this.vueCarte.getTailleCase(),
+					this.vueCarte.getXGrille(), this.vueCarte.getYGrille(), x, y);
+			this.layeredPane.add(this.vueTresor, JLayeredPane.DEFAULT_LAYER);
+			this.vueTresor.repaint();
+		}
 	}
 
 	/**
@@ -217,16 +361,68 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 */
 	@Override
 	public void suppressionTresor() {
-		this.layeredPane.remove(this.vueTresor);
-		repaint();
+		if (this.renduCanevas) {
+			this.vueSprites.suppressionTresor();
+		} else {
+			this.layeredPane.remove(this.vueTresor);
+			this.layeredPane.repaint(this.vueTresor.getBounds());
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * 
+	 * Les vues des personnages sont reconstruites d'un bloc ; en mode canevas,
+	 * l'ensemble de la restauration donne lieu a un seul rafraichissement.
+	 */
+	@Override
+	public void restaurationEtat(EtatIle etat) {
+		if (!this.renduCanevas) {
+			// Retrait des anciennes vues, avant l'ajustement a la carte.
+			for (final VueSingeErratique vse : this.vuesSingesErratiques.values()) {
+				this.layeredPane.remove(vse);
+			}
+			this.vuesSingesErratiques.clear();
+			if (this.vuePirate != null) {
+				this.layeredPane.remove(this.vuePirate);
+				this.vuePirate = null;
+			}
+			if (this.vueTresor != null) {
+				this.layeredPane.remove(this.vueTresor);
+				this.vueTresor = null;
+			}
+		}
+
+		if (this.vueCarte == null) {
+			this.creationCarte(etat.getCarte());
+		} else {
+			this.changementCarte(etat.getCarte());
+		}
+
+		if (this.renduCanevas) {
+			this.vueSprites.restauration(etat);
+		} else {
+			this.creationsSingesErratiques(etat.getPositionsSinges());
+			this.ajoutPirate(0, etat.getXPirate(), etat.getYPirate(), etat.getAvatarPirate());
+			if (!etat.isPirateVivant()) {
+				this.vuePirate.mortPirate();
+			}
+			if (etat.isTresor()) {
+				this.creationTresor(etat.getXTresor(), etat.getYTresor());
+			}
+			this.layeredPane.repaint();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Le clavier n'est jamais bloque : chaque touche est deposee dans la file
+	 * des entrees de la simulation, sans attendre le deplacement precedent.
 	 */
 	@Override
 	public void liberationClavier() {
-		this.clavierDisponible = true;
+		// Rien a liberer.
 	}
 
 	/**
@@ -237,10 +433,8 @@ public class Fenetre extends JFrame implements PirateEcouteur,
 	 */
 	@Override
 	public void keyPressed(KeyEvent keyEvent) {
-		if (this.clavierDisponible) {
-			// blocage du clavier afin de le rendre inactif.
-			this.clavierDisponible = false;
-
+		// Sans controleur (rejeu d'un journal), le clavier est inactif.
+		if (this.controleur != null) {
 			final int code = keyEvent.getKeyCode();
 
 			if (code >= KeyEvent.VK_LEFT && code <= KeyEvent.VK_DOWN) {
@@ -0,0 +1,163 @@
+package tinymonkeys.vue;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+
+import tinymonkeys.modele.Metriques;
+
+/**
+ * Gestionnaire de rafraichissement ne redessinant que les zones modifiees
+ * des composants suivis.
+ *
+ * Le RepaintManager standard fusionne toutes les zones a redessiner d'un
+ * composant en un seul rectangle englobant : quelques personnages deplaces
+ * aux quatre coins de la carte suffisent a redessiner la carte entiere. Pour
+ * les composants suivis, ce gestionnaire conserve au contraire les zones
+ * disjointes (typiquement les cases quittees et atteintes par les
+ * personnages), ne fusionne que celles qui se touchent, et les redessine
+ * toutes lors d'un unique passage par image sur l'EDT.
+ *
+ * La duree de chaque passage de dessin est enregistree dans les metriques du
+ * processus, separement pour les zones des composants suivis et pour le
+ * dessin standard de Swing.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class GestionnaireZonesModifiees extends RepaintManager {
+
+	/**
+	 * Nombre de zones au-dela duquel elles sont fusionnees en une seule.
+	 */
+	private static final int MAX_ZONES = 128;
+
+	/**
+	 * Les zones a redessiner de chaque composant suivi, deux a deux
+	 * disjointes et non adjacentes.
+	 */
+	private final Map<JComponent, List<Rectangle>> zones;
+
+	/**
+	 * Indique si un passage de dessin est deja planifie sur l'EDT.
+	 */
+	private boolean dessinPlanifie;
+
+	/**
+	 * Constructeur du gestionnaire.
+	 *
+	 * @param conteneur un premier composant dont les zones modifiees sont
+	 *            suivies.
+	 */
+	public GestionnaireZonesModifiees(JComponent conteneur) {
+		super();
+		this.zones = new IdentityHashMap<JComponent, List<Rectangle>>();
+		this.dessinPlanifie = false;
+		this.suivre(conteneur);
+	}
+
+	/**
+	 * Suit les zones modifiees d'un composant supplementaire.
+	 *
+	 * @param composant le composant a suivre.
+	 */
+	public final synchronized void suivre(JComponent composant) {
+		if (!this.zones.containsKey(composant)) {
+			this.zones.put(composant, new ArrayList<Rectangle>());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+		final List<Rectangle> zonesComposant = this.zones.get(c);
+		if (zonesComposant == null) {
+			super.addDirtyRegion(c, x, y, w, h);
+		} else if (w > 0 && h > 0) {
+			ajouterZone(zonesComposant, new Rectangle(x, y, w, h));
+			if (!this.dessinPlanifie) {
+				this.dessinPlanifie = true;
+				SwingUtilities.invokeLater(this::dessinerZones);
+			}
+		}
+	}
+
+	/**
+	 * Ajoute une zone en la fusionnant avec les zones qu'elle touche.
+	 *
+	 * @param zones les zones a redessiner d'un composant.
+	 * @param zone la zone a ajouter.
+	 */
+	private static void ajouterZone(List<Rectangle> zones, Rectangle zone) {
+		Rectangle fusion = zone;
+		boolean fusionnee = true;
+		while (fusionnee) {
+			fusionnee = false;
+			// Zone élargie d'un pixel afin de fusionner les zones adjacentes
+			final Rectangle voisinage = new Rectangle(fusion.x - 1, fusion.y - 1,
+					fusion.width + 2, fusion.height + 2);
+			final Iterator<Rectangle> it = zones.iterator();
+			while (it.hasNext()) {
+				final Rectangle autre = it.next();
+				if (voisinage.intersects(autre)) {
+					fusion = fusion.union(autre);
+					it.remove();
+					fusionnee = true;
+				}
+			}
+		}
+		zones.add(fusion);
+
+		if (zones.size() > MAX_ZONES) {
+			Rectangle englobante = zones.get(0);
+			for (final Rectangle autre : zones) {
+				englobante = englobante.union(autre);
+			}
+			zones.clear();
+			zones.add(englobante);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void paintDirtyRegions() {
+		final long debut = System.nanoTime();
+		super.paintDirtyRegions();
+		Metriques.getInstance().enregistrerPeintureSwing(debut, System.nanoTime());
+	}
+
+	/**
+	 * Redessine toutes les zones modifiees depuis le dernier passage.
+	 */
+	private void dessinerZones() {
+		final long debut = System.nanoTime();
+		final List<JComponent> composants = new ArrayList<JComponent>();
+		final List<Rectangle> aDessiner = new ArrayList<Rectangle>();
+		synchronized (this) {
+			for (final Map.Entry<JComponent, List<Rectangle>> entree : this.zones.entrySet()) {
+				for (final Rectangle zone : entree.getValue()) {
+					composants.add(entree.getKey());
+					aDessiner.add(zone);
+				}
+				entree.getValue().clear();
+			}
+			this.dessinPlanifie = false;
+		}
+		for (int i = 0; i < aDessiner.size(); ++i) {
+			composants.get(i).paintImmediately(aDessiner.get(i));
+		}
+		Metriques.getInstance().enregistrerPeintureZones(debut, System.nanoTime());
+	}
+}
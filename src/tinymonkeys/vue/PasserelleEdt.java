@@ -0,0 +1,378 @@
+package tinymonkeys.vue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import tinymonkeys.modele.BandeDeSingesErratiquesEcouteur;
+import tinymonkeys.modele.Carte;
+import tinymonkeys.modele.EtatIle;
+import tinymonkeys.modele.IleEcouteur;
+import tinymonkeys.modele.LotPositions;
+import tinymonkeys.modele.PirateEcouteur;
+
+/**
+ * Passerelle entre les evenements du modele et les vues Swing.
+ *
+ * Les evenements recus sur le thread de simulation sont ranges, dans leur
+ * ordre d'arrivee, dans le tampon de l'image en cours, puis transmis aux
+ * vues sur l'EDT lors d'un seul passage par image. En mode automatique, le
+ * premier evenement d'une image planifie ce passage par un unique
+ * SwingUtilities.invokeLater ; sinon, le passage est declenche par vider,
+ * par exemple depuis une boucle de rendu.
+ *
+ * Le tampon est borne par la taille du modele : les deplacements successifs
+ * d'un meme singe ou du pirate sont fusionnes en leur derniere position, et
+ * une restauration d'etat remplace tout ce qui la precede. Une interface
+ * lente ne ralentit donc pas la simulation, qui n'attend jamais l'EDT : elle
+ * voit seulement ses deplacements regroupes en moins d'images.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class PasserelleEdt implements IleEcouteur, BandeDeSingesErratiquesEcouteur,
+		PirateEcouteur {
+
+	/**
+	 * L'ecouteur des evenements de l'ile, appele sur l'EDT.
+	 */
+	private final IleEcouteur ecIle;
+
+	/**
+	 * L'ecouteur des evenements de la bande de singes, appele sur l'EDT.
+	 */
+	private final BandeDeSingesErratiquesEcouteur ecBande;
+
+	/**
+	 * L'ecouteur des evenements du pirate, appele sur l'EDT.
+	 */
+	private final PirateEcouteur ecPirate;
+
+	/**
+	 * Indique si le passage sur l'EDT est planifie par la passerelle.
+	 */
+	private final boolean automatique;
+
+	/**
+	 * Evenements de l'image en cours, dans leur ordre d'arrivee.
+	 */
+	private List<Runnable> evenements;
+
+	/**
+	 * Liste videe lors du passage precedent, reutilisee pour l'image suivante.
+	 */
+	private List<Runnable> evenementsLibres;
+
+	/**
+	 * Indique qu'un passage sur l'EDT est planifie et n'a pas commence.
+	 */
+	private boolean planifie;
+
+	/**
+	 * Identifiants des singes deplaces depuis le dernier evenement d'un autre
+	 * type.
+	 */
+	private int[] idsDeplaces = new int[0];
+
+	/**
+	 * Derniere abscisse de chaque singe deplace.
+	 */
+	private int[] xsDeplaces = new int[0];
+
+	/**
+	 * Derniere ordonnee de chaque singe deplace.
+	 */
+	private int[] ysDeplaces = new int[0];
+
+	/**
+	 * Nombre de singes deplaces.
+	 */
+	private int nbDeplaces;
+
+	/**
+	 * Rang de chaque singe parmi les singes deplaces, plus un ; 0 si le singe
+	 * n'a pas ete deplace.
+	 */
+	private int[] rangs = new int[0];
+
+	/**
+	 * Dernier deplacement du pirate en attente, ou null.
+	 */
+	private int[] deplacementPirate;
+
+	/**
+	 * Nombre d'evenements recus depuis la creation de la passerelle.
+	 */
+	private long nbRecus;
+
+	/**
+	 * Nombre de passages effectues sur l'EDT.
+	 */
+	private long nbPassages;
+
+	/**
+	 * Constructeur d'une passerelle automatique vers une fenetre.
+	 *
+	 * @param fenetre la fenetre de l'interface graphique.
+	 */
+	public PasserelleEdt(Fenetre fenetre) {
+		this(fenetre, fenetre, fenetre, true);
+	}
+
+	/**
+	 * Constructeur d'une passerelle.
+	 *
+	 * @param ecIle l'ecouteur des evenements de l'ile.
+	 * @param ecBande l'ecouteur des evenements de la bande de singes.
+	 * @param ecPirate l'ecouteur des evenements du pirate.
+	 * @param automatique true pour planifier le passage sur l'EDT des la
+	 *            premiere modification d'une image, false si vider est
+	 *            appelee periodiquement.
+	 */
+	public PasserelleEdt(IleEcouteur ecIle, BandeDeSingesErratiquesEcouteur ecBande,
+			PirateEcouteur ecPirate, boolean automatique) {
+		this.ecIle = ecIle;
+		this.ecBande = ecBande;
+		this.ecPirate = ecPirate;
+		this.automatique = automatique;
+		this.evenements = new ArrayList<Runnable>();
+		this.evenementsLibres = new ArrayList<Runnable>();
+	}
+
+	/**
+	 * Transmet aux vues les evenements de l'image en cours. Doit etre appelee
+	 * sur l'EDT.
+	 */
+	public void vider() {
+		final List<Runnable> image;
+		synchronized (this) {
+			this.planifie = false;
+			this.sceller();
+			image = this.evenements;
+			this.evenements = this.evenementsLibres;
+			this.evenementsLibres = image;
+			if (!image.isEmpty()) {
+				++this.nbPassages;
+			}
+		}
+		// Vues mises a jour hors verrou : la simulation n'attend pas l'EDT.
+		for (final Runnable evenement : image) {
+			evenement.run();
+		}
+		image.clear();
+	}
+
+	/**
+	 * Indique si des evenements attendent le prochain passage.
+	 *
+	 * @return true si l'image en cours n'est pas vide.
+	 */
+	public synchronized boolean isEnAttente() {
+		return !this.evenements.isEmpty() || this.nbDeplaces > 0
+				|| this.deplacementPirate != null;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre d'evenements recus.
+	 *
+	 * @return le nombre d'evenements recus du modele.
+	 */
+	public synchronized long getNbRecus() {
+		return this.nbRecus;
+	}
+
+	/**
+	 * Accesseur en lecture du nombre de passages sur l'EDT.
+	 *
+	 * @return le nombre de passages ayant transmis au moins un evenement.
+	 */
+	public synchronized long getNbPassages() {
+		return this.nbPassages;
+	}
+
+	@Override
+	public void creationCarte(Carte carte) {
+		this.ajouter(() -> this.ecIle.creationCarte(carte));
+	}
+
+	@Override
+	public void changementCarte(Carte carte) {
+		this.ajouter(() -> this.ecIle.changementCarte(carte));
+	}
+
+	@Override
+	public void creationSingeErratique(int id, int x, int y) {
+		this.ajouter(() -> this.ecBande.creationSingeErratique(id, x, y));
+	}
+
+	@Override
+	public void creationsSingesErratiques(LotPositions creations) {
+		// Le lot du modele est reutilise : il est copie.
+		final LotPositions copie = copier(creations);
+		this.ajouter(() -> this.ecBande.creationsSingesErratiques(copie));
+	}
+
+	@Override
+	public synchronized void deplacementSingeErratique(int id, int x, int y) {
+		++this.nbRecus;
+		this.deplacer(id, x, y);
+		this.planifier();
+	}
+
+	@Override
+	public synchronized void deplacementsSingesErratiques(LotPositions deplacements) {
+		++this.nbRecus;
+		for (int i = 0; i < deplacements.getTaille(); ++i) {
+			this.deplacer(deplacements.getId(i), deplacements.getX(i), deplacements.getY(i));
+		}
+		this.planifier();
+	}
+
+	@Override
+	public void creationTresor(int x, int y) {
+		this.ajouter(() -> this.ecIle.creationTresor(x, y));
+	}
+
+	@Override
+	public void suppressionTresor() {
+		this.ajouter(this.ecIle::suppressionTresor);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * L'etat restaure remplace tous les evenements encore en attente.
+	 */
+	@Override
+	public synchronized void restaurationEtat(EtatIle etat) {
+		++this.nbRecus;
+		this.evenements.clear();
+		this.oublierDeplacements();
+		this.deplacementPirate = null;
+		this.evenements.add(() -> this.ecIle.restaurationEtat(etat));
+		this.planifier();
+	}
+
+	@Override
+	public void ajoutPirate(int id, int x, int y, String avatar) {
+		this.ajouter(() -> this.ecPirate.ajoutPirate(id, x, y, avatar));
+	}
+
+	@Override
+	public synchronized void deplacementPirate(int id, int x, int y) {
+		++this.nbRecus;
+		// Seule la derniere position du pirate est transmise.
+		this.deplacementPirate = new int[] { id, x, y };
+		this.planifier();
+	}
+
+	@Override
+	public void mortPirate(int id) {
+		this.ajouter(() -> this.ecPirate.mortPirate(id));
+	}
+
+	@Override
+	public void liberationClavier() {
+		this.ajouter(this.ecPirate::liberationClavier);
+	}
+
+	/**
+	 * Ajoute un evenement a l'image en cours, apres les deplacements en
+	 * attente.
+	 *
+	 * @param evenement l'evenement a transmettre sur l'EDT.
+	 */
+	private synchronized void ajouter(Runnable evenement) {
+		++this.nbRecus;
+		this.sceller();
+		this.evenements.add(evenement);
+		this.planifier();
+	}
+
+	/**
+	 * Note le deplacement d'un singe, fusionne avec son deplacement precedent
+	 * s'il est encore en attente.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @param x la nouvelle abscisse.
+	 * @param y la nouvelle ordonnee.
+	 */
+	private void deplacer(int id, int x, int y) {
+		if (id >= this.rangs.length) {
+			this.rangs = Arrays.copyOf(this.rangs, Math.max(id + 1, 2 * this.rangs.length));
+		}
+		int rang = this.rangs[id] - 1;
+		if (rang < 0) {
+			if (this.nbDeplaces == this.idsDeplaces.length) {
+				final int capacite = Math.max(16, 2 * this.nbDeplaces);
+				this.idsDeplaces = Arrays.copyOf(this.idsDeplaces, capacite);
+				this.xsDeplaces = Arrays.copyOf(this.xsDeplaces, capacite);
+				this.ysDeplaces = Arrays.copyOf(this.ysDeplaces, capacite);
+			}
+			rang = this.nbDeplaces++;
+			this.idsDeplaces[rang] = id;
+			this.rangs[id] = rang + 1;
+		}
+		this.xsDeplaces[rang] = x;
+		this.ysDeplaces[rang] = y;
+	}
+
+	/**
+	 * Range les deplacements en attente dans l'image en cours, afin que les
+	 * evenements suivants leur restent posterieurs.
+	 */
+	private void sceller() {
+		if (this.nbDeplaces > 0) {
+			final LotPositions lot = new LotPositions();
+			for (int rang = 0; rang < this.nbDeplaces; ++rang) {
+				lot.ajouter(this.idsDeplaces[rang], this.xsDeplaces[rang], this.ysDeplaces[rang]);
+			}
+			this.oublierDeplacements();
+			this.evenements.add(() -> this.ecBande.deplacementsSingesErratiques(lot));
+		}
+		if (this.deplacementPirate != null) {
+			final int[] deplacement = this.deplacementPirate;
+			this.deplacementPirate = null;
+			this.evenements.add(() -> this.ecPirate.deplacementPirate(deplacement[0],
+					deplacement[1], deplacement[2]));
+		}
+	}
+
+	/**
+	 * Abandonne les deplacements de singes en attente.
+	 */
+	private void oublierDeplacements() {
+		for (int rang = 0; rang < this.nbDeplaces; ++rang) {
+			this.rangs[this.idsDeplaces[rang]] = 0;
+		}
+		this.nbDeplaces = 0;
+	}
+
+	/**
+	 * Planifie en mode automatique le passage sur l'EDT, s'il ne l'est pas
+	 * deja.
+	 */
+	private void planifier() {
+		if (this.automatique && !this.planifie) {
+			this.planifie = true;
+			SwingUtilities.invokeLater(this::vider);
+		}
+	}
+
+	/**
+	 * Copie un lot de positions.
+	 *
+	 * @param lot le lot a copier.
+	 * @return la copie.
+	 */
+	private static LotPositions copier(LotPositions lot) {
+		final LotPositions copie = new LotPositions();
+		for (int i = 0; i < lot.getTaille(); ++i) {
+			copie.ajouter(lot.getId(i), lot.getX(i), lot.getY(i));
+		}
+		return copie;
+	}
+}
@@ -2,9 +2,15 @@ package tinymonkeys.vue;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 
+import tinymonkeys.modele.Carte;
+
 /**
  * Classe du panneau de la carte.
  * 
@@ -75,9 +81,20 @@ public class VueCarte extends JPanel {
 	private int hauteurGrille;
 
 	/**
-	 * La carte.
+	 * La carte, partagee avec le modele en lecture seule.
+	 */
+	private transient Carte carte;
+
+	/**
+	 * Image pre-calculee de l'ile et de la grille, ou null si elle doit etre
+	 * reconstruite.
+	 */
+	private transient BufferedImage imageCarte;
+
+	/**
+	 * Taille des cases ayant servi a construire l'image de la carte.
 	 */
-	private int[][] carte;
+	private int tailleCaseImage;
 
 	/**
 	 * Constructeur de la vue de la carte.
@@ -86,13 +103,13 @@ public class VueCarte extends JPanel {
 	 * @param hauteurEcran hauteur de l'ecran en nombre de pixels.
 	 * @param carte la carte a dessiner
 	 */
-	public VueCarte(int largeurEcran, int hauteurEcran, int[][] carte) {
+	public VueCarte(int largeurEcran, int hauteurEcran, Carte carte) {
 		super();
 		this.largeurEcran = largeurEcran;
 		this.hauteurEcran = hauteurEcran;
-		this.largeurGrille = carte.length;
-		this.hauteurGrille = carte[0].length;
-		this.copieCarte(carte);
+		this.largeurGrille = carte.getLargeur();
+		this.hauteurGrille = carte.getHauteur();
+		this.carte = carte;
 		this.placementGrille();
 		this.setBounds(this.xGrille, this.yGrille, this.largeurGrille
 				* this.tailleCase + 1, this.hauteurGrille * this.tailleCase + 1);
@@ -106,8 +123,36 @@ public class VueCarte extends JPanel {
 	 */
 	public final void paintComponent(Graphics g) {
 		super.paintComponent(g);
-		this.dessineIle(g);
-		this.dessineGrille(g);
+		if (this.imageCarte == null || this.tailleCaseImage != this.tailleCase) {
+			this.construitImageCarte();
+		}
+		g.drawImage(this.imageCarte, 0, 0, null);
+	}
+
+	/**
+	 * Dessine une fois pour toutes l'ile et la grille dans une image
+	 * compatible avec l'ecran, recopiee ensuite a chaque affichage.
+	 */
+	private void construitImageCarte() {
+		final int largeur = this.largeurGrille * this.tailleCase + 1;
+		final int hauteur = this.hauteurGrille * this.tailleCase + 1;
+
+		// Les cases terre restent transparentes.
+		final GraphicsConfiguration gc = this.getGraphicsConfiguration();
+		if (gc == null) {
+			this.imageCarte = new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_ARGB);
+		} else {
+			this.imageCarte = gc.createCompatibleImage(largeur, hauteur, Transparency.BITMASK);
+		}
+
+		final Graphics2D g = this.imageCarte.createGraphics();
+		try {
+			this.dessineIle(g);
+			this.dessineGrille(g);
+		} finally {
+			g.dispose();
+		}
+		this.tailleCaseImage = this.tailleCase;
 	}
 
 	/**
@@ -166,7 +211,7 @@ public class VueCarte extends JPanel {
 			int j = -1;
 			while (++j < this.hauteurGrille) {
 				// Si la case est de type mer.
-				if (this.carte[i][j] == 0) {
+				if (this.carte.getTerrain(i, j) == Carte.MER) {
 					g.setColor(OCEAN);
 					g.fillRect(i * this.tailleCase, j * this.tailleCase,
 							this.tailleCase, this.tailleCase);
@@ -182,10 +227,11 @@ public class VueCarte extends JPanel {
 	 * 
 	 * @param carte la nouvelle carte.
 	 */
-	public final void setVueCarte(int[][] carte) {
-		this.largeurGrille = carte.length;
-		this.hauteurGrille = carte[0].length;
-		this.copieCarte(carte);
+	public final void setVueCarte(Carte carte) {
+		this.largeurGrille = carte.getLargeur();
+		this.hauteurGrille = carte.getHauteur();
+		this.carte = carte;
+		this.imageCarte = null;
 		this.placementGrille();
 		this.setBounds(this.xGrille, this.yGrille, this.largeurGrille
 				* this.tailleCase + 1, this.hauteurGrille * this.tailleCase + 1);
@@ -219,21 +265,4 @@ public class VueCarte extends JPanel {
 		return this.yGrille;
 	}
 
-	/**
-	 * Recopie de la carte dans l'attribut carte.
-	 * 
-	 * @param carte la carte a copier.
-	 */
-	private void copieCarte(int[][] carte) {
-		this.carte = new int[carte.length][carte[0].length];
-		int i = -1;
-		
-		while (++i < carte.length) {
-			int j = -1;
-			while(++j < carte[0].length) {
-				this.carte[i][j] = carte[i][j];
-			}
-		}
-	}
-
 }
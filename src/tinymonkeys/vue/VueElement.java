@@ -39,9 +39,9 @@ public class VueElement extends JPanel {
 	protected int tailleImage;
 
 	/**
-	 * Image d'un personnage.
+	 * Emplacement de l'image de l'element, lue via le cache d'images.
 	 */
-	private transient BufferedImage imageElement;
+	private String cheminImage;
 
 	/**
 	 * Taille de la case en nombre de pixels.
@@ -99,7 +99,7 @@ public class VueElement extends JPanel {
 		this.setBounds(xImage, yImage, this.tailleImage + 1,
 				this.tailleImage + 1);
 
-		this.setImageElement(null);
+		this.setCheminImage(null);
 	}
 
 	/**
@@ -118,9 +118,8 @@ public class VueElement extends JPanel {
 	 * @param g graphique dans lequel dessiner.
 	 */
 	protected void dessineElement(Graphics g) {
-		g.drawImage(this.getImageElement(), 0, 0, this.tailleImage,
-				this.tailleImage, null);
-
+		// L'image du cache est deja a la taille d'affichage.
+		g.drawImage(this.getImageElement(), 0, 0, null);
 	}
 
 	/**
@@ -149,21 +148,22 @@ public class VueElement extends JPanel {
 	}
 
 	/**
-	 * Getter imageElement.
+	 * Getter imageElement : l'image partagee, deja a la taille d'affichage.
 	 * 
-	 * @return the imageElement
+	 * @return the imageElement, null si aucune image n'est disponible.
 	 */
 	protected BufferedImage getImageElement() {
-		return this.imageElement;
+		return (this.cheminImage == null) ? null
+				: CacheImages.getImage(this.cheminImage, this.tailleImage);
 	}
 
 	/**
-	 * Setter imageElement.
+	 * Setter cheminImage.
 	 * 
-	 * @param imageElement the imageElement to set
+	 * @param cheminImage l'emplacement de l'image de l'element.
 	 */
-	protected void setImageElement(BufferedImage imageElement) {
-		this.imageElement = imageElement;
+	protected final void setCheminImage(String cheminImage) {
+		this.cheminImage = cheminImage;
 	}
 
 }
@@ -2,12 +2,6 @@ package tinymonkeys.vue;
 
 import java.awt.Graphics;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.logging.Logger;
-
-import javax.imageio.ImageIO;
-
 /**
  * Classe de la vue d'un pirate.
  * 
@@ -25,19 +19,12 @@ public class VuePirate extends VuePersonnage {
 	/**
 	 * Emplacement de l'avatar par defaut du pirate.
 	 */
-	private static final String AVATAR_PIRATE = "./img/Mon_pirate.png";
-
-	/**
-	 * Message d'erreur.
-	 */
-	private static final String ERROR = "Error : ";
-	
-	private static final Logger log = Logger.getGlobal();
+	static final String AVATAR_PIRATE = "./img/Mon_pirate.png";
 
 	/**
 	 * Emplacement de l'avatar du pirate mort.
 	 */
-	private static final String AVATAR_PIRATE_MORT = "./img/Pirate_Mort.png";
+	static final String AVATAR_PIRATE_MORT = "./img/Pirate_Mort.png";
 
 	/**
 	 * La vue d'un pirate.
@@ -56,14 +43,7 @@ public class VuePirate extends VuePersonnage {
 		super(tailleCase, xGrille, yGrille, x, y);
 
 		final String avatarPirate = (avatar == null) ? AVATAR_PIRATE : avatar;
-
-		try {
-			final File input = new File(avatarPirate);
-			this.setImageElement(ImageIO.read(input));
-		} catch (IOException ie) {
-			log.info(ERROR + ie.getMessage());
-		}
-
+		this.setCheminImage(avatarPirate);
 	}
 
 	/**
@@ -71,19 +51,14 @@ public class VuePirate extends VuePersonnage {
 	 */
 	@Override
 	public final void dessineElement(Graphics g) {
-		g.drawImage(this.getImageElement(), 0, 0, this.tailleImage,
-				this.tailleImage, null);
+		// L'image du cache est deja a la taille d'affichage.
+		g.drawImage(this.getImageElement(), 0, 0, null);
 	}
 
 	/**
 	 * L'avatar du pirate devient un avatar de mort.
 	 */
 	public final void mortPirate() {
-		try {
-			final File input = new File(AVATAR_PIRATE_MORT);
-			this.setImageElement(ImageIO.read(input));
-		} catch (IOException ie) {
-			log.info(ERROR + ie.getMessage());
-		}
+		this.setCheminImage(AVATAR_PIRATE_MORT);
 	}
 }
@@ -1,11 +1,5 @@
 package tinymonkeys.vue;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.logging.Logger;
-
-import javax.imageio.ImageIO;
-
 /**
  * Classe de la vue d'un singe erratique.
  * 
@@ -23,9 +17,7 @@ public class VueSingeErratique extends VuePersonnage {
 	/**
 	 * Emplacement de l'image du singe erratique.
 	 */
-	private static final String IMAGE_SINGE_ERRATIQUE = "./img/Singe_Erratique.png";
-	
-	private static final Logger log = Logger.getGlobal();
+	static final String IMAGE_SINGE_ERRATIQUE = "./img/Singe_Erratique.png";
 
 	/**
 	 * La vue d'un singe erratique.
@@ -42,13 +34,8 @@ public class VueSingeErratique extends VuePersonnage {
 			int y) {
 		super(tailleCase, xGrille, yGrille, x, y);
 
-		try {
-			final File input = new File(IMAGE_SINGE_ERRATIQUE);
-			this.setImageElement(ImageIO.read(input));
-		} catch (IOException ie) {
-			log.info("Error:" + ie.getMessage());
-		}
-
+		// Image decodee une seule fois et partagee par tous les singes.
+		this.setCheminImage(IMAGE_SINGE_ERRATIQUE);
 	}
 
 }
@@ -0,0 +1,780 @@
+package tinymonkeys.vue;
+
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import javax.swing.JComponent;
+
+import tinymonkeys.modele.EtatIle;
+import tinymonkeys.modele.LotPositions;
+
+/**
+ * Vue dessinant l'ensemble des personnages et le tresor sur un seul
+ * composant.
+ *
+ * Contrairement aux vues VueElement, qui consacrent un composant Swing a
+ * chaque element, cette vue conserve les positions dans une table compacte
+ * (tableaux d'abscisses et d'ordonnees indexes par l'identifiant des singes)
+ * et dessine tous les elements en un seul parcours, dans le tampon de dessin
+ * de Swing. Seuls les elements intersectant la zone a redessiner sont
+ * dessines.
+ *
+ * Les singes sont en outre ranges par secteurs carres de cases, chaque
+ * secteur tenant la liste chainee de ses singes : le dessin d'une zone ne
+ * parcourt que les singes des secteurs qu'elle couvre, et non la bande
+ * entiere, ce qui garde bas le cout des nombreuses petites zones redessinees
+ * a chaque image.
+ *
+ * Avec l'interpolation, pilotee par une boucle de rendu qui appelle animer a
+ * chaque image, les personnages deplaces lors d'une image glissent de leur
+ * ancienne case a la nouvelle pendant la duree separant les deux derniers
+ * lots de deplacements, c'est-a-dire a peu pres la periode des ticks.
+ *
+ * @version 1.0
+ * @author Adrian Fraisse
+ *
+ */
+public class VueSprites extends JComponent {
+
+	/**
+	 * UID auto-genere.
+	 */
+	private static final long serialVersionUID = -1409437722405546164L;
+
+	/**
+	 * Capacite initiale de la table des singes.
+	 */
+	private static final int CAPACITE_INITIALE = 64;
+
+	/**
+	 * Duree maximale d'une animation, en nanosecondes.
+	 */
+	private static final long DUREE_ANIMATION_MAX = 500000000L;
+
+	/**
+	 * Cote d'un secteur en nombre de cases.
+	 */
+	private static final int TAILLE_SECTEUR = 8;
+
+	/**
+	 * Marque de fin d'une liste de singes, ou d'un singe hors des secteurs.
+	 */
+	private static final int AUCUN = -1;
+
+	/**
+	 * Taille d'une case en nombre de pixels.
+	 */
+	private int tailleCase;
+
+	/**
+	 * Taille d'une image en nombre de pixels.
+	 */
+	private int tailleImage;
+
+	/**
+	 * Abscisses des singes, indexees par leur identifiant.
+	 */
+	private int[] xSinges;
+
+	/**
+	 * Ordonnees des singes, indexees par leur identifiant.
+	 */
+	private int[] ySinges;
+
+	/**
+	 * Nombre de singes (identifiant maximal + 1).
+	 */
+	private int nbSinges;
+
+	/**
+	 * Nombre de colonnes de secteurs.
+	 */
+	private int nbColonnesSecteurs;
+
+	/**
+	 * Nombre de lignes de secteurs.
+	 */
+	private int nbLignesSecteurs;
+
+	/**
+	 * Premier singe de chaque secteur, ligne par ligne, ou AUCUN.
+	 */
+	private int[] premiersSecteurs;
+
+	/**
+	 * Secteur de chaque singe, indexe par son identifiant, ou AUCUN.
+	 */
+	private int[] secteursSinges;
+
+	/**
+	 * Singe suivant dans le secteur de chaque singe, ou AUCUN.
+	 */
+	private int[] suivants;
+
+	/**
+	 * Singe precedent dans le secteur de chaque singe, ou AUCUN.
+	 */
+	private int[] precedents;
+
+	/**
+	 * Abscisse du pirate.
+	 */
+	private int xPirate;
+
+	/**
+	 * Ordonnee du pirate.
+	 */
+	private int yPirate;
+
+	/**
+	 * Indique si le pirate est present.
+	 */
+	private boolean pirateVisible;
+
+	/**
+	 * Abscisse du tresor.
+	 */
+	private int xTresor;
+
+	/**
+	 * Ordonnee du tresor.
+	 */
+	private int yTresor;
+
+	/**
+	 * Indique si le tresor est present.
+	 */
+	private boolean tresorVisible;
+
+	/**
+	 * Emplacement de l'image courante du pirate.
+	 */
+	private String cheminPirate;
+
+	/**
+	 * Indique si les positions sont interpolees entre deux lots de
+	 * deplacements.
+	 */
+	private boolean interpolation;
+
+	/**
+	 * Abscisses de depart des singes, valables pour les singes du lot anime.
+	 */
+	private int[] xDeparts;
+
+	/**
+	 * Ordonnees de depart des singes, valables pour les singes du lot anime.
+	 */
+	private int[] yDeparts;
+
+	/**
+	 * Numero du dernier lot dans lequel chaque singe a ete deplace.
+	 */
+	private int[] lotsSinges;
+
+	/**
+	 * Abscisse de depart du pirate.
+	 */
+	private int xDepartPirate;
+
+	/**
+	 * Ordonnee de depart du pirate.
+	 */
+	private int yDepartPirate;
+
+	/**
+	 * Numero du dernier lot dans lequel le pirate a ete deplace.
+	 */
+	private int lotPirate;
+
+	/**
+	 * Numero du lot recevant les deplacements de l'image en cours.
+	 */
+	private int lotCourant;
+
+	/**
+	 * Numero du lot en cours d'animation, ou -1.
+	 */
+	private int lotAnime;
+
+	/**
+	 * Indique qu'un deplacement a ete recu dans le lot courant.
+	 */
+	private boolean lotModifie;
+
+	/**
+	 * Date de debut de l'animation du lot anime, en nanosecondes.
+	 */
+	private long debutAnimation;
+
+	/**
+	 * Duree de l'animation du lot anime, en nanosecondes.
+	 */
+	private long dureeAnimation;
+
+	/**
+	 * Constructeur de la vue.
+	 *
+	 * @param tailleCase la taille d'une case en nombre de pixels.
+	 * @param xGrille l'abscisse du coin superieur gauche de la grille (en
+	 *            pixels).
+	 * @param yGrille l'ordonnee du coin superieur gauche de la grille (en
+	 *            pixels).
+	 * @param largeur la largeur de la grille en pixels.
+	 * @param hauteur la hauteur de la grille en pixels.
+	 */
+	public VueSprites(int tailleCase, int xGrille, int yGrille, int largeur, int hauteur) {
+		super();
+		this.setOpaque(false);
+		this.xSinges = new int[CAPACITE_INITIALE];
+		this.ySinges = new int[CAPACITE_INITIALE];
+		this.xDeparts = new int[CAPACITE_INITIALE];
+		this.yDeparts = new int[CAPACITE_INITIALE];
+		this.lotsSinges = new int[CAPACITE_INITIALE];
+		this.secteursSinges = new int[CAPACITE_INITIALE];
+		this.suivants = new int[CAPACITE_INITIALE];
+		this.precedents = new int[CAPACITE_INITIALE];
+		this.premiersSecteurs = new int[0];
+		this.nbSinges = 0;
+		this.lotCourant = 1;
+		this.lotAnime = -1;
+		this.debutAnimation = System.nanoTime() - DUREE_ANIMATION_MAX;
+		this.setDimensions(tailleCase, xGrille, yGrille, largeur, hauteur);
+	}
+
+	/**
+	 * Change les dimensions de la vue en fonction de la taille des cases et de
+	 * la position de la grille.
+	 *
+	 * @param tailleCase la taille d'une case en nombre de pixels.
+	 * @param xGrille l'abscisse du coin superieur gauche de la grille (en
+	 *            pixels).
+	 * @param yGrille l'ordonnee du coin superieur gauche de la grille (en
+	 *            pixels).
+	 * @param largeur la largeur de la grille en pixels.
+	 * @param hauteur la hauteur de la grille en pixels.
+	 */
+	public final void setDimensions(int tailleCase, int xGrille, int yGrille,
+			int largeur, int hauteur) {
+		synchronized (this) {
+			this.tailleCase = tailleCase;
+			this.tailleImage = tailleCase - VueElement.DIFFERENCE_TAILLE_CASE_IMAGE;
+			final int tailleSecteur = Math.max(1, tailleCase * TAILLE_SECTEUR);
+			this.nbColonnesSecteurs = Math.max(1, (largeur + tailleSecteur - 1) / tailleSecteur);
+			this.nbLignesSecteurs = Math.max(1, (hauteur + tailleSecteur - 1) / tailleSecteur);
+			this.indexerSinges();
+		}
+		this.setBounds(xGrille, yGrille, largeur, hauteur);
+		this.repaint();
+	}
+
+	/**
+	 * Active ou desactive l'interpolation des positions. Les deplacements ne
+	 * sont alors plus redessines case par case mais a chaque appel d'animer.
+	 *
+	 * @param interpolation true pour faire glisser les personnages.
+	 */
+	public void setInterpolation(boolean interpolation) {
+		synchronized (this) {
+			this.interpolation = interpolation;
+			this.lotAnime = -1;
+			++this.lotCourant;
+			this.lotModifie = false;
+		}
+		this.repaint();
+	}
+
+	/**
+	 * Termine le lot de deplacements de l'image en cours et redessine les
+	 * personnages en cours d'animation. Appelee une fois par image par la
+	 * boucle de rendu ; sans effet sans interpolation.
+	 */
+	public void animer() {
+		final boolean redessiner;
+		synchronized (this) {
+			final long maintenant = System.nanoTime();
+			if (!this.interpolation) {
+				redessiner = false;
+			} else if (this.lotModifie) {
+				// L'ecart entre deux lots donne la duree de l'animation.
+				this.dureeAnimation = Math.min(maintenant - this.debutAnimation,
+						DUREE_ANIMATION_MAX);
+				this.debutAnimation = maintenant;
+				this.lotAnime = this.lotCourant++;
+				this.lotModifie = false;
+				redessiner = true;
+			} else if (this.lotAnime >= 0) {
+				if (this.avancement(maintenant) >= 1) {
+					// Dernier dessin, a la position d'arrivee.
+					this.lotAnime = -1;
+				}
+				redessiner = true;
+			} else {
+				redessiner = false;
+			}
+		}
+		if (redessiner) {
+			this.repaint();
+		}
+	}
+
+	/**
+	 * Ajoute un singe erratique a la table.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @param x l'abscisse du singe.
+	 * @param y l'ordonnee du singe.
+	 */
+	public void creationSinge(int id, int x, int y) {
+		synchronized (this) {
+			this.assureCapacite(id + 1);
+			this.xSinges[id] = x;
+			this.ySinges[id] = y;
+			this.ajouterSinges(id + 1);
+			this.indexerSinge(id);
+		}
+		this.repaintCase(x, y);
+	}
+
+	/**
+	 * Ajoute a la table l'ensemble des singes d'un lot, avec un seul
+	 * rafraichissement.
+	 *
+	 * @param creations les identifiants et positions des singes crees.
+	 */
+	public void creationsSinges(LotPositions creations) {
+		final int taille = creations.getTaille();
+		synchronized (this) {
+			for (int i = 0; i < taille; ++i) {
+				final int id = creations.getId(i);
+				this.assureCapacite(id + 1);
+				this.xSinges[id] = creations.getX(i);
+				this.ySinges[id] = creations.getY(i);
+				this.ajouterSinges(id + 1);
+				this.indexerSinge(id);
+			}
+		}
+		this.repaint();
+	}
+
+	/**
+	 * Deplace un singe erratique.
+	 *
+	 * @param id l'identifiant du singe.
+	 * @param x la nouvelle abscisse du singe.
+	 * @param y la nouvelle ordonnee du singe.
+	 */
+	public void deplacementSinge(int id, int x, int y) {
+		final int ancienX;
+		final int ancienY;
+		final boolean interpole;
+		synchronized (this) {
+			ancienX = this.xSinges[id];
+			ancienY = this.ySinges[id];
+			interpole = this.interpolation;
+			if (interpole && this.lotsSinges[id] != this.lotCourant) {
+				this.xDeparts[id] = ancienX;
+				this.yDeparts[id] = ancienY;
+				this.lotsSinges[id] = this.lotCourant;
+				this.lotModifie = true;
+			}
+			this.xSinges[id] = x;
+			this.ySinges[id] = y;
+			this.indexerSinge(id);
+		}
+		if (!interpole) {
+			this.repaintCase(ancienX, ancienY);
+			this.repaintCase(x, y);
+		}
+	}
+
+	/**
+	 * Deplace l'ensemble des singes d'un lot.
+	 *
+	 * @param deplacements les nouvelles positions des singes.
+	 */
+	public void deplacementsSinges(LotPositions deplacements) {
+		final int taille = deplacements.getTaille();
+		for (int i = 0; i < taille; ++i) {
+			this.deplacementSinge(deplacements.getId(i), deplacements.getX(i),
+					deplacements.getY(i));
+		}
+	}
+
+	/**
+	 * Ajoute le pirate.
+	 *
+	 * @param x l'abscisse du pirate.
+	 * @param y l'ordonnee du pirate.
+	 * @param avatar le lien vers l'avatar du pirate, ou null pour l'avatar
+	 *            par defaut.
+	 */
+	public void ajoutPirate(int x, int y, String avatar) {
+		synchronized (this) {
+			this.cheminPirate = (avatar == null) ? VuePirate.AVATAR_PIRATE : avatar;
+			this.xPirate = x;
+			this.yPirate = y;
+			this.pirateVisible = true;
+		}
+		this.repaintCase(x, y);
+	}
+
+	/**
+	 * Deplace le pirate.
+	 *
+	 * @param x la nouvelle abscisse du pirate.
+	 * @param y la nouvelle ordonnee du pirate.
+	 */
+	public void deplacementPirate(int x, int y) {
+		final int ancienX;
+		final int ancienY;
+		final boolean interpole;
+		synchronized (this) {
+			ancienX = this.xPirate;
+			ancienY = this.yPirate;
+			interpole = this.interpolation;
+			if (interpole && this.lotPirate != this.lotCourant) {
+				this.xDepartPirate = ancienX;
+				this.yDepartPirate = ancienY;
+				this.lotPirate = this.lotCourant;
+				this.lotModifie = true;
+			}
+			this.xPirate = x;
+			this.yPirate = y;
+		}
+		if (!interpole) {
+			this.repaintCase(ancienX, ancienY);
+			this.repaintCase(x, y);
+		}
+	}
+
+	/**
+	 * L'avatar du pirate devient un avatar de mort.
+	 */
+	public void mortPirate() {
+		synchronized (this) {
+			this.cheminPirate = VuePirate.AVATAR_PIRATE_MORT;
+		}
+		this.repaintCase(this.xPirate, this.yPirate);
+	}
+
+	/**
+	 * Ajoute le tresor.
+	 *
+	 * @param x l'abscisse du tresor.
+	 * @param y l'ordonnee du tresor.
+	 */
+	public void creationTresor(int x, int y) {
+		synchronized (this) {
+			this.xTresor = x;
+			this.yTresor = y;
+			this.tresorVisible = true;
+		}
+		this.repaintCase(x, y);
+	}
+
+	/**
+	 * Retire le tresor.
+	 */
+	public void suppressionTresor() {
+		synchronized (this) {
+			this.tresorVisible = false;
+		}
+		this.repaintCase(this.xTresor, this.yTresor);
+	}
+
+	/**
+	 * Remplace d'un bloc les singes, le pirate et le tresor par ceux de
+	 * l'etat restaure, avec un seul rafraichissement.
+	 *
+	 * @param etat l'etat restaure de l'ile.
+	 */
+	public void restauration(EtatIle etat) {
+		final int nombre = etat.getNbSinges();
+		synchronized (this) {
+			this.assureCapacite(nombre);
+			for (int id = 0; id < nombre; ++id) {
+				this.xSinges[id] = etat.getXSinge(id);
+				this.ySinges[id] = etat.getYSinge(id);
+			}
+			this.nbSinges = nombre;
+			this.indexerSinges();
+
+			if (!etat.isPirateVivant()) {
+				this.cheminPirate = VuePirate.AVATAR_PIRATE_MORT;
+			} else if (etat.getAvatarPirate() == null) {
+				this.cheminPirate = VuePirate.AVATAR_PIRATE;
+			} else {
+				this.cheminPirate = etat.getAvatarPirate();
+			}
+			this.xPirate = etat.getXPirate();
+			this.yPirate = etat.getYPirate();
+			this.pirateVisible = true;
+
+			this.xTresor = etat.getXTresor();
+			this.yTresor = etat.getYTresor();
+			this.tresorVisible = etat.isTresor();
+
+			// Les personnages restaures ne glissent pas depuis l'ancien etat.
+			this.lotAnime = -1;
+			++this.lotCourant;
+			this.lotModifie = false;
+		}
+		this.repaint();
+	}
+
+	/**
+	 * Dessine le tresor, les singes puis le pirate.
+	 *
+	 * @param g le graphique dans lequel dessiner.
+	 */
+	@Override
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+		final Rectangle zone = g.getClipBounds();
+
+		synchronized (this) {
+			final int lot = this.lotAnime;
+			final float avancement = (lot < 0) ? 1 : this.avancement(System.nanoTime());
+			if (this.tresorVisible) {
+				this.dessineImage(g, zone, CacheImages.getImage(VueTresor.IMAGE_TRESOR,
+						this.tailleImage), this.xTresor, this.yTresor);
+			}
+			final BufferedImage imageSinge = CacheImages.getImage(
+					VueSingeErratique.IMAGE_SINGE_ERRATIQUE, this.tailleImage);
+			if (avancement < 1 || zone == null || this.tailleCase <= 0) {
+				// Pendant une animation, un singe peut etre dessine loin de sa
+				// case ; la boucle de rendu redessine alors tout le composant.
+				for (int i = 0; i < this.nbSinges; ++i) {
+					if (avancement < 1 && this.lotsSinges[i] == lot) {
+						this.dessineImagePixels(g, zone, imageSinge,
+								this.pixel(this.xDeparts[i], this.xSinges[i], avancement),
+								this.pixel(this.yDeparts[i], this.ySinges[i], avancement));
+					} else {
+						this.dessineImage(g, zone, imageSinge, this.xSinges[i], this.ySinges[i]);
+					}
+				}
+			} else {
+				this.dessineSecteurs(g, zone, imageSinge);
+			}
+			if (this.pirateVisible) {
+				final BufferedImage imagePirate = CacheImages.getImage(this.cheminPirate,
+						this.tailleImage);
+				if (avancement < 1 && this.lotPirate == lot) {
+					this.dessineImagePixels(g, zone, imagePirate,
+							this.pixel(this.xDepartPirate, this.xPirate, avancement),
+							this.pixel(this.yDepartPirate, this.yPirate, avancement));
+				} else {
+					this.dessineImage(g, zone, imagePirate, this.xPirate, this.yPirate);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Dessine les singes des secteurs couverts par la zone a redessiner.
+	 *
+	 * @param g le graphique dans lequel dessiner.
+	 * @param zone la zone a redessiner.
+	 * @param imageSinge l'image d'un singe, deja a la taille d'affichage.
+	 */
+	private void dessineSecteurs(Graphics g, Rectangle zone, BufferedImage imageSinge) {
+		final int tailleSecteur = this.tailleCase * TAILLE_SECTEUR;
+		final int colonneMin = this.colonneSecteur(Math.floorDiv(zone.x, tailleSecteur));
+		final int colonneMax = this.colonneSecteur(Math.floorDiv(zone.x + zone.width - 1,
+				tailleSecteur));
+		final int ligneMin = this.ligneSecteur(Math.floorDiv(zone.y, tailleSecteur));
+		final int ligneMax = this.ligneSecteur(Math.floorDiv(zone.y + zone.height - 1,
+				tailleSecteur));
+		for (int ligne = ligneMin; ligne <= ligneMax; ++ligne) {
+			for (int colonne = colonneMin; colonne <= colonneMax; ++colonne) {
+				int i = this.premiersSecteurs[ligne * this.nbColonnesSecteurs + colonne];
+				while (i != AUCUN) {
+					this.dessineImage(g, zone, imageSinge, this.xSinges[i], this.ySinges[i]);
+					i = this.suivants[i];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Calcule la colonne de secteur d'une position, ramenee dans la grille des
+	 * secteurs.
+	 *
+	 * @param colonne la colonne de secteur, eventuellement hors de la grille.
+	 * @return la colonne de secteur dans la grille.
+	 */
+	private int colonneSecteur(int colonne) {
+		return Math.max(0, Math.min(this.nbColonnesSecteurs - 1, colonne));
+	}
+
+	/**
+	 * Calcule la ligne de secteur d'une position, ramenee dans la grille des
+	 * secteurs.
+	 *
+	 * @param ligne la ligne de secteur, eventuellement hors de la grille.
+	 * @return la ligne de secteur dans la grille.
+	 */
+	private int ligneSecteur(int ligne) {
+		return Math.max(0, Math.min(this.nbLignesSecteurs - 1, ligne));
+	}
+
+	/**
+	 * Range un singe dans le secteur de sa case, en le retirant de son ancien
+	 * secteur.
+	 *
+	 * @param id l'identifiant du singe.
+	 */
+	private void indexerSinge(int id) {
+		final int secteur = this.ligneSecteur(Math.floorDiv(this.ySinges[id], TAILLE_SECTEUR))
+				* this.nbColonnesSecteurs
+				+ this.colonneSecteur(Math.floorDiv(this.xSinges[id], TAILLE_SECTEUR));
+		final int ancien = this.secteursSinges[id];
+		if (secteur != ancien) {
+			if (ancien != AUCUN) {
+				final int precedent = this.precedents[id];
+				final int suivant = this.suivants[id];
+				if (precedent == AUCUN) {
+					this.premiersSecteurs[ancien] = suivant;
+				} else {
+					this.suivants[precedent] = suivant;
+				}
+				if (suivant != AUCUN) {
+					this.precedents[suivant] = precedent;
+				}
+			}
+			final int premier = this.premiersSecteurs[secteur];
+			this.precedents[id] = AUCUN;
+			this.suivants[id] = premier;
+			if (premier != AUCUN) {
+				this.precedents[premier] = id;
+			}
+			this.premiersSecteurs[secteur] = id;
+			this.secteursSinges[id] = secteur;
+		}
+	}
+
+	/**
+	 * Reconstruit les secteurs de tous les singes, apres un changement de
+	 * dimensions ou une restauration.
+	 */
+	private void indexerSinges() {
+		this.premiersSecteurs = new int[this.nbColonnesSecteurs * this.nbLignesSecteurs];
+		Arrays.fill(this.premiersSecteurs, AUCUN);
+		Arrays.fill(this.secteursSinges, AUCUN);
+		for (int id = 0; id < this.nbSinges; ++id) {
+			this.indexerSinge(id);
+		}
+	}
+
+	/**
+	 * Etend la table aux singes d'identifiant inferieur au nombre indique ;
+	 * les singes ajoutes ne sont dans aucun secteur.
+	 *
+	 * @param nombre le nouveau nombre minimal de singes.
+	 */
+	private void ajouterSinges(int nombre) {
+		if (nombre > this.nbSinges) {
+			Arrays.fill(this.secteursSinges, this.nbSinges, nombre, AUCUN);
+			this.nbSinges = nombre;
+		}
+	}
+
+	/**
+	 * Calcule l'avancement de l'animation du lot anime.
+	 *
+	 * @param maintenant la date courante, en nanosecondes.
+	 * @return l'avancement, entre 0 et 1.
+	 */
+	private float avancement(long maintenant) {
+		final float avancement;
+		if (this.dureeAnimation <= 0) {
+			avancement = 1;
+		} else {
+			avancement = Math.min(1f, (float) (maintenant - this.debutAnimation)
+					/ this.dureeAnimation);
+		}
+		return avancement;
+	}
+
+	/**
+	 * Calcule la coordonnee en pixels d'un personnage en cours de deplacement.
+	 *
+	 * @param depart la coordonnee de la case de depart.
+	 * @param arrivee la coordonnee de la case d'arrivee.
+	 * @param avancement l'avancement du deplacement, entre 0 et 1.
+	 * @return la coordonnee interpolee, en pixels.
+	 */
+	private int pixel(int depart, int arrivee, float avancement) {
+		return Math.round((depart + (arrivee - depart) * avancement) * this.tailleCase)
+				+ VueElement.DIFFERENCE_PLACEMENT_CASE_IMAGE;
+	}
+
+	/**
+	 * Dessine une image sur la case indiquee si elle intersecte la zone a
+	 * redessiner.
+	 *
+	 * @param g le graphique dans lequel dessiner.
+	 * @param zone la zone a redessiner, ou null pour tout le composant.
+	 * @param image l'image a dessiner, deja a la taille d'affichage.
+	 * @param x l'abscisse de la case.
+	 * @param y l'ordonnee de la case.
+	 */
+	private void dessineImage(Graphics g, Rectangle zone, BufferedImage image, int x, int y) {
+		this.dessineImagePixels(g, zone, image,
+				x * this.tailleCase + VueElement.DIFFERENCE_PLACEMENT_CASE_IMAGE,
+				y * this.tailleCase + VueElement.DIFFERENCE_PLACEMENT_CASE_IMAGE);
+	}
+
+	/**
+	 * Dessine une image a la position en pixels indiquee si elle intersecte la
+	 * zone a redessiner.
+	 *
+	 * @param g le graphique dans lequel dessiner.
+	 * @param zone la zone a redessiner, ou null pour tout le composant.
+	 * @param image l'image a dessiner, deja a la taille d'affichage.
+	 * @param xImage l'abscisse de l'image, en pixels.
+	 * @param yImage l'ordonnee de l'image, en pixels.
+	 */
+	private void dessineImagePixels(Graphics g, Rectangle zone, BufferedImage image, int xImage,
+			int yImage) {
+		if (zone == null || zone.intersects(xImage, yImage, this.tailleImage, this.tailleImage)) {
+			g.drawImage(image, xImage, yImage, null);
+		}
+	}
+
+	/**
+	 * Agrandit si necessaire la table des singes.
+	 *
+	 * @param capacite le nombre de singes que la table doit pouvoir contenir.
+	 */
+	private void assureCapacite(int capacite) {
+		if (capacite > this.xSinges.length) {
+			final int nouvelleCapacite = Math.max(capacite, this.xSinges.length * 2);
+			this.xSinges = Arrays.copyOf(this.xSinges, nouvelleCapacite);
+			this.ySinges = Arrays.copyOf(this.ySinges, nouvelleCapacite);
+			this.xDeparts = Arrays.copyOf(this.xDeparts, nouvelleCapacite);
+			this.yDeparts = Arrays.copyOf(this.yDeparts, nouvelleCapacite);
+			this.lotsSinges = Arrays.copyOf(this.lotsSinges, nouvelleCapacite);
+			this.secteursSinges = Arrays.copyOf(this.secteursSinges, nouvelleCapacite);
+			this.suivants = Arrays.copyOf(this.suivants, nouvelleCapacite);
+			this.precedents = Arrays.copyOf(this.precedents, nouvelleCapacite);
+		}
+	}
+
+	/**
+	 * Demande a redessiner la case indiquee.
+	 *
+	 * @param x l'abscisse de la case.
+	 * @param y l'ordonnee de la case.
+	 */
+	private void repaintCase(int x, int y) {
+		final int taille;
+		synchronized (this) {
+			taille = this.tailleCase;
+		}
+		this.repaint(x * taille, y * taille, taille + 1, taille + 1);
+	}
+}
@@ -1,11 +1,5 @@
 package tinymonkeys.vue;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.logging.Logger;
-
-import javax.imageio.ImageIO;
-
 /**
  * Classe de la vue d'un tresor.
  * 
@@ -24,9 +18,7 @@ public class VueTresor extends VueElement {
 	/**
 	 * Emplacement de l'image d'une banane.
 	 */
-	private static final String IMAGE_TRESOR = "./img/Tresor.png";
-	
-	private static final Logger log = Logger.getGlobal();
+	static final String IMAGE_TRESOR = "./img/Tresor.png";
 
 	/**
 	 * La vue d'un tresor.
@@ -42,13 +34,7 @@ public class VueTresor extends VueElement {
 	public VueTresor(int tailleCase, int xGrille, int yGrille, int x, int y) {
 		super(tailleCase, xGrille, yGrille, x, y);
 
-		try {
-			final File input = new File(IMAGE_TRESOR);
-			this.setImageElement(ImageIO.read(input));
-		} catch (IOException ie) {
-			log.info("Error:" + ie.getMessage());
-		}
-
+		this.setCheminImage(IMAGE_TRESOR);
 	}
 
 }
@@ -0,0 +1,68 @@
+package tinymonkeys.controleur;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test de la simulation sans affichage : son point d'entree tourne
+ * en mode java.awt.headless sans charger aucune classe graphique.
+ *
+ */
+public class TestSimulationSansAffichage {
+
+	/**
+	 * Prefixes des classes graphiques qui ne doivent pas etre chargees.
+	 */
+	private static final List<String> PREFIXES_INTERDITS = Arrays.asList("java.awt.",
+			"javax.swing.", "tinymonkeys.vue.");
+
+	/**
+	 * Le point d'entrée, lancé dans une machine virtuelle séparée en mode
+	 * headless, se termine normalement sans charger de classe AWT, Swing ou
+	 * de la vue.
+	 *
+	 * @throws IOException si la machine virtuelle ne peut pas être lancée.
+	 * @throws InterruptedException si le test est interrompu.
+	 */
+	@Test
+	public void testSansClasseGraphique() throws IOException, InterruptedException {
+		final String java = System.getProperty("java.home") + File.separator + "bin"
+				+ File.separator + "java";
+		final ProcessBuilder commande = new ProcessBuilder(java, "-Djava.awt.headless=true",
+				"-verbose:class", "-cp", System.getProperty("java.class.path"),
+				SimulationSansAffichage.class.getName(), "20", "20", "30", "50");
+		commande.redirectErrorStream(true);
+		final Process processus = commande.start();
+
+		final List<String> chargees = new ArrayList<String>();
+		try (BufferedReader sortie = new BufferedReader(new InputStreamReader(
+				processus.getInputStream(), StandardCharsets.UTF_8))) {
+			String ligne = sortie.readLine();
+			while (ligne != null) {
+				for (final String prefixe : PREFIXES_INTERDITS) {
+					if (ligne.contains(" " + prefixe) || ligne.contains("[" + prefixe)) {
+						chargees.add(ligne);
+					}
+				}
+				ligne = sortie.readLine();
+			}
+		}
+
+		assertEquals("Code de sortie", 0, processus.waitFor());
+		assertTrue("Classes graphiques chargées : " + chargees, chargees.isEmpty());
+	}
+}
@@ -0,0 +1,40 @@
+package tinymonkeys.modele;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Îles partagées par les classes de test du modèle.
+ *
+ */
+final class CartesDeTest {
+
+	/**
+	 * Constructeur privé : classe utilitaire.
+	 */
+	private CartesDeTest() {
+	}
+
+	/**
+	 * Construit une île rectangulaire de terre bordée de mer, avec son trésor,
+	 * ses singes erratiques et son pirate.
+	 *
+	 * @param graine la graine de l'île.
+	 * @param largeur la largeur de la carte en nombre de cases.
+	 * @param hauteur la hauteur de la carte en nombre de cases.
+	 * @param compact true pour le stockage compact des singes.
+	 * @param nbSinges le nombre de singes erratiques.
+	 * @param avatar l'avatar du pirate.
+	 * @return l'île.
+	 */
+	static Ile ilePeuplee(long graine, int largeur, int hauteur, boolean compact,
+			int nbSinges, String avatar) {
+		final Ile ile = new Ile(graine);
+		ile.getSingesErratiques().setStockageCompact(compact);
+		ile.creationCarte(Carte.rectangulaire(largeur, hauteur));
+		ile.creationTresor();
+		ile.ajoutSingesErratiques(nbSinges);
+		ile.ajoutPirate(avatar);
+		return ile;
+	}
+}
@@ -0,0 +1,184 @@
+package tinymonkeys.modele;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Vector;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test du peuplement de l'ile par la bande de singes erratiques :
+ * positions distinctes sur la terre, identifiants et notification groupee.
+ *
+ */
+public class TestBandeDeSingesErratiques {
+
+	/**
+	 * Largeur de la carte en nombre de cases.
+	 */
+	private static final int LARGEUR_GRILLE = 20;
+
+	/**
+	 * Hauteur de la carte en nombre de cases.
+	 */
+	private static final int HAUTEUR_GRILLE = 10;
+
+	private Ile island;
+	private LotPositions dernierLot;
+	private int nbLots;
+
+	/**
+	 * Méthode éxecutée avant chaque test.
+	 */
+	@Before
+	public void setUp() {
+		island = new Ile();
+		island.creationCarte(Carte.rectangulaire(LARGEUR_GRILLE, HAUTEUR_GRILLE));
+		nbLots = 0;
+		island.getSingesErratiques().enregistreEcBandeSinges(new BandeDeSingesErratiquesEcouteur() {
+
+			@Override
+			public void creationSingeErratique(int id, int x, int y) {
+				throw new AssertionError("Création notifiée singe par singe");
+			}
+
+			@Override
+			public void creationsSingesErratiques(LotPositions creations) {
+				++nbLots;
+				dernierLot = creations;
+			}
+
+			@Override
+			public void deplacementSingeErratique(int id, int x, int y) {
+				// Aucun déplacement dans ces tests.
+			}
+		});
+	}
+
+	/**
+	 * Les singes sont créés sur des cases terre distinctes, avec des
+	 * identifiants consécutifs, et notifiés en un seul lot par ajout.
+	 */
+	@Test
+	public void testPeuplement() {
+		island.ajoutSingesErratiques(30);
+		island.ajoutSingesErratiques(20);
+
+		final Vector<SingeErratique> singes = island.getSingesErratiques().getSingesErratiques();
+		assertEquals("Nombre de singes", 50, singes.size());
+		assertEquals("Nombre de notifications", 2, nbLots);
+		assertEquals("Taille du second lot", 20, dernierLot.getTaille());
+		assertEquals("Identifiant du premier singe du second lot", 30, dernierLot.getId(0));
+
+		final boolean[] occupees = new boolean[LARGEUR_GRILLE * HAUTEUR_GRILLE];
+		for (final SingeErratique singe : singes) {
+			final int indice = singe.getY() * LARGEUR_GRILLE + singe.getX();
+			assertTrue("Deux singes sur la même case", !occupees[indice]);
+			assertTrue("Singe à la mer", island.isTerre(singe.getX(), singe.getY()));
+			occupees[indice] = true;
+		}
+	}
+
+	/**
+	 * Une demande dépassant la capacité de l'ile laisse de la place au pirate.
+	 */
+	@Test
+	public void testPeuplementPlafonne() {
+		island.ajoutSingesErratiques(LARGEUR_GRILLE * HAUTEUR_GRILLE);
+
+		final int nbTerres = (LARGEUR_GRILLE - 2) * (HAUTEUR_GRILLE - 2);
+		assertEquals("Nombre de singes", nbTerres - 2,
+				island.getSingesErratiques().getSingesErratiques().size());
+
+		island.ajoutPirate(null);
+		assertTrue("Pirate sur un singe",
+				island.isLibre(island.getPirate().getX(), island.getPirate().getY()));
+	}
+
+	/**
+	 * En stockage compact, les singes restent sur des cases terre distinctes
+	 * au fil des ticks, et la grille d'occupation suit leurs positions.
+	 */
+	@Test
+	public void testStockageCompact() {
+		final BandeDeSingesErratiques bande = island.getSingesErratiques();
+		bande.setStockageCompact(true);
+		island.ajoutSingesErratiques(40);
+		assertEquals("Nombre de singes", 40, bande.getNbSinges());
+		assertEquals("Taille du lot", 40, dernierLot.getTaille());
+
+		for (int tick = 0; tick < 20; ++tick) {
+			bande.deplacerSinges();
+			final boolean[] occupees = new boolean[LARGEUR_GRILLE * HAUTEUR_GRILLE];
+			for (final SingeErratique singe : bande.getSingesErratiques()) {
+				final int indice = singe.getY() * LARGEUR_GRILLE + singe.getX();
+				assertTrue("Deux singes sur la même case", !occupees[indice]);
+				assertTrue("Singe à la mer", island.isTerre(singe.getX(), singe.getY()));
+				assertTrue("Case du singe libre", !island.isLibre(singe.getX(), singe.getY()));
+				occupees[indice] = true;
+			}
+		}
+
+		final SingeErratique vue = bande.getSinge(0);
+		final int x = vue.getX();
+		final int y = vue.getY();
+		vue.deplacerSinge();
+		assertTrue("Ancienne case non libérée",
+				vue.coordonneesEgales(x, y) || island.isLibre(x, y));
+		assertTrue("Déplacement de la vue non stocké",
+				bande.getSinge(0).coordonneesEgales(vue.getX(), vue.getY()));
+	}
+
+	/**
+	 * Le stockage d'une bande déjà peuplée ne peut pas être changé.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testChangementStockageBandeNonVide() {
+		island.ajoutSingesErratiques(1);
+		island.getSingesErratiques().setStockageCompact(true);
+	}
+
+	/**
+	 * Deux iles de même graine évoluent de manière identique, que les singes
+	 * soient stockés dans le vecteur ou sous forme compacte.
+	 */
+	@Test
+	public void testReproductibilite() {
+		final Ile[] iles = { ilePeuplee(7L, false), ilePeuplee(7L, false), ilePeuplee(7L, true) };
+		for (int tick = 0; tick < 30; ++tick) {
+			for (final Ile ile : iles) {
+				ile.getSingesErratiques().deplacerSinges();
+			}
+			for (int i = 1; i < iles.length; ++i) {
+				assertEquals("Abscisse du pirate", iles[0].getPirate().getX(),
+						iles[i].getPirate().getX());
+				assertEquals("Ordonnée du pirate", iles[0].getPirate().getY(),
+						iles[i].getPirate().getY());
+				for (int id = 0; id < 40; ++id) {
+					final SingeErratique reference = iles[0].getSingesErratiques().getSinge(id);
+					assertTrue("Singe " + id + " divergent au tick " + tick,
+							iles[i].getSingesErratiques().getSinge(id)
+									.coordonneesEgales(reference.getX(), reference.getY()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Construit une ile peuplée de quarante singes, de son trésor et de son
+	 * pirate.
+	 *
+	 * @param graine la graine de l'ile.
+	 * @param compact true pour le stockage compact des singes.
+	 * @return l'ile.
+	 */
+	private static Ile ilePeuplee(long graine, boolean compact) {
+		return CartesDeTest.ilePeuplee(graine, LARGEUR_GRILLE, HAUTEUR_GRILLE, compact, 40, null);
+	}
+
+}
@@ -0,0 +1,133 @@
+package tinymonkeys.modele;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test de la carte compacte de l'ile.
+ *
+ */
+public class TestCarte {
+
+	/**
+	 * La conversion d'une matrice terre-mer conserve le terrain de chaque
+	 * case.
+	 */
+	@Test
+	public void testDepuisMatrice() {
+		final int[][] matrice = new int[3][2];
+		matrice[2][0] = 1;
+		matrice[1][1] = 1;
+
+		final Carte carte = Carte.depuisMatrice(matrice);
+		assertEquals("Largeur", 3, carte.getLargeur());
+		assertEquals("Hauteur", 2, carte.getHauteur());
+		for (int x = 0; x < 3; ++x) {
+			for (int y = 0; y < 2; ++y) {
+				assertEquals("Terrain de la case " + x + "," + y, matrice[x][y],
+						carte.getTerrain(x, y));
+			}
+		}
+		assertEquals("Rangement ligne par ligne", Carte.TERRE, carte.getTerrain(1 * 3 + 1));
+	}
+
+	/**
+	 * Une case hors de la carte n'est jamais de la terre.
+	 */
+	@Test
+	public void testHorsCarte() {
+		final Carte carte = new Carte(2, 2, new byte[] { 1, 1, 1, 1 });
+		assertTrue("Case terre", carte.isTerre(1, 1));
+		assertFalse("Abscisse négative", carte.isTerre(-1, 0));
+		assertFalse("Ordonnée hors carte", carte.isTerre(0, 2));
+	}
+
+	/**
+	 * Une carte écrite puis rechargée depuis le disque est identique.
+	 *
+	 * @throws IOException en cas d'erreur d'entrée-sortie.
+	 */
+	@Test
+	public void testFichierCarte() throws IOException {
+		final byte[] cases = new byte[7 * 5];
+		for (int i = 0; i < cases.length; i += 3) {
+			cases[i] = Carte.TERRE;
+		}
+		final Path fichier = Files.createTempFile("tinymonkeys", ".carte");
+		try {
+			FichierCarte.ecrire(new Carte(7, 5, cases), fichier);
+			assertEquals("Taille du fichier", FichierCarte.TAILLE_EN_TETE + cases.length,
+					Files.size(fichier));
+
+			final Carte carte = FichierCarte.charger(fichier);
+			assertEquals("Largeur", 7, carte.getLargeur());
+			assertEquals("Hauteur", 5, carte.getHauteur());
+			assertEquals("Nombre de cases terre", 12, carte.getNbTerres());
+			for (int i = 0; i < cases.length; ++i) {
+				assertEquals("Terrain de la case " + i, cases[i], carte.getTerrain(i));
+			}
+		} finally {
+			Files.delete(fichier);
+		}
+	}
+
+	/**
+	 * Le nombre de cases terre est lu dans l'en-tête, sans parcourir les
+	 * cases ; une carte de la version 1 le compte au premier besoin.
+	 *
+	 * @throws IOException en cas d'erreur d'entrée-sortie.
+	 */
+	@Test
+	public void testNombreTerresEnTete() throws IOException {
+		final Path fichier = Files.createTempFile("tinymonkeys", ".carte");
+		try {
+			// En-tête annonçant une terre, sur une carte qui en compte deux.
+			Files.write(fichier, new byte[] { 'T', 'M', 'C', 'A', 0, 0, 0, 2, 0, 0, 0, 2, 0, 0,
+				0, 1, 0, 0, 0, 1, 1, 1 });
+			assertEquals("Nombre lu dans l'en-tête", 1,
+					FichierCarte.charger(fichier).getNbTerres());
+
+			Files.write(fichier, new byte[] { 'T', 'M', 'C', 'A', 0, 0, 0, 1, 0, 0, 0, 2, 0, 0,
+				0, 1, 1, 1 });
+			assertEquals("Nombre compté en version 1", 2,
+					FichierCarte.charger(fichier).getNbTerres());
+		} finally {
+			Files.delete(fichier);
+		}
+	}
+
+	/**
+	 * Un fichier qui n'est pas une carte est refusé.
+	 *
+	 * @throws IOException attendue.
+	 */
+	@Test(expected = IOException.class)
+	public void testFichierInvalide() throws IOException {
+		final Path fichier = Files.createTempFile("tinymonkeys", ".carte");
+		try {
+			Files.write(fichier, new byte[] { 'P', 'N', 'G', 0, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 1 });
+			FichierCarte.charger(fichier);
+		} finally {
+			Files.delete(fichier);
+		}
+	}
+
+	/**
+	 * Des dimensions incohérentes avec le nombre de cases sont refusées.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testDimensionsInvalides() {
+		new Carte(3, 3, new byte[8]);
+	}
+
+}
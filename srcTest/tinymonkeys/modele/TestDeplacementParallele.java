@@ -0,0 +1,156 @@
+package tinymonkeys.modele;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test du mode de deplacement parallele de la bande de singes
+ * erratiques : absence de collision et reproductibilite pour une graine
+ * donnee.
+ *
+ */
+public class TestDeplacementParallele {
+
+	/**
+	 * Largeur de la carte en nombre de cases.
+	 */
+	private static final int LARGEUR_GRILLE = 80;
+
+	/**
+	 * Hauteur de la carte en nombre de cases.
+	 */
+	private static final int HAUTEUR_GRILLE = 60;
+
+	/**
+	 * Ecart entre deux singes lors de leur placement initial.
+	 */
+	private static final int PAS_PLACEMENT = 2;
+
+	/**
+	 * Nombre de ticks simulés.
+	 */
+	private static final int NB_TICKS = 200;
+
+	/**
+	 * Graine des générateurs aléatoires.
+	 */
+	private static final long GRAINE = 42L;
+
+	/**
+	 * Pools de threads créés par le test en cours.
+	 */
+	private final List<ForkJoinPool> pools = new ArrayList<ForkJoinPool>();
+
+	/**
+	 * Méthode éxecutée après chaque test : arrête les pools de threads.
+	 */
+	@After
+	public void tearDown() {
+		for (final ForkJoinPool pool : pools) {
+			pool.shutdown();
+		}
+		pools.clear();
+	}
+
+	/**
+	 * Deux singes ne se retrouvent jamais sur la même case, et restent sur la
+	 * terre.
+	 */
+	@Test
+	public void testAucuneCollision() {
+		final Ile island = ilePeuplee(nouveauPool(4));
+		final Vector<SingeErratique> singes = island.getSingesErratiques().getSingesErratiques();
+
+		for (int t = 0; t < NB_TICKS; ++t) {
+			island.getSingesErratiques().deplacerSinges();
+
+			final boolean[] occupees = new boolean[LARGEUR_GRILLE * HAUTEUR_GRILLE];
+			for (final SingeErratique singe : singes) {
+				final int indice = singe.getY() * LARGEUR_GRILLE + singe.getX();
+				assertTrue("Deux singes sur la même case", !occupees[indice]);
+				assertTrue("Singe à la mer", island.isTerre(singe.getX(), singe.getY()));
+				occupees[indice] = true;
+			}
+		}
+	}
+
+	/**
+	 * Deux simulations de même graine produisent les mêmes positions, quel
+	 * que soit le nombre de threads.
+	 */
+	@Test
+	public void testReproductibilite() {
+		final Ile ile1 = ilePeuplee(nouveauPool(1));
+		final Ile ile4 = ilePeuplee(nouveauPool(4));
+
+		for (int t = 0; t < NB_TICKS; ++t) {
+			ile1.getSingesErratiques().deplacerSinges();
+			ile4.getSingesErratiques().deplacerSinges();
+		}
+
+		assertArrayEquals("Simulations divergentes", positions(ile1), positions(ile4));
+	}
+
+	/**
+	 * Crée un pool de threads, arrêté à la fin du test.
+	 *
+	 * @param nbThreads le nombre de threads du pool.
+	 * @return le pool.
+	 */
+	private ForkJoinPool nouveauPool(int nbThreads) {
+		final ForkJoinPool pool = new ForkJoinPool(nbThreads);
+		pools.add(pool);
+		return pool;
+	}
+
+	/**
+	 * Construit une ile dont la bordure est de la mer, peuplée de singes
+	 * placés régulièrement, en mode parallèle.
+	 *
+	 * @param pool le pool de threads à utiliser.
+	 * @return l'ile.
+	 */
+	private static Ile ilePeuplee(ForkJoinPool pool) {
+		final Ile island = CartesDeTest.ilePeuplee(GRAINE, LARGEUR_GRILLE, HAUTEUR_GRILLE, false,
+				0, null);
+		island.getSingesErratiques().setModeParallele(pool, GRAINE);
+
+		final Vector<SingeErratique> singes = island.getSingesErratiques().getSingesErratiques();
+		for (int i = 1; i < LARGEUR_GRILLE - 1; i += PAS_PLACEMENT) {
+			for (int j = 1; j < HAUTEUR_GRILLE - 1; j += PAS_PLACEMENT) {
+				if (island.isLibre(i, j)) {
+					singes.add(new SingeErratique(i, j, island));
+				}
+			}
+		}
+		return island;
+	}
+
+	/**
+	 * Relève les positions de tous les singes de l'ile.
+	 *
+	 * @param island l'ile.
+	 * @return les coordonnées des singes, deux par singe.
+	 */
+	private static int[] positions(Ile island) {
+		final Vector<SingeErratique> singes = island.getSingesErratiques().getSingesErratiques();
+		final int[] positions = new int[2 * singes.size()];
+		for (int i = 0; i < singes.size(); ++i) {
+			positions[2 * i] = singes.get(i).getX();
+			positions[2 * i + 1] = singes.get(i).getY();
+		}
+		return positions;
+	}
+
+}
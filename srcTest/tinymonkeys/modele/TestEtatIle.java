@@ -0,0 +1,260 @@
+package tinymonkeys.modele;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test de la capture et de la restauration de l'etat d'une ile.
+ *
+ */
+public class TestEtatIle {
+
+	/**
+	 * Largeur de la carte en nombre de cases.
+	 */
+	private static final int LARGEUR_GRILLE = 30;
+
+	/**
+	 * Hauteur de la carte en nombre de cases.
+	 */
+	private static final int HAUTEUR_GRILLE = 20;
+
+	/**
+	 * Nombre de singes de l'ile.
+	 */
+	private static final int NB_SINGES = 40;
+
+	/**
+	 * Un état écrit puis relu et restauré dans une autre île la rend
+	 * identique à l'île capturée, dans les deux modes de stockage.
+	 *
+	 * @throws IOException en cas d'erreur d'entrée-sortie.
+	 */
+	@Test
+	public void testEcritureRestauration() throws IOException {
+		for (final boolean compact : new boolean[] { false, true }) {
+			final Ile source = ilePeuplee(compact);
+			final EtatIle etat = source.capturerEtat();
+
+			final Path fichier = Files.createTempFile("tinymonkeys", ".etat");
+			try {
+				FichierEtat.ecrire(etat, fichier);
+				final Ile cible = new Ile(99L);
+				cible.getSingesErratiques().setStockageCompact(compact);
+				cible.restaurerEtat(FichierEtat.charger(fichier));
+				verifierIdentiques(source, cible);
+			} finally {
+				Files.delete(fichier);
+			}
+		}
+	}
+
+	/**
+	 * La restauration n'émet qu'une notification de l'île, et aucune de la
+	 * bande de singes ni du pirate.
+	 */
+	@Test
+	public void testNotificationUnique() {
+		final EtatIle etat = ilePeuplee(false).capturerEtat();
+		final Ile cible = new Ile(5L);
+		final int[] restaurations = new int[1];
+		final int[] autres = new int[1];
+		cible.enregistreEcIle(new IleEcouteur() {
+			@Override
+			public void creationCarte(Carte carte) {
+				++autres[0];
+			}
+
+			@Override
+			public void changementCarte(Carte carte) {
+				++autres[0];
+			}
+
+			@Override
+			public void creationSingeErratique(int id, int x, int y) {
+				++autres[0];
+			}
+
+			@Override
+			public void deplacementSingeErratique(int id, int x, int y) {
+				++autres[0];
+			}
+
+			@Override
+			public void creationTresor(int x, int y) {
+				++autres[0];
+			}
+
+			@Override
+			public void suppressionTresor() {
+				++autres[0];
+			}
+
+			@Override
+			public void restaurationEtat(EtatIle restaure) {
+				++restaurations[0];
+			}
+		});
+		cible.getSingesErratiques().enregistreEcBandeSinges(new BandeDeSingesErratiquesEcouteur() {
+			@Override
+			public void creationSingeErratique(int id, int x, int y) {
+				++autres[0];
+			}
+
+			@Override
+			public void deplacementSingeErratique(int id, int x, int y) {
+				++autres[0];
+			}
+		});
+
+		cible.restaurerEtat(etat);
+		assertEquals("Notifications de restauration", 1, restaurations[0]);
+		assertEquals("Autres notifications", 0, autres[0]);
+	}
+
+	/**
+	 * Un fichier qui n'est pas un état est refusé.
+	 *
+	 * @throws IOException en cas d'erreur d'entrée-sortie.
+	 */
+	@Test
+	public void testFichierInvalide() throws IOException {
+		final Path fichier = Files.createTempFile("tinymonkeys", ".etat");
+		try {
+			FichierEtat.ecrire(ilePeuplee(false).capturerEtat(), fichier);
+			final byte[] octets = Files.readAllBytes(fichier);
+			Files.write(fichier, Arrays.copyOf(octets, octets.length - 1));
+			try {
+				FichierEtat.charger(fichier);
+				fail("Fichier tronqué accepté");
+			} catch (final IOException e) {
+				// Attendu.
+			}
+		} finally {
+			Files.delete(fichier);
+		}
+	}
+
+	/**
+	 * Un état dont deux singes occupent la même case est refusé.
+	 *
+	 * @throws IOException en cas d'erreur d'entrée-sortie.
+	 */
+	@Test
+	public void testSingesSurLaMemeCase() throws IOException {
+		final EtatIle etat = ilePeuplee(false).capturerEtat();
+		verifierRefus(etat, 1, etat.getCaseSinge(0), "Deux singes sur la même case acceptés");
+	}
+
+	/**
+	 * Un état dont un singe est dans la mer est refusé.
+	 *
+	 * @throws IOException en cas d'erreur d'entrée-sortie.
+	 */
+	@Test
+	public void testSingeDansLaMer() throws IOException {
+		// La case 0, dans un coin de la carte, est de la mer.
+		verifierRefus(ilePeuplee(false).capturerEtat(), 0, 0, "Singe dans la mer accepté");
+	}
+
+	/**
+	 * Ecrit un état en remplaçant la case d'un singe, et vérifie que son
+	 * chargement est refusé.
+	 *
+	 * @param etat l'état à écrire.
+	 * @param id l'identifiant du singe déplacé.
+	 * @param indice la nouvelle case du singe.
+	 * @param message le message en cas d'acceptation.
+	 * @throws IOException en cas d'erreur d'entrée-sortie.
+	 */
+	private static void verifierRefus(EtatIle etat, int id, int indice, String message)
+			throws IOException {
+		final Path fichier = Files.createTempFile("tinymonkeys", ".etat");
+		try {
+			FichierEtat.ecrire(etat, fichier);
+			final ByteBuffer octets = ByteBuffer.wrap(Files.readAllBytes(fichier));
+			octets.putInt(FichierEtat.TAILLE_EN_TETE + Integer.BYTES * id, indice);
+			Files.write(fichier, octets.array());
+			try {
+				FichierEtat.charger(fichier);
+				fail(message);
+			} catch (final IOException e) {
+				// Attendu.
+			}
+		} finally {
+			Files.delete(fichier);
+		}
+	}
+
+	/**
+	 * Vérifie que deux îles ont la même carte, les mêmes singes aux mêmes
+	 * positions, le même pirate et le même trésor, et que les cases occupées
+	 * correspondent aux singes.
+	 *
+	 * @param attendue l'île de référence.
+	 * @param obtenue l'île restaurée.
+	 */
+	private static void verifierIdentiques(Ile attendue, Ile obtenue) {
+		final Carte carte = obtenue.getCarte();
+		assertEquals("Largeur", attendue.getCarte().getLargeur(), carte.getLargeur());
+		for (int i = 0; i < carte.getLargeur() * carte.getHauteur(); ++i) {
+			assertEquals("Case " + i, attendue.getCarte().getTerrain(i), carte.getTerrain(i));
+		}
+
+		final BandeDeSingesErratiques bandeAttendue = attendue.getSingesErratiques();
+		final BandeDeSingesErratiques bande = obtenue.getSingesErratiques();
+		assertEquals("Nombre de singes", bandeAttendue.getNbSinges(), bande.getNbSinges());
+		for (int id = 0; id < bande.getNbSinges(); ++id) {
+			final SingeErratique singe = bande.getSinge(id);
+			assertEquals("Abscisse du singe " + id, bandeAttendue.getSinge(id).getX(), singe.getX());
+			assertEquals("Ordonnée du singe " + id, bandeAttendue.getSinge(id).getY(), singe.getY());
+			assertFalse("Case du singe " + id + " libre",
+					obtenue.isLibre(singe.getX(), singe.getY()));
+		}
+
+		// Chaque singe occupe sa case exactement une fois.
+		final GrilleOccupation occupation = obtenue.getOccupation();
+		assertEquals("Cases occupées", bande.getNbSinges(),
+				occupation.getNbTerres() - occupation.getNbTerresLibres());
+		for (int id = 0; id < bande.getNbSinges(); ++id) {
+			occupation.liberer(bande.getSinge(id).getX(), bande.getSinge(id).getY());
+		}
+		assertEquals("Cases libérées", occupation.getNbTerres(), occupation.getNbTerresLibres());
+
+		assertEquals("Abscisse du pirate", attendue.getPirate().getX(), obtenue.getPirate().getX());
+		assertEquals("Ordonnée du pirate", attendue.getPirate().getY(), obtenue.getPirate().getY());
+		assertEquals("Image du pirate", attendue.getPirate().getAvatar(),
+				obtenue.getPirate().getAvatar());
+		assertTrue("Trésor", obtenue.getTresor().coordonneesEgales(attendue.getTresor().getX(),
+				attendue.getTresor().getY()));
+	}
+
+	/**
+	 * Construit une île peuplée de singes, avec un pirate et un trésor, dont
+	 * les singes se sont déjà déplacés.
+	 *
+	 * @param compact true pour le stockage compact des singes.
+	 * @return l'île.
+	 */
+	private static Ile ilePeuplee(boolean compact) {
+		final Ile island = CartesDeTest.ilePeuplee(11L, LARGEUR_GRILLE, HAUTEUR_GRILLE, compact,
+				NB_SINGES, "pirate.png");
+		for (int tick = 0; tick < 10; ++tick) {
+			island.getSingesErratiques().deplacerSinges();
+		}
+		return island;
+	}
+}
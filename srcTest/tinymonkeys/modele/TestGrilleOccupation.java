@@ -0,0 +1,238 @@
+package tinymonkeys.modele;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Vector;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test de la grille d'occupation de l'ile. Verifie que la grille
+ * suit les ajouts, retraits et deplacements des singes de la bande.
+ *
+ */
+public class TestGrilleOccupation {
+
+	/**
+	 * Largeur de la carte en nombre de cases.
+	 */
+	private static final int LARGEUR_GRILLE = 10;
+
+	/**
+	 * Hauteur de la carte en nombre de cases.
+	 */
+	private static final int HAUTEUR_GRILLE = 8;
+
+	private Ile island;
+	private Vector<SingeErratique> singes;
+
+	/**
+	 * Méthode éxecutée avant chaque test.
+	 */
+	@Before
+	public void setUp() {
+		island = new Ile();
+		island.creationCarte(carteTerre());
+		singes = island.getSingesErratiques().getSingesErratiques();
+	}
+
+	/**
+	 * Un singe ajouté à la bande occupe sa case, et la libère en la quittant.
+	 */
+	@Test
+	public void testAjoutRetrait() {
+		final SingeErratique singe = new SingeErratique(3, 4, island);
+		assertTrue("Case occupée avant l'ajout", island.isLibre(3, 4));
+
+		singes.add(singe);
+		assertFalse("Case libre après l'ajout", island.isLibre(3, 4));
+
+		singes.remove(singe);
+		assertTrue("Case occupée après le retrait", island.isLibre(3, 4));
+	}
+
+	/**
+	 * La grille suit le déplacement d'un singe de la bande.
+	 */
+	@Test
+	public void testDeplacement() {
+		final SingeErratique singe = new SingeErratique(3, 4, island);
+		singes.add(singe);
+
+		singe.setPosition(5, 6);
+		assertTrue("Ancienne case toujours occupée", island.isLibre(3, 4));
+		assertFalse("Nouvelle case libre", island.isLibre(5, 6));
+	}
+
+	/**
+	 * Deux singes sur la même case : la case reste occupée tant que l'un
+	 * d'eux y demeure.
+	 */
+	@Test
+	public void testCaseDoublementOccupee() {
+		singes.add(new SingeErratique(2, 2, island));
+		singes.add(new SingeErratique(2, 2, island));
+
+		singes.remove(0);
+		assertFalse("Case libérée alors qu'un singe y demeure", island.isLibre(2, 2));
+
+		singes.clear();
+		assertTrue("Case occupée après le vidage de la bande", island.isLibre(2, 2));
+	}
+
+	/**
+	 * Les opérations du vecteur qui contournent add et remove (retrait d'une
+	 * sous-liste, remplacement global, insertion groupée) tiennent aussi la
+	 * grille à jour.
+	 */
+	@Test
+	public void testOperationsGroupees() {
+		for (int i = 0; i < 4; ++i) {
+			singes.add(new SingeErratique(i, 0, island));
+		}
+		singes.subList(1, 3).clear();
+		assertTrue("Case d'un singe retiré par tranche", island.isLibre(1, 0));
+		assertTrue("Case d'un singe retiré par tranche", island.isLibre(2, 0));
+		assertFalse("Case d'un singe restant", island.isLibre(3, 0));
+
+		singes.replaceAll(singe -> new SingeErratique(singe.getX(), 5, island));
+		assertTrue("Case d'un singe remplacé", island.isLibre(0, 0));
+		assertFalse("Case d'un singe remplaçant", island.isLibre(0, 5));
+
+		singes.addAll(1, Arrays.asList(new SingeErratique(6, 6, island)));
+		assertFalse("Case d'un singe inséré", island.isLibre(6, 6));
+		assertEquals("Singe inséré au rang demandé", 6, singes.get(1).getX());
+	}
+
+	/**
+	 * Les singes ajoutés avant la création de la carte sont pris en compte.
+	 */
+	@Test
+	public void testCreationCarteApresAjout() {
+		final Ile autreIle = new Ile();
+		autreIle.getSingesErratiques().getSingesErratiques()
+				.add(new SingeErratique(1, 1, autreIle));
+		autreIle.creationCarte(carteTerre());
+
+		assertFalse("Singe ignoré par la grille", autreIle.isLibre(1, 1));
+	}
+
+	/**
+	 * L'index des cases terre libres suit les singes : le pirate est placé
+	 * sur la seule case restée libre.
+	 */
+	@Test
+	public void testPlacementSurDerniereCaseLibre() {
+		for (int i = 0; i < LARGEUR_GRILLE; ++i) {
+			for (int j = 0; j < HAUTEUR_GRILLE; ++j) {
+				if (i != 7 || j != 5) {
+					singes.add(new SingeErratique(i, j, island));
+				}
+			}
+		}
+		assertEquals("Nombre de cases libres", 1,
+				island.getOccupation().getNbTerresLibres());
+
+		island.ajoutPirate(null);
+		assertEquals("Abscisse du pirate", 7, island.getPirate().getX());
+		assertEquals("Ordonnée du pirate", 5, island.getPirate().getY());
+	}
+
+	/**
+	 * Sans case terre libre, le placement du pirate échoue au lieu de boucler.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testAucuneCaseLibre() {
+		for (int i = 0; i < LARGEUR_GRILLE; ++i) {
+			for (int j = 0; j < HAUTEUR_GRILLE; ++j) {
+				singes.add(new SingeErratique(i, j, island));
+			}
+		}
+		island.ajoutPirate(null);
+	}
+
+	/**
+	 * Sur une carte bordée de mer, l'index des cases terre libres, construit
+	 * par rang de case terre, suit les singes empilés sur une même case.
+	 */
+	@Test
+	public void testIndexTerresLibresParRang() {
+		final GrilleOccupation grille = new GrilleOccupation();
+		grille.indexer(Carte.rectangulaire(6, 5));
+		final int nbTerres = 4 * 3;
+		assertEquals("Nombre de cases terre", nbTerres, grille.getNbTerres());
+		assertEquals("Première case terre", grille.indice(1, 1), grille.getTerre(0));
+
+		// Toutes les cases terre occupées sauf (3, 2), et (1, 1) deux fois.
+		for (int rang = 0; rang < nbTerres; ++rang) {
+			final int indice = grille.getTerre(rang);
+			if (indice != grille.indice(3, 2)) {
+				grille.occuper(grille.abscisse(indice), grille.ordonnee(indice));
+			}
+		}
+		grille.occuper(1, 1);
+		assertEquals("Cases terre libres", 1, grille.getNbTerresLibres());
+		final Random aleatoire = new Random(5L);
+		assertEquals("Seule case libre", grille.indice(3, 2), grille.tirerTerreLibre(aleatoire));
+
+		grille.liberer(1, 1);
+		assertFalse("Case empilée libérée trop tôt", grille.isLibre(1, 1));
+		assertEquals("Cases terre libres", 1, grille.getNbTerresLibres());
+		grille.liberer(1, 1);
+		assertTrue("Case empilée non libérée", grille.isLibre(1, 1));
+		assertEquals("Cases terre libres", 2, grille.getNbTerresLibres());
+
+		grille.occuper(3, 2);
+		assertEquals("Case libérée tirée", grille.indice(1, 1), grille.tirerTerreLibre(aleatoire));
+	}
+
+	/**
+	 * La table des occupants suit une suite aléatoire d'arrivées et de
+	 * départs, malgré les collisions, les agrandissements et les retraits.
+	 */
+	@Test
+	public void testTableOccupants() {
+		final int nbCases = 4096;
+		final int[] attendus = new int[nbCases];
+		final TableOccupants table = new TableOccupants();
+		final Random aleatoire = new Random(7L);
+		for (int n = 0; n < 200000; ++n) {
+			// Indices groupés pour provoquer des collisions.
+			final int indice = aleatoire.nextInt(nbCases / 8) * 8;
+			if (aleatoire.nextBoolean()) {
+				assertEquals("Arrivée sur " + indice, ++attendus[indice],
+						table.incrementer(indice));
+			} else {
+				final int reste = (attendus[indice] == 0) ? -1 : --attendus[indice];
+				assertEquals("Départ de " + indice, reste, table.decrementer(indice));
+			}
+		}
+		for (int indice = 0; indice < nbCases; ++indice) {
+			assertEquals("Occupants de " + indice, attendus[indice], table.get(indice));
+		}
+	}
+
+	/**
+	 * Produit une carte entièrement composée de terre.
+	 *
+	 * @return la carte de l'ile.
+	 */
+	private static int[][] carteTerre() {
+		final int[][] carte = new int[LARGEUR_GRILLE][HAUTEUR_GRILLE];
+		for (int i = 0; i < LARGEUR_GRILLE; ++i) {
+			for (int j = 0; j < HAUTEUR_GRILLE; ++j) {
+				carte[i][j] = 1;
+			}
+		}
+		return carte;
+	}
+
+}
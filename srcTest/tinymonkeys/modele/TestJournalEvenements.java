@@ -0,0 +1,184 @@
+package tinymonkeys.modele;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test du journal des evenements : un journal relu restitue les
+ * evenements emis par le modele, dans l'ordre.
+ *
+ */
+public class TestJournalEvenements {
+
+	/**
+	 * Largeur de la carte en nombre de cases.
+	 */
+	private static final int LARGEUR_GRILLE = 20;
+
+	/**
+	 * Hauteur de la carte en nombre de cases.
+	 */
+	private static final int HAUTEUR_GRILLE = 10;
+
+	/**
+	 * Une partie relue depuis son journal produit les mêmes évènements que
+	 * la partie enregistrée.
+	 *
+	 * @throws Exception en cas d'erreur d'entrée-sortie.
+	 */
+	@Test
+	public void testRelecture() throws Exception {
+		this.verifierRelecture(JournalEvenements.CAPACITE_DEFAUT);
+	}
+
+	/**
+	 * Un anneau minuscule, plein en permanence, ne perd ni ne mélange aucun
+	 * octet.
+	 *
+	 * @throws Exception en cas d'erreur d'entrée-sortie.
+	 */
+	@Test
+	public void testAnneauPlein() throws Exception {
+		this.verifierRelecture(64);
+	}
+
+	/**
+	 * Les entiers signés survivent au codage zigzag.
+	 */
+	@Test
+	public void testZigzag() {
+		for (final int valeur : new int[] { 0, 1, -1, 63, -64, Integer.MAX_VALUE, Integer.MIN_VALUE }) {
+			assertEquals("Zigzag de " + valeur, valeur,
+					JournalEvenements.dezigzag(JournalEvenements.zigzag(valeur)));
+		}
+		assertEquals("Petite valeur négative", 1, JournalEvenements.zigzag(-1));
+	}
+
+	/**
+	 * Enregistre une partie dans un journal, la relit, et compare les
+	 * évènements.
+	 *
+	 * @param capacite la capacité de l'anneau du journal.
+	 * @throws Exception en cas d'erreur d'entrée-sortie.
+	 */
+	private void verifierRelecture(int capacite) throws Exception {
+		final Path fichier = Files.createTempFile("tinymonkeys", ".journal");
+		try {
+			final Ile island = new Ile(3L);
+			final Enregistreur emis = new Enregistreur();
+			island.enregistreEcIle(emis);
+			island.getSingesErratiques().enregistreEcBandeSinges(emis);
+			island.getPirate().enregistreEcPirate(emis);
+			final JournalEvenements journal = new JournalEvenements(fichier, capacite);
+			journal.suivre(island);
+
+			island.creationCarte(Carte.rectangulaire(LARGEUR_GRILLE, HAUTEUR_GRILLE));
+			island.creationTresor();
+			island.ajoutSingesErratiques(30);
+			island.ajoutPirate("pirate.png");
+			int nbDeplacements = 0;
+			for (int tick = 0; tick < 50; ++tick) {
+				island.getSingesErratiques().deplacerSinges();
+				island.demandeDeplacementPirate(tick % 2, (tick + 1) % 2);
+				if (tick == 25) {
+					island.restaurerEtat(island.capturerEtat());
+				}
+			}
+			for (final String evenement : emis.evenements) {
+				if (evenement.startsWith("deplacementSinge")) {
+					++nbDeplacements;
+				}
+			}
+			island.suppressionTresor();
+			journal.close();
+
+			final Enregistreur relus = new Enregistreur();
+			final LecteurJournal lecteur = new LecteurJournal(fichier);
+			lecteur.rejouer(relus, relus, relus, Double.POSITIVE_INFINITY);
+
+			assertEquals("Évènements relus", emis.evenements, relus.evenements);
+			assertTrue("Journal trop volumineux : " + Files.size(fichier) + " octets",
+					Files.size(fichier) < 4 * nbDeplacements + 1000);
+		} finally {
+			Files.delete(fichier);
+		}
+	}
+
+	/**
+	 * Ecouteur notant chaque évènement reçu sous forme de texte.
+	 */
+	private static final class Enregistreur implements IleEcouteur,
+			BandeDeSingesErratiquesEcouteur, PirateEcouteur {
+
+		/**
+		 * Les évènements reçus.
+		 */
+		final List<String> evenements = new ArrayList<String>();
+
+		@Override
+		public void creationCarte(Carte carte) {
+			final StringBuilder texte = new StringBuilder("creationCarte ");
+			for (int i = 0; i < carte.getLargeur() * carte.getHauteur(); ++i) {
+				texte.append(carte.getTerrain(i));
+			}
+			this.evenements.add(texte.toString());
+		}
+
+		@Override
+		public void changementCarte(Carte carte) {
+			this.evenements.add("changementCarte");
+		}
+
+		@Override
+		public void creationSingeErratique(int id, int x, int y) {
+			this.evenements.add("creationSinge " + id + " " + x + " " + y);
+		}
+
+		@Override
+		public void deplacementSingeErratique(int id, int x, int y) {
+			this.evenements.add("deplacementSinge " + id + " " + x + " " + y);
+		}
+
+		@Override
+		public void creationTresor(int x, int y) {
+			this.evenements.add("creationTresor " + x + " " + y);
+		}
+
+		@Override
+		public void suppressionTresor() {
+			this.evenements.add("suppressionTresor");
+		}
+
+		@Override
+		public void ajoutPirate(int id, int x, int y, String avatar) {
+			this.evenements.add("ajoutPirate " + id + " " + x + " " + y + " " + avatar);
+		}
+
+		@Override
+		public void deplacementPirate(int id, int x, int y) {
+			this.evenements.add("deplacementPirate " + id + " " + x + " " + y);
+		}
+
+		@Override
+		public void mortPirate(int id) {
+			this.evenements.add("mortPirate " + id);
+		}
+
+		@Override
+		public void liberationClavier() {
+			// Non enregistré par le journal.
+		}
+	}
+
+}
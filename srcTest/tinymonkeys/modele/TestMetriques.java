@@ -0,0 +1,123 @@
+package tinymonkeys.modele;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test des metriques : precision de l'histogramme et comptage des
+ * deplacements d'un tick.
+ *
+ */
+public class TestMetriques {
+
+	/**
+	 * Erreur relative maximale d'un centile.
+	 */
+	private static final double PRECISION = 1.0 / 32;
+
+	/**
+	 * Les centiles de valeurs uniformément réparties sont retrouvés à la
+	 * précision de l'histogramme près.
+	 */
+	@Test
+	public void testCentiles() {
+		final Histogramme histogramme = new Histogramme();
+		final int n = 100000;
+		for (int v = 1; v <= n; ++v) {
+			histogramme.enregistrer(v * 1000L);
+		}
+
+		assertEquals("Nombre de valeurs", n, histogramme.getNombre());
+		assertEquals("Maximum", n * 1000L, histogramme.getMax());
+		assertEquals("Moyenne", (n + 1) * 500.0, histogramme.getMoyenne(), 1e-6);
+		for (final double centile : new double[] { 1, 50, 90, 99, 99.9, 100 }) {
+			final double attendu = centile / 100 * n * 1000;
+			final long obtenu = histogramme.getCentile(centile);
+			assertTrue("Centile " + centile + " : " + obtenu,
+					Math.abs(obtenu - attendu) <= attendu * PRECISION);
+		}
+
+		histogramme.reinitialiser();
+		assertEquals("Histogramme vidé", 0, histogramme.getCentile(50));
+	}
+
+	/**
+	 * Chaque valeur tombe dans un intervalle dont les bornes l'encadrent.
+	 */
+	@Test
+	public void testIntervalles() {
+		long precedente = -1;
+		for (long v = 0; v < 1L << 20; v += 1 + v / 7) {
+			final int indice = Histogramme.indice(v);
+			assertTrue("Borne de " + v, Histogramme.borneSuperieure(indice) >= v);
+			assertTrue("Intervalle précédent de " + v,
+					indice == 0 || Histogramme.borneSuperieure(indice - 1) < v);
+			assertTrue("Indices croissants", indice >= precedente);
+			precedente = indice;
+		}
+		assertTrue("Plus grande valeur", Histogramme.borneSuperieure(
+				Histogramme.indice(Long.MAX_VALUE)) == Long.MAX_VALUE);
+	}
+
+	/**
+	 * Chaque singe d'un tick est compté comme déplacé ou bloqué, et chaque
+	 * tick de la simulation est mesuré.
+	 */
+	@Test
+	public void testComptageTick() {
+		final Ile ile = new Ile(3L);
+		final Carte carte = Carte.rectangulaire(10, 10);
+		ile.creationCarte(carte);
+		ile.ajoutSingesErratiques(30);
+		final Simulation simulation = new Simulation(ile);
+
+		final Metriques metriques = Metriques.getInstance();
+		final long ticks = metriques.getNbTicks();
+		final long deplacements = metriques.getNbDeplacements();
+		final long bloques = metriques.getNbDeplacementsBloques();
+		for (int t = 0; t < 5; ++t) {
+			simulation.tick();
+		}
+
+		assertEquals("Ticks mesurés", ticks + 5, metriques.getNbTicks());
+		assertEquals("Singes comptés", 5 * 30, metriques.getNbDeplacements() - deplacements
+				+ metriques.getNbDeplacementsBloques() - bloques);
+	}
+
+	/**
+	 * Un tick de la simulation enregistre une diffusion des déplacements et
+	 * une diffusion de l'état, chacune dans son propre histogramme.
+	 */
+	@Test
+	public void testDiffusionsSeparees() {
+		final Ile ile = new Ile(4L);
+		ile.creationCarte(Carte.rectangulaire(10, 10));
+		ile.ajoutSingesErratiques(30);
+		ile.getSingesErratiques().enregistreEcBandeSinges(new BandeDeSingesErratiquesEcouteur() {
+			@Override
+			public void creationSingeErratique(int id, int x, int y) {
+			}
+
+			@Override
+			public void deplacementSingeErratique(int id, int x, int y) {
+			}
+		});
+		final Simulation simulation = new Simulation(ile);
+		simulation.enregistreEcSimulation((tick, etat) -> { });
+
+		final Metriques metriques = Metriques.getInstance();
+		final long deplacements = metriques.getDureesDiffusionDeplacements().getNombre();
+		final long etats = metriques.getDureesDiffusionEtat().getNombre();
+		simulation.tick();
+
+		assertEquals("Diffusions des déplacements", deplacements + 1,
+				metriques.getDureesDiffusionDeplacements().getNombre());
+		assertEquals("Diffusions de l'état", etats + 1,
+				metriques.getDureesDiffusionEtat().getNombre());
+	}
+}
@@ -0,0 +1,108 @@
+package tinymonkeys.modele;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test de l'ordonnanceur de la simulation : execution periodique,
+ * pause, reprise et arret.
+ *
+ */
+public class TestOrdonnanceur {
+
+	/**
+	 * Délai maximal d'attente d'un évènement, en millisecondes.
+	 */
+	private static final long DELAI_MAX = 5000;
+
+	/**
+	 * Durée pendant laquelle aucun tick ne doit survenir, en millisecondes.
+	 */
+	private static final long DUREE_SILENCE = 100;
+
+	private AtomicInteger compteur;
+	private Ordonnanceur ordonnanceur;
+
+	/**
+	 * Méthode éxecutée avant chaque test.
+	 */
+	@Before
+	public void setUp() {
+		compteur = new AtomicInteger();
+		ordonnanceur = new Ordonnanceur(compteur::incrementAndGet, 1, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Méthode éxecutée après chaque test.
+	 */
+	@After
+	public void tearDown() {
+		ordonnanceur.arreter();
+	}
+
+	/**
+	 * Les ticks s'enchainent, cessent pendant la pause et reprennent ensuite.
+	 *
+	 * @throws InterruptedException si le test est interrompu.
+	 */
+	@Test
+	public void testPauseReprise() throws InterruptedException {
+		ordonnanceur.demarrer();
+		assertTrue("Aucun tick exécuté", attendreTicks(10));
+
+		ordonnanceur.pause();
+		assertFalse("Ordonnanceur toujours en cours", ordonnanceur.isEnCours());
+		Thread.sleep(DUREE_SILENCE);
+		final int ticksPause = compteur.get();
+		Thread.sleep(DUREE_SILENCE);
+		assertEquals("Tick exécuté pendant la pause", ticksPause, compteur.get());
+
+		ordonnanceur.reprise();
+		assertTrue("Aucun tick après la reprise", attendreTicks(ticksPause + 10));
+	}
+
+	/**
+	 * Après l'arrêt, le thread de simulation se termine et plus aucun tick
+	 * n'est exécuté.
+	 *
+	 * @throws InterruptedException si le test est interrompu.
+	 */
+	@Test
+	public void testArret() throws InterruptedException {
+		ordonnanceur.demarrer();
+		assertTrue("Aucun tick exécuté", attendreTicks(1));
+
+		ordonnanceur.arreter();
+		assertTrue("Thread non terminé", ordonnanceur.attendreArret(DELAI_MAX, TimeUnit.MILLISECONDS));
+		final int ticksArret = compteur.get();
+		Thread.sleep(DUREE_SILENCE);
+		assertEquals("Tick exécuté après l'arrêt", ticksArret, compteur.get());
+	}
+
+	/**
+	 * Attend que le nombre de ticks indiqué soit atteint.
+	 *
+	 * @param nbTicks le nombre de ticks attendu.
+	 * @return true si le nombre de ticks a été atteint avant le délai maximal.
+	 * @throws InterruptedException si l'attente est interrompue.
+	 */
+	private boolean attendreTicks(int nbTicks) throws InterruptedException {
+		final long limite = System.currentTimeMillis() + DELAI_MAX;
+		while (compteur.get() < nbTicks && System.currentTimeMillis() < limite) {
+			Thread.sleep(1);
+		}
+		return compteur.get() >= nbTicks;
+	}
+
+}
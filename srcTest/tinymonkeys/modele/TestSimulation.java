@@ -0,0 +1,260 @@
+package tinymonkeys.modele;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test de la simulation a un seul thread ecrivain : les commandes
+ * deposees par plusieurs threads sont toutes executees par le thread de
+ * simulation, et chaque tick publie un etat de l'ile.
+ *
+ */
+public class TestSimulation {
+
+	/**
+	 * Délai maximal d'attente d'un évènement, en millisecondes.
+	 */
+	private static final long DELAI_MAX = 5000;
+
+	/**
+	 * Largeur de la carte en nombre de cases.
+	 */
+	private static final int LARGEUR_GRILLE = 20;
+
+	/**
+	 * Hauteur de la carte en nombre de cases.
+	 */
+	private static final int HAUTEUR_GRILLE = 10;
+
+	private Ile island;
+	private Simulation simulation;
+
+	/**
+	 * Méthode éxecutée avant chaque test.
+	 */
+	@Before
+	public void setUp() {
+		island = new Ile(1L);
+		island.creationCarte(Carte.rectangulaire(LARGEUR_GRILLE, HAUTEUR_GRILLE));
+		island.ajoutSingesErratiques(20);
+		simulation = new Simulation(island);
+		simulation.getOrdonnanceur().setPeriode(1, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Méthode éxecutée après chaque test.
+	 */
+	@After
+	public void tearDown() {
+		simulation.arreter();
+	}
+
+	/**
+	 * Les commandes déposées par plusieurs threads sont toutes exécutées,
+	 * toujours par le même thread.
+	 *
+	 * @throws InterruptedException si le test est interrompu.
+	 */
+	@Test
+	public void testCommandesConcurrentes() throws InterruptedException {
+		final int nbThreads = 4;
+		final int nbCommandes = 1000;
+		final AtomicInteger executees = new AtomicInteger();
+		final List<Thread> executants = new ArrayList<Thread>();
+		final CountDownLatch fin = new CountDownLatch(1);
+		simulation.demarrer();
+
+		final Thread[] deposants = new Thread[nbThreads];
+		for (int t = 0; t < nbThreads; ++t) {
+			deposants[t] = new Thread(() -> {
+				for (int i = 0; i < nbCommandes; ++i) {
+					simulation.soumettre(ile -> {
+						synchronized (executants) {
+							if (!executants.contains(Thread.currentThread())) {
+								executants.add(Thread.currentThread());
+							}
+						}
+						if (executees.incrementAndGet() == nbThreads * nbCommandes) {
+							fin.countDown();
+						}
+					});
+				}
+			});
+			deposants[t].start();
+		}
+		for (final Thread deposant : deposants) {
+			deposant.join();
+		}
+
+		assertTrue("Commandes non exécutées", fin.await(DELAI_MAX, TimeUnit.MILLISECONDS));
+		assertEquals("Commandes exécutées", nbThreads * nbCommandes, executees.get());
+		assertEquals("Threads exécutants", 1, executants.size());
+	}
+
+	/**
+	 * Chaque tick publie un état immuable de l'île, numéroté.
+	 */
+	@Test
+	public void testEtatParTick() {
+		final List<Long> ticks = new ArrayList<Long>();
+		simulation.enregistreEcSimulation((tick, etat) -> ticks.add(tick));
+		simulation.soumettre(ile -> ile.ajoutPirate(null));
+		simulation.tick();
+		simulation.tick();
+
+		final EtatIle etat = simulation.getEtat();
+		assertNotNull("Aucun état publié", etat);
+		assertEquals("Ticks publiés", 2, ticks.size());
+		assertEquals("Numéro du dernier tick", Long.valueOf(2), ticks.get(1));
+		assertEquals("Nombre de singes", 20, etat.getNbSinges());
+		for (int id = 0; id < etat.getNbSinges(); ++id) {
+			final SingeErratique singe = island.getSingesErratiques().getSinge(id);
+			assertEquals("Abscisse du singe " + id, singe.getX(), etat.getXSinge(id));
+			assertEquals("Ordonnée du singe " + id, singe.getY(), etat.getYSinge(id));
+		}
+		assertEquals("Abscisse du pirate", island.getPirate().getX(), etat.getXPirate());
+	}
+
+	/**
+	 * Sans écouteur de la simulation, aucun état n'est capturé.
+	 */
+	@Test
+	public void testSansEcouteurSansCapture() {
+		simulation.tick();
+		assertNull("État capturé sans écouteur", simulation.getEtat());
+	}
+
+	/**
+	 * Une fois la simulation démarrée, une entrée est appliquée sans attendre
+	 * le tick suivant.
+	 *
+	 * @throws InterruptedException si le test est interrompu.
+	 */
+	@Test
+	public void testEntreeEntreDeuxTicks() throws InterruptedException {
+		final Ile ile = new Ile(3L);
+		ile.creationCarte(Carte.rectangulaire(LARGEUR_GRILLE, HAUTEUR_GRILLE));
+		ile.creationTresor();
+		ile.getPirate().positionInitiale(2, 5);
+		final CountDownLatch deplace = new CountDownLatch(1);
+		ile.getPirate().enregistreEcPirate(new PirateEcouteur() {
+			@Override
+			public void ajoutPirate(int id, int x, int y, String avatar) {
+			}
+
+			@Override
+			public void deplacementPirate(int id, int x, int y) {
+				deplace.countDown();
+			}
+
+			@Override
+			public void mortPirate(int id) {
+			}
+
+			@Override
+			public void liberationClavier() {
+			}
+		});
+
+		// Un seul tick, au démarrage : le suivant est à une heure.
+		final Simulation sim = new Simulation(ile);
+		sim.getOrdonnanceur().setPeriode(1, TimeUnit.HOURS);
+		final CountDownLatch premierTick = new CountDownLatch(1);
+		sim.soumettre(i -> premierTick.countDown());
+		try {
+			sim.demarrer();
+			assertTrue("Premier tick", premierTick.await(DELAI_MAX, TimeUnit.MILLISECONDS));
+
+			sim.demandeDeplacementPirate(1, 0);
+			assertTrue("Entrée en attente du tick suivant",
+					deplace.await(DELAI_MAX, TimeUnit.MILLISECONDS));
+		} finally {
+			sim.arreter();
+		}
+	}
+
+	/**
+	 * Toutes les entrées d'un tick sont appliquées dans l'ordre, ou seule la
+	 * dernière selon la politique de coalescence.
+	 */
+	@Test
+	public void testCoalescence() {
+		final Ile ile = new Ile(2L);
+		ile.creationCarte(Carte.rectangulaire(LARGEUR_GRILLE, HAUTEUR_GRILLE));
+		ile.creationTresor();
+		ile.getPirate().positionInitiale(2, 5);
+		final Simulation sim = new Simulation(ile);
+
+		sim.demandeDeplacementPirate(1, 0);
+		sim.demandeDeplacementPirate(1, 0);
+		sim.demandeDeplacementPirate(1, 0);
+		sim.tick();
+		assertEquals("Toutes les entrées", 5, ile.getPirate().getX());
+
+		sim.setCoalescence(Simulation.Coalescence.DERNIERE);
+		sim.demandeDeplacementPirate(1, 0);
+		sim.demandeDeplacementPirate(1, 0);
+		sim.demandeDeplacementPirate(0, -1);
+		sim.tick();
+		assertEquals("Dernière entrée en abscisse", 5, ile.getPirate().getX());
+		assertEquals("Dernière entrée en ordonnée", 4, ile.getPirate().getY());
+
+		sim.tick();
+		assertEquals("Entrée rejouée", 4, ile.getPirate().getY());
+	}
+
+	/**
+	 * Les éléments déposés par plusieurs producteurs sont tous retirés, dans
+	 * l'ordre de dépôt de chaque producteur.
+	 *
+	 * @throws InterruptedException si le test est interrompu.
+	 */
+	@Test
+	public void testFileMpsc() throws InterruptedException {
+		final int nbProducteurs = 4;
+		final int nbElements = 100000;
+		final FileMpsc<int[]> file = new FileMpsc<int[]>();
+		final Thread[] producteurs = new Thread[nbProducteurs];
+		for (int p = 0; p < nbProducteurs; ++p) {
+			final int producteur = p;
+			producteurs[p] = new Thread(() -> {
+				for (int i = 0; i < nbElements; ++i) {
+					file.deposer(new int[] { producteur, i });
+				}
+			});
+			producteurs[p].start();
+		}
+
+		final int[] suivants = new int[nbProducteurs];
+		int retires = 0;
+		final long limite = System.currentTimeMillis() + DELAI_MAX;
+		while (retires < nbProducteurs * nbElements && System.currentTimeMillis() < limite) {
+			final int[] element = file.retirer();
+			if (element != null) {
+				assertEquals("Ordre du producteur " + element[0], suivants[element[0]], element[1]);
+				++suivants[element[0]];
+				++retires;
+			}
+		}
+		for (final Thread producteur : producteurs) {
+			producteur.join();
+		}
+		assertEquals("Éléments retirés", nbProducteurs * nbElements, retires);
+		assertTrue("File non vide", file.isVide());
+	}
+}
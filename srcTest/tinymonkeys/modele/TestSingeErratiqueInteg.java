@@ -1,5 +1,6 @@
 package tinymonkeys.modele;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -218,6 +219,31 @@ public class TestSingeErratiqueInteg {
 		assertFalse("Pirate vivant", island.getPirate().isVivant());
 	}
 	
+	/**
+	 * Les déplacements demandés un à un tirent dans la source d'aléatoire de
+	 * l'île : deux îles de même graine produisent les mêmes trajets.
+	 */
+	@Test
+	public void testDeplacementsReproductibles() {
+		final Ile ile1 = new Ile(23L);
+		final Ile ile2 = new Ile(23L);
+		ile1.creationCarte(exempleCarte());
+		ile2.creationCarte(exempleCarte());
+		final SingeErratique singe1 = new SingeErratique(LARGEUR_GRILLE/2, HAUTEUR_GRILLE/2, ile1);
+		final SingeErratique singe2 = new SingeErratique(LARGEUR_GRILLE/2, HAUTEUR_GRILLE/2, ile2);
+
+		for (int i = 0; i < 200; ++i) {
+			singe1.deplacerSinge();
+			singe2.deplacerSinge();
+			assertEquals("Abscisses divergentes", singe1.getX(), singe2.getX());
+			assertEquals("Ordonnées divergentes", singe1.getY(), singe2.getY());
+			final CaseVide case1 = singe1.getNextRandomPos();
+			final CaseVide case2 = singe2.getNextRandomPos();
+			assertTrue("Cases tirées divergentes",
+					case1.coordonneesEgales(case2.getX(), case2.getY()));
+		}
+	}
+
 	/**
 	 * Methode permettant de remplir une carte de l'ile selon la taille de
 	 * constantes.
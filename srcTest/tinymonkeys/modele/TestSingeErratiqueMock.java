@@ -18,6 +18,7 @@ import org.junit.Test;
 public class TestSingeErratiqueMock {
 	
 	private static final int NB_IT = 1000000;
+	private static final long GRAINE = 17L;
 	private static final int ORDONNEE = 13;
 	private static final int ORDONNEE_HAUT = 14;
 	private static final int ORDONNEE_BAS = 12;
@@ -36,6 +37,8 @@ public class TestSingeErratiqueMock {
 	public void setUp() {
 		islandMock = EasyMock.createMock(Ile.class);
 		pirateMock = EasyMock.createMock(Pirate.class);
+		EasyMock.expect(islandMock.getAleatoireSinges())
+				.andStubReturn(new SourceAleatoire(GRAINE).diviser());
 		singe = new SingeErratique(ABSCISSE, ORDONNEE, islandMock);
 	}
 
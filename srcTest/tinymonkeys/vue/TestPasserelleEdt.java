@@ -0,0 +1,188 @@
+package tinymonkeys.vue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tinymonkeys.modele.BandeDeSingesErratiquesEcouteur;
+import tinymonkeys.modele.Carte;
+import tinymonkeys.modele.EtatIle;
+import tinymonkeys.modele.IleEcouteur;
+import tinymonkeys.modele.LotPositions;
+import tinymonkeys.modele.PirateEcouteur;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test de la passerelle vers l'EDT : les evenements d'une image
+ * sont transmis en un seul passage, dans l'ordre, deplacements fusionnes.
+ *
+ */
+public class TestPasserelleEdt {
+
+	private Enregistreur vue;
+	private PasserelleEdt passerelle;
+
+	/**
+	 * Méthode éxecutée avant chaque test.
+	 */
+	@Before
+	public void setUp() {
+		vue = new Enregistreur();
+		passerelle = new PasserelleEdt(vue, vue, vue, false);
+	}
+
+	/**
+	 * Les déplacements successifs d'un même singe ou du pirate sont fusionnés
+	 * en leur dernière position, sans changer l'ordre des autres évènements.
+	 */
+	@Test
+	public void testFusionDeplacements() {
+		final LotPositions creations = new LotPositions();
+		creations.ajouter(0, 1, 1);
+		creations.ajouter(1, 2, 2);
+		passerelle.creationsSingesErratiques(creations);
+		// Le lot du modèle est réutilisé après la notification.
+		creations.vider();
+
+		for (int tick = 0; tick < 3; ++tick) {
+			final LotPositions deplacements = new LotPositions();
+			deplacements.ajouter(0, 1 + tick, 1);
+			if (tick != 1) {
+				deplacements.ajouter(1, 2, 2 + tick);
+			}
+			passerelle.deplacementsSingesErratiques(deplacements);
+			passerelle.deplacementPirate(0, tick, 0);
+		}
+		passerelle.mortPirate(0);
+		passerelle.deplacementSingeErratique(1, 5, 5);
+
+		assertTrue("Rien en attente", passerelle.isEnAttente());
+		assertTrue("Évènement transmis avant le passage", vue.evenements.isEmpty());
+		passerelle.vider();
+
+		assertEquals("Évènements transmis", Arrays.asList(
+				"creations 0:1,1 1:2,2",
+				"deplacements 0:3,1 1:2,4",
+				"deplacementPirate 2,0",
+				"mortPirate",
+				"deplacements 1:5,5"), vue.evenements);
+		assertFalse("Évènements restants", passerelle.isEnAttente());
+		assertEquals("Passages", 1, passerelle.getNbPassages());
+	}
+
+	/**
+	 * Une restauration d'état remplace les évènements encore en attente.
+	 */
+	@Test
+	public void testRestauration() {
+		passerelle.creationTresor(1, 1);
+		passerelle.deplacementSingeErratique(0, 1, 1);
+		passerelle.restaurationEtat(null);
+		passerelle.suppressionTresor();
+		passerelle.vider();
+		assertEquals("Évènements transmis", Arrays.asList("restauration", "suppressionTresor"),
+				vue.evenements);
+	}
+
+	/**
+	 * Ecouteur notant chaque évènement reçu sous forme de texte.
+	 */
+	private static final class Enregistreur implements IleEcouteur,
+			BandeDeSingesErratiquesEcouteur, PirateEcouteur {
+
+		/**
+		 * Les évènements reçus.
+		 */
+		final List<String> evenements = new ArrayList<String>();
+
+		@Override
+		public void creationCarte(Carte carte) {
+			this.evenements.add("creationCarte");
+		}
+
+		@Override
+		public void changementCarte(Carte carte) {
+			this.evenements.add("changementCarte");
+		}
+
+		@Override
+		public void creationSingeErratique(int id, int x, int y) {
+			this.evenements.add("creation " + id + ":" + x + "," + y);
+		}
+
+		@Override
+		public void creationsSingesErratiques(LotPositions lot) {
+			this.evenements.add(texte("creations", lot));
+		}
+
+		@Override
+		public void deplacementSingeErratique(int id, int x, int y) {
+			this.evenements.add("deplacement " + id + ":" + x + "," + y);
+		}
+
+		@Override
+		public void deplacementsSingesErratiques(LotPositions lot) {
+			this.evenements.add(texte("deplacements", lot));
+		}
+
+		@Override
+		public void creationTresor(int x, int y) {
+			this.evenements.add("creationTresor");
+		}
+
+		@Override
+		public void suppressionTresor() {
+			this.evenements.add("suppressionTresor");
+		}
+
+		@Override
+		public void restaurationEtat(EtatIle etat) {
+			this.evenements.add("restauration");
+		}
+
+		@Override
+		public void ajoutPirate(int id, int x, int y, String avatar) {
+			this.evenements.add("ajoutPirate");
+		}
+
+		@Override
+		public void deplacementPirate(int id, int x, int y) {
+			this.evenements.add("deplacementPirate " + x + "," + y);
+		}
+
+		@Override
+		public void mortPirate(int id) {
+			this.evenements.add("mortPirate");
+		}
+
+		@Override
+		public void liberationClavier() {
+			this.evenements.add("liberationClavier");
+		}
+
+		/**
+		 * Met un lot de positions sous forme de texte.
+		 *
+		 * @param nom le nom de l'évènement.
+		 * @param lot le lot.
+		 * @return le texte.
+		 */
+		private static String texte(String nom, LotPositions lot) {
+			final StringBuilder texte = new StringBuilder(nom);
+			for (int i = 0; i < lot.getTaille(); ++i) {
+				texte.append(' ').append(lot.getId(i)).append(':').append(lot.getX(i))
+						.append(',').append(lot.getY(i));
+			}
+			return texte.toString();
+		}
+	}
+}
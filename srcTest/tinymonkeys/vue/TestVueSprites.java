@@ -0,0 +1,105 @@
+package tinymonkeys.vue;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.Test;
+
+import tinymonkeys.modele.LotPositions;
+
+/**
+ * @author Adrian Fraisse
+ * @version 1.0
+ *
+ * Classe de test de la vue des personnages : le dessin d'une zone, limite
+ * aux singes des secteurs qu'elle couvre, est identique au dessin complet.
+ *
+ */
+public class TestVueSprites {
+
+	/**
+	 * Taille d'une case en nombre de pixels.
+	 */
+	private static final int TAILLE_CASE = 10;
+
+	/**
+	 * Largeur de la grille en nombre de cases.
+	 */
+	private static final int LARGEUR_GRILLE = 40;
+
+	/**
+	 * Hauteur de la grille en nombre de cases.
+	 */
+	private static final int HAUTEUR_GRILLE = 30;
+
+	/**
+	 * Nombre de singes de la vue.
+	 */
+	private static final int NB_SINGES = 300;
+
+	/**
+	 * Après des créations et des déplacements, chaque zone dessinée seule
+	 * contient exactement les pixels du dessin complet.
+	 */
+	@Test
+	public void testZonesIdentiquesAuDessinComplet() {
+		final VueSprites vue = new VueSprites(TAILLE_CASE, 0, 0,
+				LARGEUR_GRILLE * TAILLE_CASE, HAUTEUR_GRILLE * TAILLE_CASE);
+		final Random aleatoire = new Random(11L);
+
+		final LotPositions creations = new LotPositions();
+		for (int id = 0; id < NB_SINGES; ++id) {
+			creations.ajouter(id, aleatoire.nextInt(LARGEUR_GRILLE),
+					aleatoire.nextInt(HAUTEUR_GRILLE));
+		}
+		vue.creationsSinges(creations);
+		vue.creationTresor(3, 4);
+		vue.ajoutPirate(5, 6, null);
+		for (int n = 0; n < 2000; ++n) {
+			vue.deplacementSinge(aleatoire.nextInt(NB_SINGES), aleatoire.nextInt(LARGEUR_GRILLE),
+					aleatoire.nextInt(HAUTEUR_GRILLE));
+		}
+
+		final BufferedImage complet = dessin(vue, null);
+		for (int n = 0; n < 50; ++n) {
+			final Rectangle zone = new Rectangle(aleatoire.nextInt(LARGEUR_GRILLE * TAILLE_CASE),
+					aleatoire.nextInt(HAUTEUR_GRILLE * TAILLE_CASE), 1 + aleatoire.nextInt(120),
+					1 + aleatoire.nextInt(120));
+			final BufferedImage partiel = dessin(vue, zone);
+			final Rectangle visible = zone.intersection(new Rectangle(0, 0,
+					complet.getWidth(), complet.getHeight()));
+			for (int x = visible.x; x < visible.x + visible.width; ++x) {
+				for (int y = visible.y; y < visible.y + visible.height; ++y) {
+					assertEquals("Pixel " + x + "," + y + " de la zone " + zone,
+							complet.getRGB(x, y), partiel.getRGB(x, y));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Dessine la vue dans une image, limité à une zone.
+	 *
+	 * @param vue la vue à dessiner.
+	 * @param zone la zone à dessiner, ou null pour toute la vue.
+	 * @return l'image.
+	 */
+	private static BufferedImage dessin(VueSprites vue, Rectangle zone) {
+		final BufferedImage image = new BufferedImage(LARGEUR_GRILLE * TAILLE_CASE,
+				HAUTEUR_GRILLE * TAILLE_CASE, BufferedImage.TYPE_INT_ARGB);
+		final Graphics2D g = image.createGraphics();
+		try {
+			if (zone != null) {
+				g.setClip(zone);
+			}
+			vue.paintComponent(g);
+		} finally {
+			g.dispose();
+		}
+		return image;
+	}
+}